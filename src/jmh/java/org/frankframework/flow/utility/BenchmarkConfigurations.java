@@ -0,0 +1,102 @@
+package org.frankframework.flow.utility;
+
+/**
+ * Generates deterministic configurations for the benchmarks, so that results of different runs and releases can be
+ * compared. Every adapter has a receiver, a few pipes and forwards, and the {@code flow:} layout attributes the editor
+ * adds, with attributes deliberately out of XSD order.
+ */
+final class BenchmarkConfigurations {
+
+	/**
+	 * A small FrankConfig-like schema covering the elements of the generated configurations, including a base type to
+	 * exercise attribute inheritance.
+	 */
+	static final String XSD = """
+			<xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema">
+				<xs:complexType name="ConfigurationType">
+					<xs:attribute name="name" use="required"/>
+				</xs:complexType>
+				<xs:complexType name="AdapterType">
+					<xs:attribute name="name" use="required"/>
+					<xs:attribute name="description"/>
+					<xs:attribute name="active"/>
+				</xs:complexType>
+				<xs:complexType name="ReceiverType">
+					<xs:attribute name="name"/>
+					<xs:attribute name="transactionAttribute"/>
+				</xs:complexType>
+				<xs:complexType name="JavaListenerType">
+					<xs:attribute name="name" use="required"/>
+					<xs:attribute name="serviceName"/>
+				</xs:complexType>
+				<xs:complexType name="PipelineType">
+					<xs:attribute name="firstPipe"/>
+				</xs:complexType>
+				<xs:complexType name="AbstractPipeType">
+					<xs:attribute name="name" use="required"/>
+					<xs:attribute name="getInputFromSessionKey"/>
+					<xs:attribute name="storeResultInSessionKey"/>
+				</xs:complexType>
+				<xs:complexType name="EchoPipeType">
+					<xs:complexContent>
+						<xs:extension base="AbstractPipeType">
+							<xs:attribute name="emptyInputReplacement"/>
+						</xs:extension>
+					</xs:complexContent>
+				</xs:complexType>
+				<xs:complexType name="XsltPipeType">
+					<xs:complexContent>
+						<xs:extension base="AbstractPipeType">
+							<xs:attribute name="styleSheetName" use="required"/>
+							<xs:attribute name="omitXmlDeclaration"/>
+						</xs:extension>
+					</xs:complexContent>
+				</xs:complexType>
+				<xs:complexType name="ForwardType">
+					<xs:attribute name="name" use="required"/>
+					<xs:attribute name="path" use="required"/>
+				</xs:complexType>
+			</xs:schema>
+			""";
+
+	private BenchmarkConfigurations() {}
+
+	static String adapterName(int index) {
+		return "Adapter" + index;
+	}
+
+	/**
+	 * @param declareFlowNamespace whether the root declares the namespace of the {@code flow:} attributes. Without the
+	 * 		declaration the configuration is not namespace-well-formed, like files from before the editor added it.
+	 */
+	static String configuration(int adapterCount, boolean declareFlowNamespace) {
+		StringBuilder configuration = new StringBuilder("<Configuration name=\"Benchmark\"");
+		if (declareFlowNamespace) {
+			configuration.append(" xmlns:flow=\"urn:frank-flow\"");
+		}
+		configuration.append(">\n");
+
+		for (int i = 0; i < adapterCount; i++) {
+			configuration.append("""
+						<Adapter description="Generated adapter %1$d" name="%2$s" flow:x="%1$d" flow:y="%1$d">
+							<Receiver transactionAttribute="Supports" name="%2$sReceiver">
+								<JavaListener serviceName="service%1$d" name="%2$sListener"/>
+							</Receiver>
+							<Pipeline firstPipe="Transform">
+								<XsltPipe omitXmlDeclaration="true" styleSheetName="xsl/Transform%1$d.xsl" name="Transform" flow:x="10" flow:y="20">
+									<Forward path="Echo" name="success"/>
+									<Forward path="EXIT" name="exception"/>
+								</XsltPipe>
+								<EchoPipe storeResultInSessionKey="result" name="Echo" getInputFromSessionKey="originalMessage">
+									<Forward path="EXIT" name="success"/>
+								</EchoPipe>
+								<Exits>
+									<Exit name="EXIT" state="SUCCESS"/>
+								</Exits>
+							</Pipeline>
+						</Adapter>
+					""".formatted(i, adapterName(i)));
+		}
+		return configuration.append("</Configuration>\n").toString();
+	}
+}
@@ -0,0 +1,99 @@
+package org.frankframework.flow.utility;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Compares the pooled parsers and transformers of {@link XmlSecurityUtils} with creating a configured factory for
+ * every call, which is what every caller did before. Both a bare acquisition and a small parse or serialization
+ * are measured, to show the share of the factory setup in a typical request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class XmlSecurityUtilsBenchmark {
+
+	private static final byte[] CONFIGURATION = """
+			<Configuration name="Benchmark">
+				<Adapter name="First"><Receiver name="Listener"/><Pipeline><EchoPipe name="Echo"/></Pipeline></Adapter>
+				<Adapter name="Second"><Receiver name="Listener"/><Pipeline><EchoPipe name="Echo"/></Pipeline></Adapter>
+			</Configuration>
+			""".getBytes(StandardCharsets.UTF_8);
+
+	private Document document;
+
+	@Setup
+	public void parseDocument() throws ParserConfigurationException, SAXException, IOException {
+		document = XmlSecurityUtils.createSecureDocumentBuilder().parse(new ByteArrayInputStream(CONFIGURATION));
+	}
+
+	@Benchmark
+	public DocumentBuilder documentBuilderPerCall() throws ParserConfigurationException {
+		return XmlSecurityUtils.createSecureDocumentBuilderFactory().newDocumentBuilder();
+	}
+
+	@Benchmark
+	public DocumentBuilder documentBuilderPooled() throws ParserConfigurationException {
+		return XmlSecurityUtils.createSecureDocumentBuilder();
+	}
+
+	@Benchmark
+	public Document parsePerCall() throws ParserConfigurationException, SAXException, IOException {
+		return XmlSecurityUtils.createSecureDocumentBuilderFactory().newDocumentBuilder().parse(new ByteArrayInputStream(CONFIGURATION));
+	}
+
+	@Benchmark
+	public Document parsePooled() throws ParserConfigurationException, SAXException, IOException {
+		return XmlSecurityUtils.createSecureDocumentBuilder().parse(new ByteArrayInputStream(CONFIGURATION));
+	}
+
+	@Benchmark
+	public Transformer transformerPerCall() throws TransformerException {
+		return XmlSecurityUtils.createSecureTransformerFactory().newTransformer();
+	}
+
+	@Benchmark
+	public Transformer transformerPooled() throws TransformerException {
+		return XmlSecurityUtils.createSecureTransformer();
+	}
+
+	@Benchmark
+	public String serializePerCall() throws TransformerException {
+		return serialize(XmlSecurityUtils.createSecureTransformerFactory().newTransformer());
+	}
+
+	@Benchmark
+	public String serializePooled() throws TransformerException {
+		return serialize(XmlSecurityUtils.createSecureTransformer());
+	}
+
+	private String serialize(Transformer transformer) throws TransformerException {
+		StringWriter writer = new StringWriter();
+		transformer.transform(new DOMSource(document), new StreamResult(writer));
+		return writer.toString();
+	}
+}
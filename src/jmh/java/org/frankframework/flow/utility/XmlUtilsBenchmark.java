@@ -0,0 +1,125 @@
+package org.frankframework.flow.utility;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.TransformerException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Measures the XML utilities on the editing and file tree hot paths against generated configurations of increasing
+ * size, see {@link BenchmarkConfigurations}. The fork runs with a fixed heap, so that numbers of different runs are
+ * comparable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class XmlUtilsBenchmark {
+
+	@Param({"10", "100", "1000", "10000"})
+	private int adapterCount;
+
+	private String configuration;
+	private byte[] configurationBytes;
+	private String configurationWithoutNamespace;
+	private Document document;
+	private XsdAttributeOrdererUtils orderer;
+	private List<ElementAttributes> elementAttributes;
+	private String lastAdapterName;
+
+	@Setup
+	public void generateConfiguration() throws ParserConfigurationException, SAXException, IOException {
+		configuration = BenchmarkConfigurations.configuration(adapterCount, true);
+		configurationBytes = configuration.getBytes(StandardCharsets.UTF_8);
+		configurationWithoutNamespace = BenchmarkConfigurations.configuration(adapterCount, false);
+		document = XmlSecurityUtils.createSecureDocumentBuilder().parse(new ByteArrayInputStream(configurationBytes));
+		orderer = new XsdAttributeOrdererUtils(XmlSecurityUtils.createSecureDocumentBuilder()
+				.parse(new InputSource(new StringReader(BenchmarkConfigurations.XSD))));
+		elementAttributes = collectElementAttributes(configuration);
+		lastAdapterName = BenchmarkConfigurations.adapterName(adapterCount - 1);
+	}
+
+	@Benchmark
+	public String format() throws ParserConfigurationException, SAXException, IOException {
+		return XmlFormatterUtils.format(configuration, orderer);
+	}
+
+	/**
+	 * Orders the attributes of every element of the configuration, as {@link #format()} does while formatting.
+	 */
+	@Benchmark
+	public void reorder(Blackhole blackhole) {
+		for (ElementAttributes element : elementAttributes) {
+			blackhole.consume(orderer.order(element.name(), element.attributes()));
+		}
+	}
+
+	@Benchmark
+	public String convertNodeToString() throws TransformerException {
+		return XmlConfigurationUtils.convertNodeToString(document);
+	}
+
+	@Benchmark
+	public String repairFlowNamespace() {
+		return XmlConfigurationUtils.repairFlowNamespace(configurationWithoutNamespace);
+	}
+
+	/**
+	 * Looks up the last adapter, the worst case for the linear search.
+	 */
+	@Benchmark
+	public Node findAdapterInDocument() {
+		return XmlAdapterUtils.findAdapterInDocument(document, lastAdapterName);
+	}
+
+	/**
+	 * Reads the adapter names the file tree shows for every configuration file.
+	 */
+	@Benchmark
+	public List<String> extractAdapterNames() throws XMLStreamException {
+		return XmlAdapterUtils.extractAdapterNames(new ByteArrayInputStream(configurationBytes));
+	}
+
+	private static List<ElementAttributes> collectElementAttributes(String configuration)
+			throws ParserConfigurationException, SAXException, IOException {
+		List<ElementAttributes> elements = new ArrayList<>();
+		DefaultHandler handler = new DefaultHandler() {
+			@Override
+			public void startElement(String uri, String localName, String qName, Attributes attributes) {
+				elements.add(new ElementAttributes(qName, new AttributesImpl(attributes)));
+			}
+		};
+		SAXParserFactory.newInstance().newSAXParser().parse(new InputSource(new StringReader(configuration)), handler);
+		return elements;
+	}
+
+	private record ElementAttributes(String name, Attributes attributes) {}
+}
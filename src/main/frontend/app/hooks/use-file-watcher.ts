@@ -1,15 +1,37 @@
 import { useEffect, useRef } from 'react'
 import { apiUrl } from '~/utils/api'
 
+export type FileChangeType = 'CREATED' | 'MODIFIED' | 'DELETED'
+
+/**
+ * Data of a `file-change` event. Sequence numbers increase by one per event, so a gap means events were missed and,
+ * like a resync, that everything shown must be reloaded.
+ */
+export type FileChangeEvent = {
+  sequence: number
+  resync: boolean
+  changes: { path: string; type: FileChangeType }[]
+}
+
+type FileChangeHandler = (event?: FileChangeEvent) => void
+
 type WatcherEntry = {
   source: EventSource
-  handlers: Set<() => void>
+  handlers: Set<(message: MessageEvent) => void>
   closeTimer: ReturnType<typeof setTimeout> | null
 }
 
+function parseFileChangeEvent(message: MessageEvent): FileChangeEvent | undefined {
+  try {
+    return JSON.parse(message.data) as FileChangeEvent
+  } catch {
+    return undefined
+  }
+}
+
 const watchers = new Map<string, WatcherEntry>()
 
-function useSseWatcher(url: string | null, onFileChange?: () => void) {
+function useSseWatcher(url: string | null, onFileChange?: FileChangeHandler) {
   const callbackRef = useRef(onFileChange)
   callbackRef.current = onFileChange
 
@@ -29,7 +51,7 @@ function useSseWatcher(url: string | null, onFileChange?: () => void) {
       watchers.set(url, entry)
     }
 
-    const handler = () => callbackRef.current?.()
+    const handler = (message: MessageEvent) => callbackRef.current?.(parseFileChangeEvent(message))
     entry.handlers.add(handler)
     entry.source.addEventListener('file-change', handler)
 
@@ -49,12 +71,12 @@ function useSseWatcher(url: string | null, onFileChange?: () => void) {
   }, [url])
 }
 
-export function useFileWatcher(projectName: string | null | undefined, onFileChange?: () => void) {
+export function useFileWatcher(projectName: string | null | undefined, onFileChange?: FileChangeHandler) {
   const url = projectName ? apiUrl(`/projects/${projectName}/watch`) : null
   useSseWatcher(url, onFileChange)
 }
 
-export function useDirectoryWatcher(path: string | null, onFileChange: () => void) {
+export function useDirectoryWatcher(path: string | null, onFileChange: FileChangeHandler) {
   const url = path ? apiUrl(`/filesystem/watch?path=${encodeURIComponent(path)}`) : null
   useSseWatcher(url, onFileChange)
 }
@@ -2,13 +2,20 @@ package org.frankframework.flow.adapter;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
 import lombok.extern.log4j.Log4j2;
+import org.frankframework.flow.configuration.ConfigurationDocumentCache;
 import org.frankframework.flow.configuration.ConfigurationFile;
 import org.frankframework.flow.configuration.ConfigurationXmlDTO;
 import org.frankframework.flow.exception.ApiException;
@@ -30,12 +37,20 @@ import org.xml.sax.SAXException;
 @Service
 public class AdapterService {
 
+	private static final Pattern ENCODING_DECLARATION = Pattern.compile("\\uFEFF?<\\?xml[^>]*?encoding\\s*=\\s*[\"']([^\"']+)[\"']");
+
 	private final ConfigurationProjectService configurationProjectService;
 	private final FileSystemStorage fileSystemStorage;
+	private final ConfigurationDocumentCache configurationDocumentCache;
 
-	public AdapterService(ConfigurationProjectService configurationProjectService, FileSystemStorage fileSystemStorage) {
+	public AdapterService(
+			ConfigurationProjectService configurationProjectService,
+			FileSystemStorage fileSystemStorage,
+			ConfigurationDocumentCache configurationDocumentCache
+	) {
 		this.configurationProjectService = configurationProjectService;
 		this.fileSystemStorage = fileSystemStorage;
+		this.configurationDocumentCache = configurationDocumentCache;
 	}
 
 	public ConfigurationXmlDTO getAdapter(String projectName, String configurationPath, String adapterName)
@@ -59,6 +74,11 @@ public class AdapterService {
 		return new ConfigurationXmlDTO(XmlConfigurationUtils.convertNodeToString(adapterNode));
 	}
 
+	/**
+	 * Replaces an adapter in a configuration file. Only the text of the adapter itself is rewritten: everything
+	 * around it, including comments and formatting, stays exactly as it was. When the adapter can't be located in the
+	 * text, the whole file is parsed and reserialized instead.
+	 */
 	public boolean updateAdapter(Path configurationFile, String adapterName, String newAdapterXml) throws IOException {
 
 		Path absConfigFile = fileSystemStorage.toAbsolutePath(configurationFile.toString());
@@ -68,17 +88,13 @@ public class AdapterService {
 		}
 
 		try {
-			Document configDoc = XmlSecurityUtils.createSecureDocumentBuilder().parse(Files.newInputStream(absConfigFile));
 			Document newAdapterDoc = XmlSecurityUtils.createSecureDocumentBuilder()
 					.parse(new ByteArrayInputStream(newAdapterXml.getBytes(StandardCharsets.UTF_8)));
 			Node newAdapterNode = newAdapterDoc.getDocumentElement();
 
-			if (!XmlAdapterUtils.replaceAdapterInDocument(configDoc, adapterName, newAdapterNode)) {
-				throw new ApiException("Adapter not found: " + adapterName, HttpStatus.NOT_FOUND);
+			if (!patchAdapterInFile(absConfigFile, adapterName, newAdapterNode)) {
+				replaceAdapterInDocument(absConfigFile, adapterName, newAdapterNode);
 			}
-
-			String updatedXml = XmlConfigurationUtils.convertNodeToString(configDoc);
-			Files.writeString(absConfigFile, updatedXml, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
 			return true;
 		} catch (ParserConfigurationException | TransformerException | SAXException exception) {
 			log.error("Error updating adapter in file: {}", exception.getMessage(), exception);
@@ -86,6 +102,107 @@ public class AdapterService {
 		}
 	}
 
+	/**
+	 * Splices the serialized adapter into the file in place of the old one, indented like the old one was. The file
+	 * is read in full to locate the adapter, but only the bytes from the start of the adapter onwards are written: the
+	 * part before it is left alone, and the part after it is only moved when the adapter changed in length.
+	 *
+	 * @return false when the file can't be patched this way, because it isn't UTF-8 or the adapter can't be located
+	 */
+	private boolean patchAdapterInFile(Path absConfigFile, String adapterName, Node newAdapterNode) throws IOException, TransformerException {
+		byte[] content = Files.readAllBytes(absConfigFile);
+		String configuration;
+		try {
+			configuration = StandardCharsets.UTF_8.newDecoder()
+					.decode(ByteBuffer.wrap(content))
+					.toString();
+		} catch (CharacterCodingException _) {
+			return false;
+		}
+		if (!isUtf8Encoded(configuration)) {
+			return false;
+		}
+
+		XmlAdapterUtils.AdapterRange range = XmlAdapterUtils.findAdapterRange(configuration, adapterName);
+		if (range == null) {
+			return false;
+		}
+
+		String adapterXml = XmlConfigurationUtils.convertNodeToString(newAdapterNode).stripTrailing();
+		if (!hasMultilineContent(newAdapterNode)) {
+			adapterXml = adapterXml.replace("\n", "\n" + getLineIndentation(configuration, range.start()));
+		}
+
+		int startByte = utf8Length(configuration, 0, range.start());
+		int endByte = startByte + utf8Length(configuration, range.start(), range.end());
+		byte[] replacement = adapterXml.getBytes(StandardCharsets.UTF_8);
+		try (FileChannel channel = FileChannel.open(absConfigFile, StandardOpenOption.WRITE)) {
+			writeFully(channel, ByteBuffer.wrap(replacement), startByte);
+			if (replacement.length != endByte - startByte) {
+				long tailStart = (long) startByte + replacement.length;
+				writeFully(channel, ByteBuffer.wrap(content, endByte, content.length - endByte), tailStart);
+				channel.truncate(tailStart + content.length - endByte);
+			}
+		}
+		configurationDocumentCache.evict(absConfigFile);
+		return true;
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		long writePosition = position;
+		while (buffer.hasRemaining()) {
+			writePosition += channel.write(buffer, writePosition);
+		}
+	}
+
+	private static int utf8Length(String text, int start, int end) {
+		return StandardCharsets.UTF_8.encode(CharBuffer.wrap(text, start, end)).remaining();
+	}
+
+	private void replaceAdapterInDocument(Path absConfigFile, String adapterName, Node newAdapterNode)
+			throws IOException, SAXException, ParserConfigurationException, TransformerException {
+		Document configDoc = configurationDocumentCache.read(absConfigFile);
+
+		if (!XmlAdapterUtils.replaceAdapterInDocument(configDoc, adapterName, newAdapterNode)) {
+			throw new ApiException("Adapter not found: " + adapterName, HttpStatus.NOT_FOUND);
+		}
+
+		String updatedXml = XmlConfigurationUtils.convertNodeToString(configDoc);
+		Files.writeString(absConfigFile, updatedXml, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+		configurationDocumentCache.update(absConfigFile, configDoc);
+	}
+
+	/**
+	 * A prolog may declare another encoding for content that happens to be valid UTF-8, such as plain ASCII.
+	 * Patching such a file would write characters in an encoding that contradicts its declaration.
+	 */
+	private static boolean isUtf8Encoded(String configuration) {
+		Matcher declaration = ENCODING_DECLARATION.matcher(configuration);
+		return !declaration.lookingAt() || "UTF-8".equalsIgnoreCase(declaration.group(1));
+	}
+
+	/**
+	 * Text that spans lines would change if it were indented along with the markup around it.
+	 */
+	private static boolean hasMultilineContent(Node node) {
+		if (node.getNodeType() != Node.ELEMENT_NODE) {
+			String value = node.getNodeValue();
+			return value != null && value.indexOf('\n') >= 0 && !value.isBlank();
+		}
+		for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (hasMultilineContent(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String getLineIndentation(String text, int position) {
+		int lineStart = text.lastIndexOf('\n', position - 1) + 1;
+		String indentation = text.substring(lineStart, position);
+		return indentation.isBlank() ? indentation : "";
+	}
+
 	public int createAdapter(String configurationPath, String adapterName) throws IOException {
 		if (configurationPath == null || configurationPath.isBlank()) {
 			throw new IllegalArgumentException("Configuration path must not be empty");
@@ -100,7 +217,7 @@ public class AdapterService {
 		}
 
 		try {
-			Document configDoc = XmlSecurityUtils.createSecureDocumentBuilder().parse(Files.newInputStream(absConfigFile));
+			Document configDoc = configurationDocumentCache.read(absConfigFile);
 
 			String template = loadDefaultAdapterXml();
 			String adapterXml = template.replace("${adapterName}", adapterName);
@@ -110,7 +227,9 @@ public class AdapterService {
 			String updatedXml = XmlConfigurationUtils.convertNodeToString(configDoc);
 			Files.writeString(absConfigFile, updatedXml, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
 
-			return XmlAdapterUtils.countAdapters(configDoc) - 1;
+			int adapterIndex = XmlAdapterUtils.countAdapters(configDoc) - 1;
+			configurationDocumentCache.update(absConfigFile, configDoc);
+			return adapterIndex;
 		} catch (Exception exception) {
 			throw new IOException("Failed to create adapter: " + exception.getMessage(), exception);
 		}
@@ -127,7 +246,7 @@ public class AdapterService {
 		}
 
 		try {
-			Document configDoc = XmlSecurityUtils.createSecureDocumentBuilder().parse(Files.newInputStream(absConfigFile));
+			Document configDoc = configurationDocumentCache.read(absConfigFile);
 
 			if (!XmlAdapterUtils.renameAdapterInDocument(configDoc, oldName, newName)) {
 				throw new ApiException("Adapter not found: " + oldName, HttpStatus.NOT_FOUND);
@@ -135,6 +254,7 @@ public class AdapterService {
 
 			String updatedXml = XmlConfigurationUtils.convertNodeToString(configDoc);
 			Files.writeString(absConfigFile, updatedXml, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+			configurationDocumentCache.update(absConfigFile, configDoc);
 		} catch (ParserConfigurationException | TransformerException | SAXException exception) {
 			throw new IOException("Failed to rename adapter: " + exception.getMessage(), exception);
 		}
@@ -151,7 +271,7 @@ public class AdapterService {
 		}
 
 		try {
-			Document configDoc = XmlSecurityUtils.createSecureDocumentBuilder().parse(Files.newInputStream(absConfigFile));
+			Document configDoc = configurationDocumentCache.read(absConfigFile);
 
 			if (!XmlAdapterUtils.removeAdapterFromDocument(configDoc, adapterName)) {
 				throw new ApiException("Adapter not found: " + adapterName, HttpStatus.NOT_FOUND);
@@ -159,6 +279,7 @@ public class AdapterService {
 
 			String updatedXml = XmlConfigurationUtils.convertNodeToString(configDoc);
 			Files.writeString(absConfigFile, updatedXml, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+			configurationDocumentCache.update(absConfigFile, configDoc);
 		} catch (ParserConfigurationException | TransformerException | SAXException exception) {
 			throw new IOException("Failed to delete adapter: " + exception.getMessage(), exception);
 		}
@@ -0,0 +1,252 @@
+package org.frankframework.flow.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.log4j.Log4j2;
+import org.frankframework.flow.exception.ApiException;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * A document that is published online, such as the FrankConfig XSD, kept in memory and on disk so that requests never
+ * wait for the network once a copy is known. The first copy comes from the disk cache, or else from a fallback copy
+ * on the classpath, or else from the network. Copies older than {@link #REVALIDATION_INTERVAL} are revalidated in the
+ * background with a conditional request, so an unchanged document is not downloaded again. Editors on machines without
+ * internet access keep working with the cached or fallback copy.
+ */
+@Log4j2
+public class RemoteDocument {
+
+	static final Duration REVALIDATION_INTERVAL = Duration.ofHours(1);
+
+	private final RestTemplate restTemplate;
+	private final ObjectMapper objectMapper;
+	private final String url;
+	private final Path cacheFile;
+	private final Path metadataFile;
+	private final String fallbackResource;
+	private final Executor revalidationExecutor;
+	private final AtomicBoolean revalidating = new AtomicBoolean();
+	private volatile Snapshot current;
+	private volatile PreparedDocument prepared;
+
+	/**
+	 * @param cacheFile the file to keep the downloaded document in; its validators are stored next to it
+	 * @param fallbackResource the classpath location of the copy to use when there is no cached copy yet
+	 */
+	public RemoteDocument(RestTemplate restTemplate, ObjectMapper objectMapper, String url, Path cacheFile, String fallbackResource) {
+		this(restTemplate, objectMapper, url, cacheFile, fallbackResource,
+				runnable -> Thread.ofVirtual().name("remote-document-revalidation").start(runnable));
+	}
+
+	RemoteDocument(RestTemplate restTemplate, ObjectMapper objectMapper, String url, Path cacheFile, String fallbackResource,
+			Executor revalidationExecutor) {
+		this.restTemplate = restTemplate;
+		this.objectMapper = objectMapper;
+		this.url = url;
+		this.cacheFile = cacheFile;
+		this.metadataFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".json");
+		this.fallbackResource = fallbackResource;
+		this.revalidationExecutor = revalidationExecutor;
+	}
+
+	/**
+	 * Returns the current copy of the document, starting a background revalidation when it is due.
+	 *
+	 * @throws ApiException when no copy is cached or embedded and the document can't be downloaded
+	 */
+	public String getContent() {
+		Snapshot snapshot = current;
+		if (snapshot == null) {
+			snapshot = loadInitialSnapshot();
+		}
+
+		if (snapshot.isDue() && revalidating.compareAndSet(false, true)) {
+			revalidationExecutor.execute(() -> {
+				try {
+					revalidate();
+				} finally {
+					revalidating.set(false);
+				}
+			});
+		}
+		return snapshot.content();
+	}
+
+	/**
+	 * Returns the current copy prepared for serving. It is only prepared again after the content changed.
+	 *
+	 * @throws ApiException when no copy is cached or embedded and the document can't be downloaded
+	 */
+	public StaticDocument getDocument() {
+		String content = getContent();
+		PreparedDocument document = prepared;
+		if (document == null || document.content() != content) {
+			document = new PreparedDocument(content, StaticDocument.of(content));
+			prepared = document;
+		}
+		return document.document();
+	}
+
+	/**
+	 * Asks the server whether the document changed since the current copy was downloaded, and downloads it if so.
+	 * Failures are logged; the current copy stays in use until the next attempt.
+	 */
+	public void revalidate() {
+		Snapshot snapshot = current;
+		try {
+			Snapshot downloaded = download(snapshot);
+			if (downloaded != null) {
+				current = downloaded;
+			}
+		} catch (RestClientException | IOException exception) {
+			log.warn("Could not revalidate {}, keeping the current copy: {}", url, exception.getMessage());
+			if (snapshot != null) {
+				current = snapshot.checkedAt(System.currentTimeMillis());
+			}
+		}
+	}
+
+	private synchronized Snapshot loadInitialSnapshot() {
+		if (current != null) {
+			return current;
+		}
+
+		Snapshot snapshot = readCachedSnapshot();
+		if (snapshot == null) {
+			snapshot = readFallbackSnapshot();
+		}
+		if (snapshot == null) {
+			try {
+				snapshot = download(null);
+			} catch (RestClientException | IOException exception) {
+				log.error("Failed to fetch {}", url, exception);
+				throw new ApiException("Failed to fetch " + cacheFile.getFileName(), HttpStatus.NOT_FOUND);
+			}
+		}
+		current = snapshot;
+		return snapshot;
+	}
+
+	/**
+	 * @return the downloaded copy, or the given copy marked as checked when the server reports it unchanged
+	 */
+	private Snapshot download(Snapshot snapshot) throws IOException {
+		HttpHeaders headers = new HttpHeaders();
+		if (snapshot != null && snapshot.etag() != null) {
+			headers.setIfNoneMatch(snapshot.etag());
+		}
+		if (snapshot != null && snapshot.lastModified() != null) {
+			headers.set(HttpHeaders.IF_MODIFIED_SINCE, snapshot.lastModified());
+		}
+
+		log.info("Fetching {}", url);
+		ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+		long now = System.currentTimeMillis();
+		if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && snapshot != null) {
+			Snapshot checked = snapshot.checkedAt(now);
+			writeMetadata(checked);
+			return checked;
+		}
+		if (response.getBody() == null) {
+			throw new IOException("Empty response from " + url);
+		}
+
+		Snapshot downloaded = new Snapshot(
+				response.getBody(),
+				response.getHeaders().getETag(),
+				response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED),
+				now
+		);
+		writeCache(downloaded);
+		return downloaded;
+	}
+
+	private Snapshot readCachedSnapshot() {
+		if (!Files.exists(cacheFile)) {
+			return null;
+		}
+
+		try {
+			CachedDocumentMetadata metadata = Files.exists(metadataFile)
+					? objectMapper.readValue(metadataFile.toFile(), CachedDocumentMetadata.class)
+					: new CachedDocumentMetadata(null, null, 0);
+			String content = Files.readString(cacheFile, StandardCharsets.UTF_8);
+			return new Snapshot(content, metadata.etag(), metadata.lastModified(), metadata.checkedAt());
+		} catch (IOException exception) {
+			log.warn("Could not read cached copy {}: {}", cacheFile, exception.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * The fallback copy has no validators and counts as never checked, so it is revalidated right away.
+	 */
+	private Snapshot readFallbackSnapshot() {
+		ClassPathResource resource = new ClassPathResource(fallbackResource);
+		if (!resource.exists()) {
+			return null;
+		}
+
+		try (InputStream inputStream = resource.getInputStream()) {
+			log.info("Using embedded copy {} until {} can be fetched", fallbackResource, url);
+			return new Snapshot(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8), null, null, 0);
+		} catch (IOException exception) {
+			log.warn("Could not read embedded copy {}: {}", fallbackResource, exception.getMessage());
+			return null;
+		}
+	}
+
+	private void writeCache(Snapshot snapshot) {
+		try {
+			Files.createDirectories(cacheFile.getParent());
+			Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+			Files.writeString(tempFile, snapshot.content(), StandardCharsets.UTF_8);
+			Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			writeMetadata(snapshot);
+		} catch (IOException exception) {
+			log.warn("Could not cache {} in {}: {}", url, cacheFile, exception.getMessage());
+		}
+	}
+
+	private void writeMetadata(Snapshot snapshot) {
+		try {
+			Files.createDirectories(metadataFile.getParent());
+			objectMapper.writeValue(metadataFile.toFile(), new CachedDocumentMetadata(snapshot.etag(), snapshot.lastModified(), snapshot.checkedAt()));
+		} catch (IOException exception) {
+			log.warn("Could not write {}: {}", metadataFile, exception.getMessage());
+		}
+	}
+
+	/**
+	 * Snapshots that only differ in when they were checked share their content, so comparing by identity is enough.
+	 */
+	private record PreparedDocument(String content, StaticDocument document) {}
+
+	record CachedDocumentMetadata(String etag, String lastModified, long checkedAt) {}
+
+	private record Snapshot(String content, String etag, String lastModified, long checkedAt) {
+
+		private boolean isDue() {
+			return System.currentTimeMillis() - checkedAt > REVALIDATION_INTERVAL.toMillis();
+		}
+
+		private Snapshot checkedAt(long time) {
+			return new Snapshot(content, etag, lastModified, time);
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package org.frankframework.flow.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A large document that only changes between versions, such as the FrankDoc JSON, prepared once for serving: encoded,
+ * gzipped and identified by a strong ETag derived from its content. Responses honour {@code If-None-Match} without
+ * touching the body, and are sent gzipped to clients that accept it.
+ * <p>
+ * A document requested with its own {@link #getVersion() version} as query parameter can never change and is cached
+ * as immutable. Without a version, or with an outdated one, clients must revalidate before each use, which costs a
+ * 304 response as long as the document is unchanged.
+ */
+public final class StaticDocument {
+
+	public static final String VERSION_PARAMETER = "version";
+
+	private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+	private static final String GZIP = "gzip";
+
+	private final byte[] content;
+	private final byte[] gzippedContent;
+	private final String version;
+
+	private StaticDocument(byte[] content, byte[] gzippedContent, String version) {
+		this.content = content;
+		this.gzippedContent = gzippedContent;
+		this.version = version;
+	}
+
+	public static StaticDocument of(String content) {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		return new StaticDocument(bytes, gzip(bytes), hash(bytes));
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	String getIdentityETag() {
+		return "\"" + version + "\"";
+	}
+
+	String getGzipETag() {
+		return "\"" + version + "-" + GZIP + "\"";
+	}
+
+	/**
+	 * @param requestHeaders the headers of the request, for content negotiation and conditional requests
+	 * @param requestedVersion the version the client asked for, or {@code null} when it asked for the latest one
+	 */
+	public ResponseEntity<byte[]> toResponse(MediaType contentType, HttpHeaders requestHeaders, String requestedVersion) {
+		boolean gzipped = acceptsGzip(requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING));
+		CacheControl cacheControl = version.equals(requestedVersion)
+				? CacheControl.maxAge(IMMUTABLE_MAX_AGE).cachePublic().immutable()
+				: CacheControl.noCache();
+
+		boolean notModified = matchesAny(requestHeaders.getIfNoneMatch());
+		ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+				.eTag(gzipped ? getGzipETag() : getIdentityETag())
+				.cacheControl(cacheControl)
+				.varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+		if (notModified) {
+			return response.build();
+		}
+		if (gzipped) {
+			response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+		}
+		return response.contentType(contentType).body(gzipped ? gzippedContent : content);
+	}
+
+	/**
+	 * If-None-Match uses the weak comparison, and either representation of this version means the client is current.
+	 */
+	private boolean matchesAny(List<String> ifNoneMatch) {
+		for (String tag : ifNoneMatch) {
+			String opaqueTag = tag.startsWith("W/") ? tag.substring("W/".length()) : tag;
+			if ("*".equals(opaqueTag) || getIdentityETag().equals(opaqueTag) || getGzipETag().equals(opaqueTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean acceptsGzip(List<String> acceptEncoding) {
+		for (String header : acceptEncoding) {
+			for (String coding : header.split(",")) {
+				String[] parameters = coding.split(";");
+				if (GZIP.equalsIgnoreCase(parameters[0].trim()) && !isRejected(parameters)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean isRejected(String[] parameters) {
+		for (int i = 1; i < parameters.length; i++) {
+			String parameter = parameters[i].trim();
+			if (parameter.startsWith("q=")) {
+				try {
+					return Double.parseDouble(parameter.substring("q=".length())) <= 0;
+				} catch (NumberFormatException _) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static byte[] gzip(byte[] content) {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+			gzipStream.write(content);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return compressed.toByteArray();
+	}
+
+	private static String hash(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException("SHA-256 is not available", exception);
+		}
+	}
+}
@@ -6,12 +6,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import jakarta.servlet.MultipartConfigElement;
+import java.time.Duration;
+import org.frankframework.flow.file.FileWatcherProperties;
 import org.frankframework.flow.project.ImportProperties;
+import org.frankframework.flow.sse.SseProperties;
+import org.frankframework.flow.sse.SseRelayProperties;
 import org.frankframework.management.gateway.InputStreamHttpMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.converter.FormHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverters;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -23,16 +28,26 @@ import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
-@EnableConfigurationProperties(ImportProperties.class)
+@EnableConfigurationProperties({ImportProperties.class, FileWatcherProperties.class, SseProperties.class, SseRelayProperties.class})
 public class WebConfiguration implements WebMvcConfigurer {
 
 	private static final long MAX_AGE_SECONDS = 3600;
 
 	private static final long MULTIPART_REQUEST_HEADROOM_BYTES = 5L * 1024 * 1024;
 
+	private static final Duration REMOTE_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+	private static final Duration REMOTE_READ_TIMEOUT = Duration.ofSeconds(30);
+
 	@Value("${cors.allowed.origins:}")
 	private String[] allowedOrigins;
 
+	/**
+	 * Pretty printing makes large responses such as file trees a third bigger, so it is meant for debugging only.
+	 */
+	@Value("${frankflow.json.pretty-print:false}")
+	private boolean prettyPrintJson;
+
 	@Override
 	public void addCorsMappings(CorsRegistry registry) {
 		registry.addMapping("/**")
@@ -56,7 +71,7 @@ public class WebConfiguration implements WebMvcConfigurer {
 				.configure(DeserializationFeature.ACCEPT_EMPTY_ARRAY_AS_NULL_OBJECT, true)
 				.configure(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL, true)
 				.configure(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES, false) // allow null value for boolean
-				.configure(SerializationFeature.INDENT_OUTPUT, true) // pretty print
+				.configure(SerializationFeature.INDENT_OUTPUT, prettyPrintJson)
 				.build();
 
 		builder.withJsonConverter(new MappingJackson2HttpMessageConverter(jsonMapper));
@@ -79,6 +94,9 @@ public class WebConfiguration implements WebMvcConfigurer {
 
 	@Bean
 	public RestTemplate restTemplate() {
-		return new RestTemplate();
+		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		requestFactory.setConnectTimeout(REMOTE_CONNECT_TIMEOUT);
+		requestFactory.setReadTimeout(REMOTE_READ_TIMEOUT);
+		return new RestTemplate(requestFactory);
 	}
 }
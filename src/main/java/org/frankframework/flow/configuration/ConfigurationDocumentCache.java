@@ -0,0 +1,151 @@
+package org.frankframework.flow.configuration;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import org.frankframework.flow.utility.XmlConfigurationUtils;
+import org.frankframework.flow.utility.XmlSecurityUtils;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Keeps the parsed documents of recently used configuration files, so that consecutive edits of the same file don't
+ * each read and parse it again. A document is only reused while the modification time and size of its file are
+ * unchanged, and the file watcher evicts documents as soon as their file changes on disk. Files modified too recently
+ * for their modification time to be trusted are not cached at all.
+ * <p>
+ * Cached documents are never handed out: DOM trees are not safe for concurrent use, not even for reading. Callers
+ * get their own copy, which is cheaper than parsing, and may modify it freely. After writing a modified copy back to
+ * its file, {@link #update(Path, Document)} makes it the cached version, so the next edit doesn't need to parse at all.
+ */
+@Service
+public class ConfigurationDocumentCache {
+
+	private static final int MAX_CACHED_DOCUMENTS = 32;
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/**
+	 * Files modified this recently may be written again within the same timestamp granularity without changing in
+	 * size, so their documents are not cached until their modification time is old enough to be trusted.
+	 */
+	private static final long RACY_MODIFICATION_WINDOW_MS = 2_000L;
+
+	private final Map<Path, CachedDocument> documents = new LinkedHashMap<>(MAX_CACHED_DOCUMENTS, LOAD_FACTOR, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Path, CachedDocument> eldest) {
+			return size() > MAX_CACHED_DOCUMENTS;
+		}
+	};
+
+	/**
+	 * Returns a private copy of the parsed configuration file. A missing {@code xmlns:flow} declaration is added
+	 * before parsing, see {@link XmlConfigurationUtils#repairFlowNamespace(String)}.
+	 */
+	public Document read(Path file) throws IOException, SAXException, ParserConfigurationException {
+		Path key = toKey(file);
+		FileVersion version = FileVersion.of(key);
+
+		CachedDocument cached = get(key);
+		if (cached != null && cached.version().equals(version)) {
+			return cached.copy();
+		}
+
+		Document parsed = parse(key);
+		if (!version.isRacy()) {
+			CachedDocument cachedParsed = new CachedDocument(version, parsed);
+			put(key, cachedParsed);
+			return cachedParsed.copy();
+		}
+		evict(key);
+		return parsed;
+	}
+
+	/**
+	 * Makes a document that was just written to the given file the cached version of that file. The cache takes
+	 * ownership of the document, so the caller must not use it afterwards.
+	 */
+	public void update(Path file, Document document) {
+		Path key = toKey(file);
+		try {
+			FileVersion version = FileVersion.of(key);
+			if (!version.isRacy()) {
+				put(key, new CachedDocument(version, document));
+				return;
+			}
+		} catch (IOException _) {
+			// Evicted below
+		}
+		evict(key);
+	}
+
+	/**
+	 * Evicts the document of the given file, or the documents of all files below the given directory. Changes reported
+	 * by the file watcher evict unconditionally: a change that keeps the size within the granularity of the
+	 * modification time would otherwise leave a stale document to be written over it.
+	 */
+	public void evict(Path path) {
+		Path prefix = toKey(path);
+		synchronized (documents) {
+			documents.keySet().removeIf(key -> key.startsWith(prefix));
+		}
+	}
+
+	private CachedDocument get(Path key) {
+		synchronized (documents) {
+			return documents.get(key);
+		}
+	}
+
+	private void put(Path key, CachedDocument document) {
+		synchronized (documents) {
+			documents.put(key, document);
+		}
+	}
+
+	private Document parse(Path file) throws IOException, SAXException, ParserConfigurationException {
+		byte[] content = Files.readAllBytes(file);
+		String text = new String(content, StandardCharsets.UTF_8);
+		String repaired = XmlConfigurationUtils.repairFlowNamespace(text);
+
+		// Unrepaired content is parsed from bytes, so an encoding declared in the prolog is honoured
+		if (repaired.equals(text)) {
+			return XmlSecurityUtils.createSecureDocumentBuilder().parse(new ByteArrayInputStream(content));
+		}
+		return XmlSecurityUtils.createSecureDocumentBuilder().parse(new InputSource(new StringReader(repaired)));
+	}
+
+	private static Path toKey(Path file) {
+		return file.toAbsolutePath().normalize();
+	}
+
+	private record FileVersion(FileTime lastModified, long size, Object fileKey) {
+
+		private static FileVersion of(Path file) throws IOException {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			return new FileVersion(attributes.lastModifiedTime(), attributes.size(), attributes.fileKey());
+		}
+
+		private boolean isRacy() {
+			return System.currentTimeMillis() - lastModified.toMillis() <= RACY_MODIFICATION_WINDOW_MS;
+		}
+	}
+
+	private record CachedDocument(FileVersion version, Document document) {
+
+		private Document copy() {
+			synchronized (document) {
+				return (Document) document.cloneNode(true);
+			}
+		}
+	}
+}
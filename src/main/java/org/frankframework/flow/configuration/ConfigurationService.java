@@ -2,7 +2,6 @@ package org.frankframework.flow.configuration;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
-import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -13,19 +12,18 @@ import org.frankframework.flow.exception.ApiException;
 import org.frankframework.flow.file.FileTreeService;
 import org.frankframework.flow.filesystem.FileSystemStorage;
 import org.frankframework.flow.frankconfig.FrankConfigXsdService;
+import org.frankframework.flow.frankconfig.XsdAttributeOrderService;
 import org.frankframework.flow.project.ConfigurationProject;
 import org.frankframework.flow.project.ConfigurationProjectService;
 import org.frankframework.flow.utility.XmlAdapterUtils;
 import org.frankframework.flow.utility.XmlConfigurationUtils;
 import org.frankframework.flow.utility.XmlFormatterUtils;
-import org.frankframework.flow.utility.XmlSecurityUtils;
 import org.frankframework.flow.utility.XsdAttributeOrdererUtils;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 @Log4j2
@@ -36,17 +34,23 @@ public class ConfigurationService {
 	private final ConfigurationProjectService configurationProjectService;
 	private final FileTreeService fileTreeService;
 	private final FrankConfigXsdService frankConfigXsdService;
+	private final ConfigurationDocumentCache configurationDocumentCache;
+	private final XsdAttributeOrderService xsdAttributeOrderService;
 	private XsdAttributeOrdererUtils xsdOrderer;
 
 	public ConfigurationService(
 			FileSystemStorage fileSystemStorage,
 			ConfigurationProjectService configurationProjectService,
 			FrankConfigXsdService frankConfigXsdService,
-			FileTreeService fileTreeService) {
+			FileTreeService fileTreeService,
+			ConfigurationDocumentCache configurationDocumentCache,
+			XsdAttributeOrderService xsdAttributeOrderService) {
 		this.fileSystemStorage = fileSystemStorage;
 		this.configurationProjectService = configurationProjectService;
 		this.frankConfigXsdService = frankConfigXsdService;
 		this.fileTreeService = fileTreeService;
+		this.configurationDocumentCache = configurationDocumentCache;
+		this.xsdAttributeOrderService = xsdAttributeOrderService;
 	}
 
 	@PostConstruct
@@ -83,11 +87,13 @@ public class ConfigurationService {
 
 			if (!format) {
 				fileSystemStorage.writeFile(absolutePath.toString(), withNamespace);
+				configurationDocumentCache.evict(absolutePath);
 				return withNamespace;
 			}
 
 			String formatted = XmlFormatterUtils.format(withNamespace, getXsdOrderer());
 			fileSystemStorage.writeFile(absolutePath.toString(), formatted);
+			configurationDocumentCache.evict(absolutePath);
 			return formatted;
 		} catch (Exception e) {
 			throw new ApiException("Failed to save configuration: " + e.getMessage(), HttpStatus.BAD_REQUEST);
@@ -124,10 +130,11 @@ public class ConfigurationService {
 		Document updatedDocument = XmlConfigurationUtils.insertFlowNamespace(defaultXml);
 		String updatedContent = XmlConfigurationUtils.convertNodeToString(updatedDocument);
 		fileSystemStorage.writeFile(absoluteFilePath.toString(), updatedContent);
-		fileTreeService.invalidateTreeCache(projectName);
+		fileTreeService.refreshTreePath(projectName, absoluteFilePath.toString());
 
 		Element firstAdapter = XmlAdapterUtils.findFirstAdapter(updatedDocument);
 		String adapterName = firstAdapter != null ? firstAdapter.getAttribute("name") : null;
+		configurationDocumentCache.update(absoluteFilePath, updatedDocument);
 		return new AdapterLocationDTO(adapterName, 0);
 	}
 
@@ -155,8 +162,7 @@ public class ConfigurationService {
 	private XsdAttributeOrdererUtils loadXsdOrderer() {
 		try {
 			String xsdContent = frankConfigXsdService.getFrankConfigXsd();
-			Document doc = XmlSecurityUtils.createSecureDocumentBuilder().parse(new InputSource(new StringReader(xsdContent)));
-			return new XsdAttributeOrdererUtils(doc);
+			return xsdAttributeOrderService.createOrderer(xsdContent);
 		} catch (ApiException exception) {
 			log.warn("FrankConfig XSD unavailable; attribute ordering will be skipped: {}", exception.getMessage());
 		} catch (Exception exception) {
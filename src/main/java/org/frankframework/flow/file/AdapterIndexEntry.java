@@ -0,0 +1,6 @@
+package org.frankframework.flow.file;
+
+import java.util.List;
+
+public record AdapterIndexEntry(long lastModified, long size, String rootElement, List<String> adapterNames) {
+}
@@ -0,0 +1,163 @@
+package org.frankframework.flow.file;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.log4j.Log4j2;
+import org.frankframework.flow.filesystem.FileSystemStorage;
+import org.frankframework.flow.utility.XmlAdapterUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Remembers the root element and adapter names of every configuration file that has been read, keyed by its path,
+ * last modification time and size. The index is stored in {@code ~/.flow} (local) or in {@code frankflow.cache.dir}
+ * (cloud), so after a restart only the files that changed in the meantime have to be parsed again. Files that the
+ * file watcher reports as deleted are dropped right away, the others that disappeared when the index is loaded.
+ */
+@Log4j2
+@Service
+public class AdapterIndexService {
+
+	private static final String INDEX_FILENAME = "adapter-index.json";
+	private static final Path LOCAL_INDEX_FILE = Paths.get(System.getProperty("user.home"), ".flow", INDEX_FILENAME);
+	private static final long FLUSH_INTERVAL_MS = 30_000L;
+
+	/**
+	 * Files modified this recently may be written again within the same timestamp granularity without changing in
+	 * size, so they are parsed on every request until their modification time is old enough to be trusted.
+	 */
+	private static final long RACY_MODIFICATION_WINDOW_MS = 2_000L;
+
+	private final ObjectMapper objectMapper;
+	private final Path indexFile;
+	private final Map<String, AdapterIndexEntry> entries = new ConcurrentHashMap<>();
+	private final AtomicBoolean dirty = new AtomicBoolean();
+
+	@Autowired
+	public AdapterIndexService(
+			FileSystemStorage fileSystemStorage,
+			ObjectMapper objectMapper,
+			@Value("${frankflow.cache.dir:/tmp/frankflow/cache}") String cacheDirectory
+	) {
+		this(objectMapper, fileSystemStorage.isLocalEnvironment() ? LOCAL_INDEX_FILE : Paths.get(cacheDirectory, INDEX_FILENAME));
+	}
+
+	AdapterIndexService(ObjectMapper objectMapper, Path indexFile) {
+		this.objectMapper = objectMapper;
+		this.indexFile = indexFile;
+	}
+
+	@PostConstruct
+	public void load() {
+		if (!Files.exists(indexFile)) {
+			return;
+		}
+
+		try {
+			Map<String, AdapterIndexEntry> stored = objectMapper.readValue(indexFile.toFile(), new TypeReference<>() {});
+			stored.forEach((path, entry) -> {
+				if (Files.exists(Path.of(path))) {
+					entries.put(path, entry);
+				}
+			});
+			log.debug("Loaded {} adapter index entries from {}", entries.size(), indexFile);
+		} catch (IOException exception) {
+			log.warn("Could not read adapter index {}, starting with an empty index: {}", indexFile, exception.getMessage());
+		}
+	}
+
+	public List<String> getAdapterNames(Path file) {
+		return getEntry(file).adapterNames();
+	}
+
+	public AdapterIndexEntry getEntry(Path file) {
+		try {
+			return getEntry(file, Files.readAttributes(file, BasicFileAttributes.class));
+		} catch (IOException _) {
+			entries.remove(toKey(file));
+			return new AdapterIndexEntry(0, 0, null, List.of());
+		}
+	}
+
+	/**
+	 * Returns the indexed entry of a file, reading the file only when it changed since it was indexed.
+	 *
+	 * @param attributes the attributes of the file, which callers that walk a directory tree already have
+	 */
+	public AdapterIndexEntry getEntry(Path file, BasicFileAttributes attributes) {
+		String key = toKey(file);
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		long size = attributes.size();
+
+		AdapterIndexEntry indexed = entries.get(key);
+		if (indexed != null && indexed.lastModified() == lastModified && indexed.size() == size) {
+			return indexed;
+		}
+
+		AdapterIndexEntry entry = readEntry(file, lastModified, size);
+		if (System.currentTimeMillis() - lastModified > RACY_MODIFICATION_WINDOW_MS) {
+			entries.put(key, entry);
+			dirty.set(true);
+		} else if (indexed != null) {
+			entries.remove(key);
+			dirty.set(true);
+		}
+		return entry;
+	}
+
+	/**
+	 * Drops the entry of a file, or the entries of all files below a directory.
+	 */
+	public void evict(Path path) {
+		Path prefix = path.toAbsolutePath().normalize();
+		if (entries.keySet().removeIf(key -> Path.of(key).startsWith(prefix))) {
+			dirty.set(true);
+		}
+	}
+
+	@PreDestroy
+	@Scheduled(fixedDelay = FLUSH_INTERVAL_MS)
+	public void flush() {
+		if (!dirty.getAndSet(false)) {
+			return;
+		}
+
+		try {
+			Files.createDirectories(indexFile.getParent());
+			Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+			objectMapper.writeValue(tempFile.toFile(), entries);
+			Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException exception) {
+			dirty.set(true);
+			log.warn("Could not write adapter index {}: {}", indexFile, exception.getMessage());
+		}
+	}
+
+	private AdapterIndexEntry readEntry(Path file, long lastModified, long size) {
+		try (InputStream inputStream = Files.newInputStream(file)) {
+			XmlAdapterUtils.ConfigurationOutline outline = XmlAdapterUtils.readConfigurationOutline(inputStream);
+			return new AdapterIndexEntry(lastModified, size, outline.rootElement(), outline.adapterNames());
+		} catch (Exception _) {
+			return new AdapterIndexEntry(lastModified, size, null, List.of());
+		}
+	}
+
+	private static String toKey(Path file) {
+		return file.toAbsolutePath().normalize().toString();
+	}
+}
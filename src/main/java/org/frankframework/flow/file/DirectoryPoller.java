@@ -0,0 +1,105 @@
+package org.frankframework.flow.file;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds changes below a directory by comparing snapshots of the attributes of its entries, for directories that
+ * can't be watched through the operating system. It reports the same kinds of changes as a watch service: created
+ * and deleted entries, and modified files. Ignored directories are skipped, as is everything below them.
+ */
+final class DirectoryPoller {
+
+	private final Path root;
+	private final boolean recursive;
+	private final IgnoredDirectories ignoredDirectories;
+	private Map<Path, EntryState> snapshot;
+
+	/**
+	 * Takes the first snapshot right away, so {@link #poll()} reports changes made after construction.
+	 */
+	DirectoryPoller(Path root, boolean recursive, IgnoredDirectories ignoredDirectories) throws IOException {
+		this.root = root.toAbsolutePath().normalize();
+		this.recursive = recursive;
+		this.ignoredDirectories = ignoredDirectories;
+		this.snapshot = scan();
+	}
+
+	/**
+	 * @return the changes since the previous poll; directories are only reported when created or deleted
+	 */
+	synchronized List<FileChange> poll() throws IOException {
+		Map<Path, EntryState> current = scan();
+		List<FileChange> changes = new ArrayList<>();
+
+		for (Map.Entry<Path, EntryState> entry : current.entrySet()) {
+			EntryState previous = snapshot.get(entry.getKey());
+			if (previous == null || previous.directory() != entry.getValue().directory()) {
+				changes.add(new FileChange(entry.getKey(), FileChangeType.CREATED));
+			} else if (!entry.getValue().directory() && !previous.equals(entry.getValue())) {
+				changes.add(new FileChange(entry.getKey(), FileChangeType.MODIFIED));
+			}
+		}
+		for (Path path : snapshot.keySet()) {
+			if (!current.containsKey(path)) {
+				changes.add(new FileChange(path, FileChangeType.DELETED));
+			}
+		}
+
+		snapshot = current;
+		return changes;
+	}
+
+	private Map<Path, EntryState> scan() throws IOException {
+		Map<Path, EntryState> entries = new HashMap<>();
+		if (!Files.isDirectory(root)) {
+			return entries;
+		}
+
+		Files.walkFileTree(root, Set.<FileVisitOption>of(), recursive ? Integer.MAX_VALUE : 1, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+				if (directory.equals(root)) {
+					return FileVisitResult.CONTINUE;
+				}
+				if (ignoredDirectories.isIgnored(root, directory)) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				entries.put(directory, EntryState.of(attributes));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+				// At the maximum depth, directories are visited as files
+				if (!attributes.isDirectory() || !ignoredDirectories.isIgnored(root, file)) {
+					entries.put(file, EntryState.of(attributes));
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException exception) {
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return entries;
+	}
+
+	private record EntryState(boolean directory, long lastModified, long size) {
+
+		private static EntryState of(BasicFileAttributes attributes) {
+			return new EntryState(attributes.isDirectory(), attributes.lastModifiedTime().toMillis(), attributes.size());
+		}
+	}
+}
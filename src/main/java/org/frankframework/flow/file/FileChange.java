@@ -0,0 +1,6 @@
+package org.frankframework.flow.file;
+
+import java.nio.file.Path;
+
+public record FileChange(Path path, FileChangeType type) {
+}
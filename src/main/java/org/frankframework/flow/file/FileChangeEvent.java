@@ -0,0 +1,13 @@
+package org.frankframework.flow.file;
+
+import java.util.List;
+
+/**
+ * The data of a {@code file-change} event: the paths that changed during one debounce window. Sequence numbers
+ * increase by one per event on a channel, so a client that sees a gap knows it missed changes. A resync event carries
+ * no changes; it means changes were lost and clients must reload whatever they show.
+ */
+public record FileChangeEvent(long sequence, boolean resync, List<Change> changes) {
+
+	public record Change(String path, FileChangeType type) {}
+}
@@ -0,0 +1,7 @@
+package org.frankframework.flow.file;
+
+public enum FileChangeType {
+	CREATED,
+	MODIFIED,
+	DELETED
+}
@@ -58,7 +58,7 @@ public class FileService {
 			throw new ApiException("Failed to write file: " + exception.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
 		}
 
-		fileTreeService.invalidateTreeCache(projectName);
+		fileTreeService.refreshTreePath(projectName, path);
 
 		FileTreeNode node = new FileTreeNode();
 		node.setName(fileName);
@@ -93,7 +93,8 @@ public class FileService {
 			throw new ApiException(exception.getMessage(), HttpStatus.NOT_ACCEPTABLE);
 		}
 
-		fileTreeService.invalidateTreeCache(projectName);
+		fileTreeService.refreshTreePath(projectName, oldPath);
+		fileTreeService.refreshTreePath(projectName, absoluteNewPath.toString());
 
 		boolean isDir = Files.isDirectory(absoluteNewPath);
 		FileTreeNode node = new FileTreeNode();
@@ -110,7 +111,7 @@ public class FileService {
 		} catch (IOException exception) {
 			throw new ApiException("Failed to delete file: " + exception.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
 		}
-		fileTreeService.invalidateTreeCache(projectName);
+		fileTreeService.refreshTreePath(projectName, path);
 	}
 
 	public void validateWithinProject(String projectName, String path) {
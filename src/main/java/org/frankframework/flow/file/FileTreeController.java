@@ -1,17 +1,22 @@
 package org.frankframework.flow.file;
 
+import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import org.frankframework.flow.exception.ApiException;
+import org.frankframework.flow.sse.SseClient;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/projects/{projectName}")
@@ -30,6 +35,27 @@ public class FileTreeController {
 		return fileTreeService.getProjectTree(projectName);
 	}
 
+	/**
+	 * The same tree as {@code /tree}, written while the project directory is walked, for projects too large to
+	 * build in memory before responding.
+	 */
+	@GetMapping(value = "/tree/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+	public StreamingResponseBody streamProjectTree(@PathVariable String projectName) {
+		return fileTreeService.streamProjectTree(projectName);
+	}
+
+	@GetMapping("/tree/page")
+	public FileTreeNode getDirectoryPage(
+			@PathVariable String projectName,
+			@RequestParam(required = false) String path,
+			@RequestParam(required = false, defaultValue = "1") int maxDepth,
+			@RequestParam(required = false, defaultValue = "200") int pageSize,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false, defaultValue = "false") boolean adapterNames
+	) throws IOException {
+		return fileTreeService.getDirectoryPage(projectName, path, maxDepth, pageSize, cursor, adapterNames);
+	}
+
 	@GetMapping("/tree/configuration")
 	public FileTreeNode getConfigurationTree(
 			@PathVariable String projectName,
@@ -73,7 +99,11 @@ public class FileTreeController {
 	}
 
 	@GetMapping("/watch")
-	public SseEmitter watchProject(@PathVariable String projectName) {
-		return fileWatcherService.subscribeToProject(projectName);
+	public SseEmitter watchProject(
+			@PathVariable String projectName,
+			@RequestHeader(value = SseClient.LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+			HttpSession session
+	) {
+		return fileWatcherService.subscribeToProject(projectName, new SseClient(session.getId(), lastEventId));
 	}
 }
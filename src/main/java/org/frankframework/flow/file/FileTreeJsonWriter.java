@@ -0,0 +1,132 @@
+package org.frankframework.flow.file;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.frankframework.flow.filesystem.ProjectScanner;
+
+/**
+ * Writes file trees as JSON in the shape Jackson gives a {@link FileTreeNode}, either from a tree in memory or while
+ * walking a directory. The walk writes every entry as soon as it is visited and keeps nothing but the listings of the
+ * directories on the path to the current one, so the first bytes go out right away and memory use doesn't grow with
+ * the size of the tree.
+ * The output is flushed every {@link #FLUSH_INTERVAL} nodes, so clients can start rendering before the walk ends.
+ */
+class FileTreeJsonWriter {
+
+	private static final int FLUSH_INTERVAL = 1000;
+
+	private final JsonGenerator generator;
+	private int nodesSinceFlush;
+
+	FileTreeJsonWriter(JsonGenerator generator) {
+		this.generator = generator;
+	}
+
+	void writeTree(FileTreeNode node) throws IOException {
+		writeStartNode(node.getName(), node.getPath(), node.getType(), node.isProjectRoot());
+		writeChildren(node.getChildren());
+		writeStringArray("adapterNames", node.getAdapterNames());
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Walks the directory like {@link ProjectScanner#scan(Path, ProjectScanner.Visitor)} does, so the result equals
+	 * a tree built by a scan, with the children in the same order.
+	 *
+	 * @param nodePath gives the path to write for an entry
+	 * @param adapterNames gives the adapter names of a file, or {@code null} when it isn't a configuration file
+	 */
+	void writeDirectory(Path root, boolean projectRoot, Function<Path, String> nodePath, AdapterNamesReader adapterNames)
+			throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+		if (!attributes.isDirectory()) {
+			writeFile(root, attributes, nodePath, adapterNames);
+			return;
+		}
+		writeDirectory(root, attributes, projectRoot, Set.of(), nodePath, adapterNames);
+	}
+
+	/**
+	 * Skips ignored directories and links back to a directory on the path, the way a scan that follows links does.
+	 */
+	private void writeDirectory(Path directory, BasicFileAttributes attributes, boolean projectRoot, Set<Object> ancestorKeys,
+			Function<Path, String> nodePath, AdapterNamesReader adapterNames) throws IOException {
+		Set<Object> directoryKeys = ancestorKeys;
+		if (attributes.fileKey() != null) {
+			directoryKeys = new HashSet<>(ancestorKeys);
+			directoryKeys.add(attributes.fileKey());
+		}
+
+		writeStartNode(directory.getFileName().toString(), nodePath.apply(directory), NodeType.DIRECTORY, projectRoot);
+		generator.writeNullField("adapterNames");
+		generator.writeArrayFieldStart("children");
+		for (ProjectScanner.Entry child : ProjectScanner.listChildren(directory)) {
+			BasicFileAttributes childAttributes = child.attributes();
+			if (!childAttributes.isDirectory()) {
+				writeFile(child.path(), childAttributes, nodePath, adapterNames);
+			} else if (!ProjectScanner.isIgnoredDirectory(child.path())
+					&& (childAttributes.fileKey() == null || !directoryKeys.contains(childAttributes.fileKey()))) {
+				writeDirectory(child.path(), childAttributes, false, directoryKeys, nodePath, adapterNames);
+			}
+		}
+		generator.writeEndArray();
+		generator.writeEndObject();
+	}
+
+	private void writeFile(Path file, BasicFileAttributes attributes, Function<Path, String> nodePath, AdapterNamesReader adapterNames)
+			throws IOException {
+		writeStartNode(file.getFileName().toString(), nodePath.apply(file), NodeType.FILE, false);
+		generator.writeNullField("children");
+		writeStringArray("adapterNames", adapterNames.read(file, attributes));
+		generator.writeEndObject();
+	}
+
+	private void writeStartNode(String name, String path, NodeType type, boolean projectRoot) throws IOException {
+		generator.writeStartObject();
+		generator.writeStringField("name", name);
+		generator.writeStringField("path", path);
+		generator.writeStringField("type", type != null ? type.name() : null);
+		generator.writeBooleanField("projectRoot", projectRoot);
+
+		if (++nodesSinceFlush >= FLUSH_INTERVAL) {
+			generator.flush();
+			nodesSinceFlush = 0;
+		}
+	}
+
+	private void writeChildren(List<FileTreeNode> children) throws IOException {
+		if (children == null) {
+			generator.writeNullField("children");
+			return;
+		}
+		generator.writeArrayFieldStart("children");
+		for (FileTreeNode child : children) {
+			writeTree(child);
+		}
+		generator.writeEndArray();
+	}
+
+	private void writeStringArray(String fieldName, List<String> values) throws IOException {
+		if (values == null) {
+			generator.writeNullField(fieldName);
+			return;
+		}
+		generator.writeArrayFieldStart(fieldName);
+		for (String value : values) {
+			generator.writeString(value);
+		}
+		generator.writeEndArray();
+	}
+
+	@FunctionalInterface
+	interface AdapterNamesReader {
+		List<String> read(Path file, BasicFileAttributes attributes);
+	}
+}
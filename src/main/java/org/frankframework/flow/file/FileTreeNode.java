@@ -1,5 +1,6 @@
 package org.frankframework.flow.file;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
@@ -13,4 +14,11 @@ public class FileTreeNode {
 	private boolean projectRoot;
 	private List<FileTreeNode> children;
 	private List<String> adapterNames;
+
+	/**
+	 * Only set when the children are one page of a larger directory, see
+	 * {@link FileTreeService#getDirectoryPage(String, String, int, int, String, boolean)}.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String nextCursor;
 }
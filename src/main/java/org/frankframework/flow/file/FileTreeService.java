@@ -1,57 +1,149 @@
 package org.frankframework.flow.file;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
-import javax.xml.parsers.DocumentBuilder;
+import lombok.extern.log4j.Log4j2;
 import org.frankframework.flow.exception.ApiException;
 import org.frankframework.flow.filesystem.FileSystemStorage;
+import org.frankframework.flow.filesystem.ProjectScanner;
 import org.frankframework.flow.project.ConfigurationProject;
 import org.frankframework.flow.project.ConfigurationProjectService;
 import org.frankframework.flow.utility.PathUtils;
-import org.frankframework.flow.utility.XmlConfigurationUtils;
-import org.frankframework.flow.utility.XmlSecurityUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.helpers.DefaultHandler;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+@Log4j2
 @Service
 public class FileTreeService {
 
 	private final ConfigurationProjectService configurationProjectService;
 	private final FileSystemStorage fileSystemStorage;
 	private final FileService fileService;
+	private final AdapterIndexService adapterIndexService;
 
-	private final Map<String, FileTreeNode> treeCache = new ConcurrentHashMap<>();
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	static final int MAX_PAGE_SIZE = 1000;
+	static final int MAX_PAGE_DEPTH = 8;
+	static final int MAX_PAGE_NODES = 5000;
+
+	/**
+	 * Keyed by the absolute path of the project, as project names in the cloud are only unique within the workspace of
+	 * a session, and changes found by a poller have no session to resolve a name with.
+	 */
+	private final Map<Path, CachedTree> treeCache = new ConcurrentHashMap<>();
+
+	/**
+	 * Maximum number of directory listings and configuration file reads done at the same time while building a tree,
+	 * see {@link ProjectScanner#scan(Path, ProjectScanner.Visitor, int)}. A value of 1 or lower builds trees
+	 * sequentially on the request thread.
+	 */
+	@Value("${frankflow.file-tree.parallelism:16}")
+	private int treeBuildParallelism;
 
 	public FileTreeService(
 			ConfigurationProjectService configurationProjectService,
 			FileSystemStorage fileSystemStorage,
-			FileService fileService
+			FileService fileService,
+			AdapterIndexService adapterIndexService
 	) {
 		this.configurationProjectService = configurationProjectService;
 		this.fileSystemStorage = fileSystemStorage;
 		this.fileService = fileService;
+		this.adapterIndexService = adapterIndexService;
 	}
 
 	public FileTreeNode getProjectTree(String projectName) throws IOException {
-		FileTreeNode cached = treeCache.get(projectName);
+		CachedTree cached = treeCache.get(toTreeKey(projectName));
 		if (cached != null) {
-			return cached;
+			return cached.root();
+		}
+
+		ProjectRoot projectRoot = resolveProjectRoot(projectName);
+		// The same scan lists the configuration files of the project, see ConfigurationProjectService#scanProject
+		FileTreeNode tree = configurationProjectService.scanProject(
+				projectRoot.projectPath(),
+				treeVisitor(projectRoot.relativizeRoot(), projectRoot.useRelativePaths()),
+				treeBuildParallelism
+		);
+		tree.setProjectRoot(true);
+		Path projectPath = projectRoot.projectPath().toAbsolutePath().normalize();
+		treeCache.put(projectPath, new CachedTree(tree, projectPath, projectRoot.relativizeRoot(), projectRoot.useRelativePaths()));
+		return tree;
+	}
+
+	/**
+	 * Returns a body that writes the same JSON as {@link #getProjectTree(String)}, but while walking the project
+	 * directory rather than after building the whole tree, see {@link FileTreeJsonWriter}. A cached tree is written
+	 * from memory instead. Streamed trees are not cached, as that would defeat their purpose.
+	 * <p>
+	 * The project is resolved right away on the calling thread, so an unknown project fails before the response
+	 * starts. Only the walk runs when the body is written.
+	 */
+	public StreamingResponseBody streamProjectTree(String projectName) {
+		CachedTree cached = treeCache.get(toTreeKey(projectName));
+		if (cached != null) {
+			FileTreeNode root = cached.root();
+			return outputStream -> {
+				try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+					new FileTreeJsonWriter(generator).writeTree(root);
+				}
+			};
+		}
+
+		ProjectRoot projectRoot = resolveProjectRoot(projectName);
+		return outputStream -> {
+			try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+				new FileTreeJsonWriter(generator).writeDirectory(
+						projectRoot.projectPath(),
+						true,
+						path -> toNodePath(path, projectRoot.relativizeRoot(), projectRoot.useRelativePaths()),
+						(file, attributes) -> fileService.hasAllowedExtension(file.getFileName().toString())
+								? adapterIndexService.getEntry(file, attributes).adapterNames()
+								: null
+				);
+			}
+		};
+	}
+
+	private Path toTreeKey(String projectName) {
+		Path key = findTreeKey(projectName);
+		if (key == null) {
+			throw new IllegalArgumentException("Project does not exist: " + projectName);
+		}
+		return key;
+	}
+
+	/**
+	 * @return the key of the cached tree of the project, or {@code null} when there is no such project
+	 */
+	private Path findTreeKey(String projectName) {
+		try {
+			ConfigurationProject configurationProject = configurationProjectService.getProject(projectName);
+			return fileSystemStorage.toAbsolutePath(configurationProject.getRootPath()).toAbsolutePath().normalize();
+		} catch (ApiException _) {
+			return null;
 		}
+	}
 
+	private ProjectRoot resolveProjectRoot(String projectName) {
 		try {
 			ConfigurationProject configurationProject = configurationProjectService.getProject(projectName);
 			Path projectPath = fileSystemStorage.toAbsolutePath(configurationProject.getRootPath());
@@ -62,10 +154,7 @@ public class FileTreeService {
 
 			boolean useRelativePaths = !fileSystemStorage.isLocalEnvironment();
 			Path relativizeRoot = useRelativePaths ? fileSystemStorage.toAbsolutePath("") : projectPath;
-			FileTreeNode tree = buildTree(projectPath, relativizeRoot, useRelativePaths);
-			tree.setProjectRoot(true);
-			treeCache.put(projectName, tree);
-			return tree;
+			return new ProjectRoot(projectPath, relativizeRoot, useRelativePaths);
 		} catch (ApiException _) {
 			throw new IllegalArgumentException("Project does not exist: " + projectName);
 		}
@@ -76,6 +165,45 @@ public class FileTreeService {
 		return buildShallowTree(projectDirectory.dirPath, projectDirectory.relativizeRoot, projectDirectory.useRelativePaths);
 	}
 
+	/**
+	 * Lists a directory one page at a time, for directories too large to list in one response. Children are sorted
+	 * by name, so pages stay stable while entries are added or removed elsewhere in the listing. Only the entries of
+	 * the page are read: a directory of thousands of files costs one listing of names, not thousands of file reads.
+	 * <p>
+	 * Subdirectories are expanded up to {@code maxDepth} levels, each with its own first page, until
+	 * {@link #MAX_PAGE_NODES} nodes are listed. Directories that are not expanded have no children. Any directory
+	 * with more children than the page size gets a {@link FileTreeNode#getNextCursor() next cursor} to request the
+	 * next page with. Adapter names are only read when asked for.
+	 *
+	 * @param directoryPath the directory to list, or {@code null} for the root of the project
+	 * @param cursor the next cursor of the previous page, or {@code null} for the first page
+	 */
+	public FileTreeNode getDirectoryPage(
+			String projectName,
+			String directoryPath,
+			int maxDepth,
+			int pageSize,
+			String cursor,
+			boolean includeAdapterNames
+	) throws IOException {
+		if (maxDepth < 1 || pageSize < 1) {
+			throw new IllegalArgumentException("maxDepth and pageSize must be at least 1");
+		}
+
+		ProjectDirectory directory;
+		if (directoryPath == null) {
+			ProjectRoot projectRoot = resolveProjectRoot(projectName);
+			directory = new ProjectDirectory(projectRoot.projectPath(), projectRoot.projectPath(), projectRoot.relativizeRoot(), projectRoot.useRelativePaths());
+		} else {
+			directory = resolveProjectDirectory(projectName, directoryPath);
+		}
+
+		DirectoryPager pager = new DirectoryPager(directory, Math.min(maxDepth, MAX_PAGE_DEPTH), Math.min(pageSize, MAX_PAGE_SIZE), includeAdapterNames);
+		FileTreeNode node = pager.list(directory.dirPath(), decodeCursor(cursor), 1);
+		node.setProjectRoot(directory.dirPath().equals(directory.projectPath()));
+		return node;
+	}
+
 	public FileTreeNode getShallowStudioDirectoryTree(String projectName, String directoryPath) throws IOException {
 		return filterStudioTree(getShallowDirectoryTree(projectName, directoryPath));
 	}
@@ -108,8 +236,8 @@ public class FileTreeService {
 	public FileTreeNode createFolder(String projectName, String path) throws IOException {
 		fileService.validatePath(path);
 		fileService.validateWithinProject(projectName, path);
-		fileSystemStorage.createProjectDirectory(path);
-		invalidateTreeCache(projectName);
+		Path folderPath = fileSystemStorage.createProjectDirectory(path);
+		applyFileChanges(projectName, List.of(new FileChange(folderPath, FileChangeType.CREATED)));
 
 		String folderName = Path.of(path).getFileName().toString();
 		FileTreeNode node = new FileTreeNode();
@@ -124,40 +252,179 @@ public class FileTreeService {
 	}
 
 	public void invalidateTreeCache(String projectName) {
-		treeCache.remove(projectName);
+		Path key = findTreeKey(projectName);
+		if (key != null) {
+			treeCache.remove(key);
+		}
 	}
 
-	private FileTreeNode buildTree(Path path, Path relativizeRoot, boolean useRelativePaths) throws IOException {
-		FileTreeNode node = new FileTreeNode();
-		node.setName(path.getFileName().toString());
-		node.setPath(toNodePath(path, relativizeRoot, useRelativePaths));
+	public void invalidateTreeCache(Path projectPath) {
+		treeCache.remove(projectPath.toAbsolutePath().normalize());
+	}
 
-		if (Files.isDirectory(path)) {
-			node.setType(NodeType.DIRECTORY);
+	/**
+	 * Refreshes the cached tree node of a single file or directory, see {@link #applyFileChanges(String, Collection)}.
+	 */
+	public void refreshTreePath(String projectName, String path) {
+		applyFileChanges(projectName, List.of(new FileChange(fileSystemStorage.toAbsolutePath(path), FileChangeType.MODIFIED)));
+	}
 
-			try (Stream<Path> stream = Files.list(path)) {
-				List<FileTreeNode> children = stream.map(childPath -> {
-							try {
-								return buildTree(childPath, relativizeRoot, useRelativePaths);
-							} catch (IOException exception) {
-								throw new UncheckedIOException(exception);
-							}
-						})
-						.toList();
+	/**
+	 * Patches the cached tree of a project with the given changes instead of dropping it. Every changed path is
+	 * reconciled against the disk: vanished entries are removed, new entries are added (directories including their
+	 * subtree) and modified files get their adapter names re-extracted. Nothing happens when the tree isn't cached.
+	 */
+	public void applyFileChanges(String projectName, Collection<FileChange> changes) {
+		Path key = findTreeKey(projectName);
+		if (key != null) {
+			applyFileChanges(key, changes);
+		}
+	}
 
-				node.setChildren(children);
+	/**
+	 * @see #applyFileChanges(String, Collection)
+	 */
+	public void applyFileChanges(Path projectPath, Collection<FileChange> changes) {
+		Path key = projectPath.toAbsolutePath().normalize();
+		CachedTree cached = treeCache.get(key);
+		if (cached == null || changes.isEmpty()) {
+			return;
+		}
+
+		synchronized (cached) {
+			try {
+				for (FileChange change : changes) {
+					applyFileChange(cached, change);
+				}
+			} catch (IOException | UncheckedIOException exception) {
+				log.debug("Could not patch tree of project {}, dropping it instead", key, exception);
+				treeCache.remove(key, cached);
 			}
-		} else {
-			node.setType(NodeType.FILE);
-			node.setChildren(null);
-			if (fileService.hasAllowedExtension(path.getFileName().toString())) {
-				node.setAdapterNames(extractAdapterNames(path));
+		}
+	}
+
+	private void applyFileChange(CachedTree tree, FileChange change) throws IOException {
+		Path changedPath = change.path().toAbsolutePath().normalize();
+		if (!changedPath.startsWith(tree.projectPath()) || changedPath.equals(tree.projectPath())) {
+			return;
+		}
+
+		Path relativePath = tree.projectPath().relativize(changedPath);
+		for (Path segment : relativePath) {
+			if (ProjectScanner.isIgnoredDirectory(segment)) {
+				return;
+			}
+		}
+
+		FileTreeNode parent = tree.root();
+		Path currentPath = tree.projectPath();
+
+		for (int i = 0; i < relativePath.getNameCount(); i++) {
+			currentPath = currentPath.resolve(relativePath.getName(i));
+			FileTreeNode child = findChild(parent, currentPath.getFileName().toString());
+			boolean exists = Files.exists(currentPath);
+
+			if (child == null) {
+				// The first unknown ancestor is added with its complete subtree, which includes the changed path itself
+				if (exists) {
+					replaceChild(parent, null, buildTree(currentPath, tree.relativizeRoot(), tree.useRelativePaths()));
+				}
+				return;
+			}
+
+			if (!exists) {
+				replaceChild(parent, child, null);
+				return;
+			}
+
+			boolean isDirectory = Files.isDirectory(currentPath);
+			boolean typeChanged = isDirectory != (child.getType() == NodeType.DIRECTORY);
+			boolean isChangedPath = i == relativePath.getNameCount() - 1;
+
+			if (typeChanged || (isChangedPath && isDirectory && change.type() == FileChangeType.CREATED)) {
+				replaceChild(parent, child, buildTree(currentPath, tree.relativizeRoot(), tree.useRelativePaths()));
+				return;
+			}
+
+			if (isChangedPath) {
+				if (!isDirectory) {
+					applyAdapterNames(child, currentPath);
+				}
+				return;
+			}
+			parent = child;
+		}
+	}
+
+	private FileTreeNode findChild(FileTreeNode parent, String name) {
+		if (parent.getChildren() == null) {
+			return null;
+		}
+		for (FileTreeNode child : parent.getChildren()) {
+			if (child.getName().equals(name)) {
+				return child;
 			}
 		}
+		return null;
+	}
+
+	/**
+	 * Children lists are replaced rather than modified, so a request serializing the tree at the same time never
+	 * sees a list that is being changed.
+	 */
+	private void replaceChild(FileTreeNode parent, FileTreeNode oldChild, FileTreeNode newChild) {
+		List<FileTreeNode> children = parent.getChildren() != null ? new ArrayList<>(parent.getChildren()) : new ArrayList<>();
+		int index = oldChild != null ? children.indexOf(oldChild) : -1;
+
+		if (index < 0 && newChild != null) {
+			children.add(newChild);
+		} else if (index >= 0 && newChild != null) {
+			children.set(index, newChild);
+		} else if (index >= 0) {
+			children.remove(index);
+		}
+		parent.setChildren(List.copyOf(children));
+	}
 
+	private FileTreeNode buildTree(Path path, Path relativizeRoot, boolean useRelativePaths) throws IOException {
+		return ProjectScanner.scan(path, treeVisitor(relativizeRoot, useRelativePaths), treeBuildParallelism);
+	}
+
+	private ProjectScanner.Visitor<FileTreeNode> treeVisitor(Path relativizeRoot, boolean useRelativePaths) {
+		return new ProjectScanner.Visitor<>() {
+			@Override
+			public FileTreeNode visitFile(Path file, BasicFileAttributes attributes) {
+				FileTreeNode node = createNode(file, NodeType.FILE, relativizeRoot, useRelativePaths);
+				node.setChildren(null);
+				if (fileService.hasAllowedExtension(file.getFileName().toString())) {
+					node.setAdapterNames(adapterIndexService.getEntry(file, attributes).adapterNames());
+				}
+				return node;
+			}
+
+			@Override
+			public FileTreeNode visitDirectory(Path directory, BasicFileAttributes attributes, List<FileTreeNode> children) {
+				FileTreeNode node = createNode(directory, NodeType.DIRECTORY, relativizeRoot, useRelativePaths);
+				node.setChildren(List.copyOf(children));
+				return node;
+			}
+		};
+	}
+
+	private FileTreeNode createNode(Path path, NodeType type, Path relativizeRoot, boolean useRelativePaths) {
+		FileTreeNode node = new FileTreeNode();
+		node.setName(path.getFileName().toString());
+		node.setPath(toNodePath(path, relativizeRoot, useRelativePaths));
+		node.setType(type);
 		return node;
 	}
 
+	private void applyAdapterNames(FileTreeNode node, Path path) {
+		if (fileService.hasAllowedExtension(path.getFileName().toString())) {
+			node.setAdapterNames(adapterIndexService.getAdapterNames(path));
+		}
+	}
+
 	private ConfigurationDirectory getConfigurationsDirectory(String projectName) throws ApiException {
 		ConfigurationProject configurationProject = configurationProjectService.getProject(projectName);
 		Path configurationPath = fileSystemStorage.toAbsolutePath(configurationProject.getRootPath()).normalize();
@@ -205,27 +472,6 @@ public class FileTreeService {
 		return fileName.toLowerCase().endsWith(".xml");
 	}
 
-	private List<String> extractAdapterNames(Path xmlFile) {
-		try {
-			String content = XmlConfigurationUtils.repairFlowNamespace(Files.readString(xmlFile, StandardCharsets.UTF_8));
-			DocumentBuilder builder = XmlSecurityUtils.createSecureDocumentBuilder();
-			builder.setErrorHandler(new DefaultHandler());
-			Document doc = builder.parse(new InputSource(new StringReader(content)));
-			NodeList adapters = doc.getElementsByTagName("Adapter");
-			if (adapters.getLength() == 0) {
-				adapters = doc.getElementsByTagName("adapter");
-			}
-
-			NodeList resolvedAdapters = adapters;
-			return IntStream.range(0, resolvedAdapters.getLength())
-					.mapToObj(index -> ((Element) resolvedAdapters.item(index)).getAttribute("name"))
-					.filter(name -> !name.isBlank())
-					.toList();
-		} catch (Exception _) {
-			return List.of();
-		}
-	}
-
 	private String toNodePath(Path path, Path relativizeRoot, boolean useRelativePaths) {
 		if (!useRelativePaths) {
 			return PathUtils.toForwardSlash(path.toAbsolutePath().toString());
@@ -272,25 +518,33 @@ public class FileTreeService {
 
 		node.setType(NodeType.DIRECTORY);
 
-		try (Stream<Path> stream = Files.list(path)) {
-			List<FileTreeNode> children = stream.map(childPath -> {
-						FileTreeNode child = new FileTreeNode();
-						child.setName(childPath.getFileName().toString());
-						child.setPath(toNodePath(childPath, relativizeRoot, useRelativePaths));
-						child.setType(Files.isDirectory(childPath) ? NodeType.DIRECTORY : NodeType.FILE);
-						if (!Files.isDirectory(childPath) && childPath.getFileName().toString().toLowerCase().endsWith(".xml")) {
-							child.setAdapterNames(extractAdapterNames(childPath));
-						}
-						return child;
-					})
-					.toList();
-
-			node.setChildren(children);
+		List<FileTreeNode> children = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+			for (Path childPath : stream) {
+				BasicFileAttributes attributes = readAttributes(childPath);
+				FileTreeNode child = createNode(childPath, attributes.isDirectory() ? NodeType.DIRECTORY : NodeType.FILE, relativizeRoot, useRelativePaths);
+				if (!attributes.isDirectory() && childPath.getFileName().toString().toLowerCase().endsWith(".xml")) {
+					child.setAdapterNames(adapterIndexService.getEntry(childPath, attributes).adapterNames());
+				}
+				children.add(child);
+			}
 		}
+		node.setChildren(List.copyOf(children));
 
 		return node;
 	}
 
+	/**
+	 * Follows links, but reports a broken link with the attributes of the link itself, like a project scan does.
+	 */
+	private static BasicFileAttributes readAttributes(Path path) throws IOException {
+		try {
+			return Files.readAttributes(path, BasicFileAttributes.class);
+		} catch (IOException _) {
+			return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+		}
+	}
+
 	private ProjectDirectory resolveProjectDirectory(String projectName, String directoryPath) {
 		try {
 			ConfigurationProject configurationProject = configurationProjectService.getProject(projectName);
@@ -313,6 +567,112 @@ public class FileTreeService {
 		}
 	}
 
+	private static String encodeCursor(String name) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(name.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String decodeCursor(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		try {
+			return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException _) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor);
+		}
+	}
+
+	/**
+	 * Lists the pages of one {@link #getDirectoryPage} request, keeping track of how many nodes it may still list.
+	 */
+	private final class DirectoryPager {
+		private final ProjectDirectory directory;
+		private final int maxDepth;
+		private final int pageSize;
+		private final boolean includeAdapterNames;
+		private int remainingNodes = MAX_PAGE_NODES;
+
+		private DirectoryPager(ProjectDirectory directory, int maxDepth, int pageSize, boolean includeAdapterNames) {
+			this.directory = directory;
+			this.maxDepth = maxDepth;
+			this.pageSize = pageSize;
+			this.includeAdapterNames = includeAdapterNames;
+		}
+
+		/**
+		 * Only called while nodes remain, so every page can hold at least one name.
+		 */
+		private FileTreeNode list(Path path, String after, int depth) throws IOException {
+			FileTreeNode node = createNode(path, NodeType.DIRECTORY, directory.relativizeRoot(), directory.useRelativePaths());
+			NamePage page = listPageNames(path, after, Math.min(pageSize, remainingNodes));
+			remainingNodes -= page.names().size();
+
+			List<FileTreeNode> children = new ArrayList<>(page.names().size());
+			for (String name : page.names()) {
+				children.add(createChild(path.resolve(name), depth));
+			}
+			node.setChildren(List.copyOf(children));
+			node.setNextCursor(page.nextCursor());
+			return node;
+		}
+
+		/**
+		 * Returns the names that sort directly after {@code after}, keeping no more than a page of names in memory.
+		 */
+		private NamePage listPageNames(Path path, String after, int limit) throws IOException {
+			PriorityQueue<String> page = new PriorityQueue<>(Comparator.reverseOrder());
+			boolean hasMore = false;
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+				for (Path entry : stream) {
+					String name = entry.getFileName().toString();
+					if (after != null && name.compareTo(after) <= 0) {
+						continue;
+					}
+					page.add(name);
+					if (page.size() > limit) {
+						page.poll();
+						hasMore = true;
+					}
+				}
+			}
+
+			List<String> names = new ArrayList<>(page);
+			names.sort(null);
+			return new NamePage(names, hasMore ? encodeCursor(names.getLast()) : null);
+		}
+
+		private FileTreeNode createChild(Path path, int depth) throws IOException {
+			BasicFileAttributes attributes = readAttributes(path);
+			if (attributes.isDirectory()) {
+				if (depth < maxDepth && remainingNodes > 0) {
+					return list(path, null, depth + 1);
+				}
+				return createNode(path, NodeType.DIRECTORY, directory.relativizeRoot(), directory.useRelativePaths());
+			}
+
+			FileTreeNode node = createNode(path, NodeType.FILE, directory.relativizeRoot(), directory.useRelativePaths());
+			if (includeAdapterNames && fileService.hasAllowedExtension(path.getFileName().toString())) {
+				node.setAdapterNames(adapterIndexService.getEntry(path, attributes).adapterNames());
+			}
+			return node;
+		}
+	}
+
+	private record NamePage(List<String> names, String nextCursor) {}
+
+	private record CachedTree(
+			FileTreeNode root,
+			Path projectPath,
+			Path relativizeRoot,
+			boolean useRelativePaths
+	) {}
+
+	private record ProjectRoot(
+			Path projectPath,
+			Path relativizeRoot,
+			boolean useRelativePaths
+	) {}
+
 	private record ProjectDirectory(
 			Path projectPath,
 			Path dirPath,
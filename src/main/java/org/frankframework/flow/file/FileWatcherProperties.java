@@ -0,0 +1,45 @@
+package org.frankframework.flow.file;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param ignoredPaths globs of directories not to watch, in addition to {@code .git}, {@code target} and
+ *                     {@code node_modules}; matched against both the directory name and its path relative to the
+ *                     watched root, such as {@code build} or {@code src/main/resources/generated/**}
+ * @param maxWatches   the number of directories watched through the operating system, for all projects together;
+ *                     projects that don't fit are polled instead
+ * @param pollInterval how often polled projects are checked for changes while they change
+ * @param maxPollInterval how often polled projects are checked at most once they stopped changing; the interval grows
+ *                     from {@code pollInterval} to this one while nothing changes
+ * @param unwatchDelay how long a channel stays watched after its last subscriber left; longer than browsers wait
+ *                     before they reconnect, so a client whose connection timed out resumes from its
+ *                     {@code Last-Event-ID} instead of getting a resync
+ */
+@ConfigurationProperties(prefix = "frankflow.file-watcher")
+public record FileWatcherProperties(List<String> ignoredPaths, Integer maxWatches, Duration pollInterval, Duration maxPollInterval,
+		Duration unwatchDelay) {
+	private static final int DEFAULT_MAX_WATCHES = 8192;
+	private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(2);
+	private static final Duration DEFAULT_MAX_POLL_INTERVAL = Duration.ofSeconds(16);
+	private static final Duration DEFAULT_UNWATCH_DELAY = Duration.ofSeconds(30);
+
+	public FileWatcherProperties {
+		if (ignoredPaths == null) {
+			ignoredPaths = List.of();
+		}
+		if (maxWatches == null) {
+			maxWatches = DEFAULT_MAX_WATCHES;
+		}
+		if (pollInterval == null) {
+			pollInterval = DEFAULT_POLL_INTERVAL;
+		}
+		if (maxPollInterval == null) {
+			maxPollInterval = DEFAULT_MAX_POLL_INTERVAL;
+		}
+		if (unwatchDelay == null) {
+			unwatchDelay = DEFAULT_UNWATCH_DELAY;
+		}
+	}
+}
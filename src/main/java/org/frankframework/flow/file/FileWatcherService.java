@@ -1,76 +1,136 @@
 package org.frankframework.flow.file;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import lombok.extern.log4j.Log4j2;
+import org.frankframework.flow.configuration.ConfigurationDocumentCache;
+import org.frankframework.flow.exception.ApiException;
 import org.frankframework.flow.filesystem.FileSystemStorage;
 import org.frankframework.flow.project.ConfigurationProject;
 import org.frankframework.flow.project.ConfigurationProjectService;
 import org.frankframework.flow.sse.SseChannelService;
+import org.frankframework.flow.sse.SseClient;
+import org.frankframework.flow.sse.SseEventId;
+import org.frankframework.flow.utility.PathUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+/**
+ * Tells SSE subscribers which files of a project or directory changed. Locally, directories are watched through the
+ * operating system as far as the watch budget allows, and polled otherwise. In the cloud, where workspaces live on
+ * storage that can't be watched, they are always polled. Either way only channels with subscribers are followed.
+ */
 @Log4j2
 @Service
 public class FileWatcherService {
 
 	private static final long DEBOUNCE_DELAY_MS = 150;
-	private static final Set<String> IGNORED_DIRECTORIES = Set.of(".git", "target", "node_modules");
+	private static final String FILE_CHANGE_EVENT = "file-change";
+
+	/**
+	 * Changes are broadcast at most this long after the first of them, even while new changes keep coming in, so
+	 * bulk operations such as a git pull show up in clients while they run instead of after they end.
+	 */
+	static final long MAX_BROADCAST_LATENCY_MS = 1000;
+
+	/**
+	 * More changed paths than this in one broadcast are replaced by a single resync, which is cheaper for clients
+	 * than applying thousands of separate changes.
+	 */
+	static final int MAX_PENDING_CHANGES = 1000;
+
+	private static final int POLL_BACKOFF_FACTOR = 2;
+	private static final ObjectMapper EVENT_MAPPER = new ObjectMapper();
 
 	private final FileSystemStorage fileSystemStorage;
 	private final FileTreeService fileTreeService;
 	private final ConfigurationProjectService configurationProjectService;
 	private final SseChannelService sseChannelService;
+	private final ConfigurationDocumentCache configurationDocumentCache;
+	private final AdapterIndexService adapterIndexService;
+	private final FileWatcherProperties properties;
+	private final IgnoredDirectories ignoredDirectories;
 
 	private WatchService watchService;
+	private WatchRegistry watchRegistry;
 
-	private final Map<WatchKey, String> watchKeyChannels = new ConcurrentHashMap<>();
-	private final Map<String, Runnable> channelCallbacks = new ConcurrentHashMap<>();
+	private final Object watchLock = new Object();
+	private final Map<String, PollingTask> pollers = new ConcurrentHashMap<>();
+	private final Map<String, WatchTarget> watchTargets = new ConcurrentHashMap<>();
+	private final Map<String, ChannelCallback> channelCallbacks = new ConcurrentHashMap<>();
 	private final Map<String, ScheduledFuture<?>> pendingBroadcasts = new ConcurrentHashMap<>();
+	private final Map<String, ScheduledFuture<?>> pendingUnwatches = new ConcurrentHashMap<>();
+	private final Map<String, Map<Path, FileChangeType>> pendingChanges = new ConcurrentHashMap<>();
+	private final Set<String> pendingResyncs = ConcurrentHashMap.newKeySet();
+	private final Map<String, Long> pendingSince = new ConcurrentHashMap<>();
 
 	private final ScheduledExecutorService debounceExecutor = Executors.newSingleThreadScheduledExecutor(
 			Thread.ofVirtual().name("file-watcher-debounce", 0).factory()
 	);
 
+	private final ScheduledExecutorService pollingExecutor = Executors.newSingleThreadScheduledExecutor(
+			Thread.ofVirtual().name("file-watcher-polling", 0).factory()
+	);
+
+	/**
+	 * Runs the polls themselves, each on a virtual thread of its own, so a slow walk of one channel, such as a workspace
+	 * on a network mount, doesn't hold up the polls of the others. The scheduler above only starts them.
+	 */
+	private final ExecutorService pollExecutor = Executors.newThreadPerTaskExecutor(
+			Thread.ofVirtual().name("file-watcher-poll", 0).factory()
+	);
+
 	public FileWatcherService(
 			FileSystemStorage fileSystemStorage,
 			FileTreeService fileTreeService,
 			ConfigurationProjectService configurationProjectService,
-			SseChannelService sseChannelService
+			SseChannelService sseChannelService,
+			ConfigurationDocumentCache configurationDocumentCache,
+			AdapterIndexService adapterIndexService,
+			FileWatcherProperties properties
 	) {
 		this.fileSystemStorage = fileSystemStorage;
 		this.fileTreeService = fileTreeService;
 		this.configurationProjectService = configurationProjectService;
 		this.sseChannelService = sseChannelService;
+		this.configurationDocumentCache = configurationDocumentCache;
+		this.adapterIndexService = adapterIndexService;
+		this.properties = properties;
+		this.ignoredDirectories = new IgnoredDirectories(properties.ignoredPaths());
 	}
 
 	@PostConstruct
 	public void start() {
 		if (!fileSystemStorage.isLocalEnvironment()) {
+			log.info("File watcher service started, workspaces are polled every {} to {}", properties.pollInterval(), properties.maxPollInterval());
 			return;
 		}
 
 		try {
 			watchService = FileSystems.getDefault().newWatchService();
+			watchRegistry = new WatchRegistry(watchService, properties.maxWatches(), ignoredDirectories);
 			Thread.ofVirtual().name("file-watcher").start(this::watchLoop);
 			log.info("File watcher service started");
 		} catch (IOException exception) {
@@ -81,6 +141,8 @@ public class FileWatcherService {
 	@PreDestroy
 	public void stop() {
 		debounceExecutor.shutdownNow();
+		pollingExecutor.shutdownNow();
+		pollExecutor.shutdownNow();
 		if (watchService != null) {
 			try {
 				watchService.close();
@@ -90,57 +152,214 @@ public class FileWatcherService {
 		}
 	}
 
-	public SseEmitter subscribeToProject(String projectName) {
-		if (watchService == null) {
-			return sseChannelService.subscribe(projectName);
+	/**
+	 * Subscribes to the changes of a project. The project is resolved on the calling thread, since in the cloud its
+	 * location depends on the session of the request.
+	 *
+	 * @throws ApiException when the project or the session has too many subscribers
+	 */
+	public SseEmitter subscribeToProject(String projectName, SseClient client) {
+		if (!isFollowingChanges()) {
+			return sseChannelService.subscribe(projectName, client);
 		}
+
+		Path projectPath;
 		try {
 			ConfigurationProject project = configurationProjectService.getProject(projectName);
-			Path projectPath = fileSystemStorage.toAbsolutePath(project.getRootPath());
-			String channelId = projectPath.toString();
-			channelCallbacks.put(channelId, () -> fileTreeService.invalidateTreeCache(projectName));
-			registerRecursively(projectPath, channelId);
-
-			return sseChannelService.subscribe(channelId);
+			projectPath = fileSystemStorage.toAbsolutePath(project.getRootPath());
 		} catch (Exception exception) {
 			log.warn("Failed to register project for watching: {}", projectName, exception);
-			return sseChannelService.subscribe(projectName);
+			return sseChannelService.subscribe(projectName, client);
 		}
+
+		String channelId = projectPath.toString();
+		SseEmitter emitter = subscribeWatched(channelId, client);
+		ChannelCallback callback = new ChannelCallback(
+				changes -> fileTreeService.applyFileChanges(projectPath, changes),
+				() -> fileTreeService.invalidateTreeCache(projectPath)
+		);
+		try {
+			watch(channelId, new WatchTarget(projectPath, true), callback);
+		} catch (IOException exception) {
+			log.warn("Failed to register project for watching: {}", projectName, exception);
+		}
+		return emitter;
 	}
 
-	public SseEmitter subscribeToPath(Path absolutePath) throws IOException {
+	/**
+	 * @throws ApiException when the directory or the session has too many subscribers
+	 */
+	public SseEmitter subscribeToPath(Path absolutePath, SseClient client) throws IOException {
 		String channelId = absolutePath.toString();
-		if (watchService != null && Files.isDirectory(absolutePath)) {
-			WatchKey key = absolutePath.register(
-					watchService,
-					StandardWatchEventKinds.ENTRY_CREATE,
-					StandardWatchEventKinds.ENTRY_DELETE,
-					StandardWatchEventKinds.ENTRY_MODIFY
-			);
-			watchKeyChannels.put(key, channelId);
-		}
-		return sseChannelService.subscribe(channelId);
-	}
-
-	private void registerRecursively(Path dir, String channelId) throws IOException {
-		Files.walkFileTree(dir, new SimpleFileVisitor<>() {
-
-			@Override
-			public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attrs) throws IOException {
-				String name = directory.getFileName() != null ? directory.getFileName().toString() : "";
-				if (IGNORED_DIRECTORIES.contains(name)) {
-					return FileVisitResult.SKIP_SUBTREE;
+		if (!isFollowingChanges() || !Files.isDirectory(absolutePath)) {
+			return sseChannelService.subscribe(channelId, client);
+		}
+
+		SseEmitter emitter = subscribeWatched(channelId, client);
+		watch(channelId, new WatchTarget(absolutePath, false), null);
+		return emitter;
+	}
+
+	private SseEmitter subscribeWatched(String channelId, SseClient client) {
+		try {
+			SseEmitter emitter = sseChannelService.subscribe(channelId, client, () -> scheduleUnwatch(channelId), firstEvent(channelId, client));
+			ScheduledFuture<?> pendingUnwatch = pendingUnwatches.remove(channelId);
+			if (pendingUnwatch != null) {
+				pendingUnwatch.cancel(false);
+			}
+			return emitter;
+		} catch (ApiException exception) {
+			synchronized (watchLock) {
+				if (!watchTargets.containsKey(channelId)) {
+					sseChannelService.unfollowChannel(channelId);
 				}
-				WatchKey key = directory.register(
-						watchService,
-						StandardWatchEventKinds.ENTRY_CREATE,
-						StandardWatchEventKinds.ENTRY_DELETE,
-						StandardWatchEventKinds.ENTRY_MODIFY
-				);
-				watchKeyChannels.put(key, channelId);
-				return FileVisitResult.CONTINUE;
 			}
-		});
+			throw exception;
+		}
+	}
+
+	/**
+	 * The first event of a subscriber tells it the id of the latest event, which browsers send back as
+	 * {@code Last-Event-ID} when they reconnect. A client that reconnects with any other id missed events, and gets
+	 * a resync instead.
+	 */
+	private SseEmitter.SseEventBuilder firstEvent(String channelId, SseClient client) {
+		SseEventId current = sseChannelService.currentEventId(channelId);
+		SseEmitter.SseEventBuilder event = SseEmitter.event().id(current.toString());
+		if (client.lastEventId() == null || client.lastEventId().equals(current.toString())) {
+			return event;
+		}
+		return event.name(FILE_CHANGE_EVENT).data(toEventData(new FileChangeEvent(current.sequence(), true, List.of())));
+	}
+
+	/**
+	 * Changes are followed in the cloud and, locally, once the watch service is running.
+	 */
+	private boolean isFollowingChanges() {
+		return watchService != null || !fileSystemStorage.isLocalEnvironment();
+	}
+
+	/**
+	 * Starts watching for a channel, unless it is watched already. Directories are watched through the operating
+	 * system as long as they fit in {@link FileWatcherProperties#maxWatches()}; otherwise, and always in the cloud, the
+	 * channel is polled.
+	 */
+	private void watch(String channelId, WatchTarget target, ChannelCallback callback) throws IOException {
+		synchronized (watchLock) {
+			if (callback != null) {
+				channelCallbacks.put(channelId, callback);
+			}
+			if (watchTargets.containsKey(channelId)) {
+				return;
+			}
+			watchTargets.put(channelId, target);
+			if (watchRegistry == null || !watchRegistry.watch(channelId, target.root(), target.recursive())) {
+				startPolling(channelId, target);
+			}
+		}
+	}
+
+	/**
+	 * Unwatches the channel after {@link FileWatcherProperties#unwatchDelay()}, unless it has subscribers again by then.
+	 * Until then the channel keeps its sequence, watches and cached tree, so the typical reconnect of a browser whose
+	 * connection timed out costs nothing.
+	 */
+	private void scheduleUnwatch(String channelId) {
+		ScheduledFuture<?> previous = pendingUnwatches.put(channelId, debounceExecutor.schedule(
+				() -> unwatch(channelId),
+				properties.unwatchDelay().toMillis(),
+				TimeUnit.MILLISECONDS
+		));
+		if (previous != null) {
+			previous.cancel(false);
+		}
+	}
+
+	/**
+	 * Stops watching a channel once its last subscriber left, and forgets everything kept for it. The files of a
+	 * project are no longer followed then, so its cached tree is dropped rather than left to go stale.
+	 */
+	private void unwatch(String channelId) {
+		synchronized (watchLock) {
+			if (sseChannelService.hasSubscribers(channelId) || watchTargets.remove(channelId) == null) {
+				return;
+			}
+			if (watchRegistry != null) {
+				watchRegistry.release(channelId);
+			}
+			stopPolling(channelId);
+			ScheduledFuture<?> broadcast = pendingBroadcasts.remove(channelId);
+			if (broadcast != null) {
+				broadcast.cancel(false);
+			}
+			pendingUnwatches.remove(channelId);
+			pendingChanges.remove(channelId);
+			pendingResyncs.remove(channelId);
+			pendingSince.remove(channelId);
+			sseChannelService.unfollowChannel(channelId);
+
+			ChannelCallback callback = channelCallbacks.remove(channelId);
+			if (callback != null) {
+				callback.onResync().run();
+			}
+		}
+	}
+
+	/**
+	 * Moves a channel whose new directories no longer fit in the watch budget over to polling.
+	 */
+	private void switchToPolling(String channelId) {
+		synchronized (watchLock) {
+			WatchTarget target = watchTargets.get(channelId);
+			if (target == null || pollers.containsKey(channelId)) {
+				return;
+			}
+			watchRegistry.release(channelId);
+			try {
+				startPolling(channelId, target);
+			} catch (IOException exception) {
+				log.warn("Failed to poll {}, changes will not be noticed", target.root(), exception);
+			}
+		}
+	}
+
+	private void startPolling(String channelId, WatchTarget target) throws IOException {
+		if (watchRegistry != null) {
+			log.info("Watching {} by polling, {} directories are watched already", target.root(), watchRegistry.getWatchCount());
+		}
+		PollingTask task = new PollingTask(channelId, new DirectoryPoller(target.root(), target.recursive(), ignoredDirectories));
+		pollers.put(channelId, task);
+		task.schedule();
+	}
+
+	private void stopPolling(String channelId) {
+		PollingTask task = pollers.remove(channelId);
+		if (task != null) {
+			task.cancel();
+		}
+	}
+
+	/**
+	 * @return whether anything changed since the previous poll
+	 */
+	private boolean poll(String channelId, DirectoryPoller poller) {
+		try {
+			List<FileChange> changes = poller.poll();
+			if (changes.isEmpty()) {
+				return false;
+			}
+			for (FileChange change : changes) {
+				evictChanged(change.path(), change.type());
+				if (!pendingResyncs.contains(channelId)) {
+					recordChange(channelId, change.path(), change.type());
+				}
+			}
+			scheduleBroadcast(channelId);
+			return true;
+		} catch (IOException | RuntimeException exception) {
+			log.warn("Failed to poll channel {} for changes", channelId, exception);
+			return false;
+		}
 	}
 
 	private void watchLoop() {
@@ -150,14 +369,14 @@ public class FileWatcherService {
 				break;
 			}
 
-			String channelId = watchKeyChannels.get(key);
-			if (channelId != null) {
-				registerNewSubdirectories(key, channelId);
+			List<WatchEvent<?>> events = key.pollEvents();
+			for (String channelId : watchRegistry.getChannels(key)) {
+				collectChanges((Path) key.watchable(), events, channelId);
 				scheduleBroadcast(channelId);
 			}
 
 			if (!key.reset()) {
-				watchKeyChannels.remove(key);
+				watchRegistry.discard(key);
 			}
 		}
 	}
@@ -173,37 +392,214 @@ public class FileWatcherService {
 		}
 	}
 
-	private void registerNewSubdirectories(WatchKey key, String channelId) {
-		Path watchedDir = (Path) key.watchable();
-		for (WatchEvent<?> event : key.pollEvents()) {
-			if (event.kind() != StandardWatchEventKinds.ENTRY_CREATE) {
+	/**
+	 * Records the changed paths of a signalled key for the next debounced broadcast and starts watching
+	 * directories that were created. Cached documents of changed files are evicted right away, without waiting for the
+	 * debounce. When events were lost the channel is marked for a full resync.
+	 */
+	private void collectChanges(Path watchedDir, List<WatchEvent<?>> events, String channelId) {
+		for (WatchEvent<?> event : events) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				pendingResyncs.add(channelId);
+				configurationDocumentCache.evict(watchedDir);
 				continue;
 			}
 
-			Path created = watchedDir.resolve(((WatchEvent<Path>) event).context());
-			if (Files.isDirectory(created)) {
-				try {
-					registerRecursively(created, channelId);
-				} catch (IOException _) {
-					log.warn("Failed to register new directory: {}", created);
-				}
+			Path changed = watchedDir.resolve(((WatchEvent<Path>) event).context());
+			FileChangeType type = toChangeType(event.kind());
+			evictChanged(changed, type);
+			if (type == FileChangeType.CREATED && Files.isDirectory(changed)) {
+				watchCreatedDirectory(channelId, changed);
+			}
+
+			if (!pendingResyncs.contains(channelId)) {
+				recordChange(channelId, changed, type);
 			}
 		}
 	}
 
+	/**
+	 * Drops what is cached about a changed path. Deleted and renamed paths are dropped from the adapter index as well,
+	 * which otherwise keeps their entries until it is loaded again.
+	 */
+	private void evictChanged(Path changed, FileChangeType type) {
+		configurationDocumentCache.evict(changed);
+		if (type == FileChangeType.DELETED) {
+			adapterIndexService.evict(changed);
+		}
+	}
+
+	/**
+	 * Keeps one pending change per path. When too many paths changed, the pending changes are dropped in favour of
+	 * a resync, and further changes are not recorded until it is broadcast.
+	 */
+	private void recordChange(String channelId, Path changed, FileChangeType type) {
+		pendingChanges.compute(channelId, (_, changes) -> {
+			Map<Path, FileChangeType> updated = changes != null ? changes : new LinkedHashMap<>();
+			updated.merge(changed, type, FileWatcherService::mergeChangeTypes);
+			if (updated.size() > MAX_PENDING_CHANGES) {
+				pendingResyncs.add(channelId);
+				return null;
+			}
+			return updated;
+		});
+	}
+
+	private void watchCreatedDirectory(String channelId, Path directory) {
+		try {
+			if (!watchRegistry.watchCreatedDirectory(channelId, directory)) {
+				switchToPolling(channelId);
+			}
+		} catch (IOException _) {
+			log.warn("Failed to register new directory: {}", directory);
+		}
+	}
+
+	private static FileChangeType toChangeType(WatchEvent.Kind<?> kind) {
+		if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+			return FileChangeType.CREATED;
+		}
+		if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+			return FileChangeType.DELETED;
+		}
+		return FileChangeType.MODIFIED;
+	}
+
+	/**
+	 * A path that was created and then modified within one debounce window is still new to the listeners.
+	 */
+	private static FileChangeType mergeChangeTypes(FileChangeType previous, FileChangeType next) {
+		return previous == FileChangeType.CREATED && next == FileChangeType.MODIFIED ? FileChangeType.CREATED : next;
+	}
+
+	/**
+	 * Postpones the broadcast until no changes came in for {@link #DEBOUNCE_DELAY_MS}, but never beyond
+	 * {@link #MAX_BROADCAST_LATENCY_MS} after the first pending change.
+	 */
 	private void scheduleBroadcast(String channelId) {
+		long now = System.nanoTime();
+		long firstChange = pendingSince.computeIfAbsent(channelId, _ -> now);
+		long deadline = TimeUnit.NANOSECONDS.toMillis(firstChange - now) + MAX_BROADCAST_LATENCY_MS;
+		long delay = Math.max(0, Math.min(DEBOUNCE_DELAY_MS, deadline));
+
 		ScheduledFuture<?> existing = pendingBroadcasts.remove(channelId);
 		if (existing != null) {
 			existing.cancel(false);
 		}
 		pendingBroadcasts.put(channelId, debounceExecutor.schedule(() -> {
-			Runnable callback = channelCallbacks.get(channelId);
+			pendingSince.remove(channelId);
+			Map<Path, FileChangeType> changes = pendingChanges.remove(channelId);
+			boolean resync = pendingResyncs.remove(channelId);
+			ChannelCallback callback = channelCallbacks.get(channelId);
 			if (callback != null) {
-				callback.run();
+				notifyCallback(callback, changes, resync);
 			}
 
-			sseChannelService.broadcast(channelId, SseEmitter.event().name("file-change").data("changed"));
+			// Changes that came in while the previous broadcast ran may have been sent with it already. When other nodes
+			// follow the channel as well, only the one that claimed it broadcasts.
+			if ((changes != null || resync) && sseChannelService.hasSubscribers(channelId)) {
+				SseEventId eventId = sseChannelService.claimNextEventId(channelId);
+				if (eventId != null) {
+					broadcastChanges(channelId, eventId, changes, resync);
+				}
+			} else if (changes != null || resync) {
+				// Nobody hears about these changes while the channel waits to be unwatched, so the sequence moves on
+				// and a client that reconnects gets a resync
+				sseChannelService.skipEventId(channelId);
+			}
 			pendingBroadcasts.remove(channelId);
-		}, DEBOUNCE_DELAY_MS, TimeUnit.MILLISECONDS));
+		}, delay, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Sends the changes as a {@link FileChangeEvent}, with an event id made of the epoch of the channel and the
+	 * sequence number of the event.
+	 */
+	private void broadcastChanges(String channelId, SseEventId eventId, Map<Path, FileChangeType> changes, boolean resync) {
+		List<FileChangeEvent.Change> changedPaths = resync || changes == null
+				? List.of()
+				: changes.entrySet().stream()
+						.map(entry -> new FileChangeEvent.Change(PathUtils.toForwardSlash(entry.getKey().toString()), entry.getValue()))
+						.toList();
+		sseChannelService.broadcast(channelId, SseEmitter.event()
+				.id(eventId.toString())
+				.name(FILE_CHANGE_EVENT)
+				.data(toEventData(new FileChangeEvent(eventId.sequence(), resync, changedPaths))));
+	}
+
+	/**
+	 * Events are serialized here rather than by the message converters, which indent JSON when pretty printing is on.
+	 * Only the lines of text data get a {@code data:} prefix each, so the line breaks of indented JSON would end the
+	 * event after its first line.
+	 */
+	private static String toEventData(FileChangeEvent event) {
+		try {
+			return EVENT_MAPPER.writeValueAsString(event);
+		} catch (JsonProcessingException exception) {
+			throw new IllegalStateException("Could not serialize file change event", exception);
+		}
+	}
+
+	private void notifyCallback(ChannelCallback callback, Map<Path, FileChangeType> changes, boolean resync) {
+		if (resync) {
+			callback.onResync().run();
+		} else if (changes != null) {
+			List<FileChange> fileChanges = changes.entrySet().stream()
+					.map(entry -> new FileChange(entry.getKey(), entry.getValue()))
+					.toList();
+			callback.onChanges().accept(fileChanges);
+		}
+	}
+
+	/**
+	 * Polls one channel with an adaptive interval: it starts at {@link FileWatcherProperties#pollInterval()}, doubles
+	 * after every poll that found nothing up to {@link FileWatcherProperties#maxPollInterval()}, and drops back as soon
+	 * as something changed. Projects that are being edited are polled often, idle ones hardly cost anything. The next
+	 * poll is only scheduled once the previous one finished, so a channel never has more than one poll in flight.
+	 */
+	private final class PollingTask implements Runnable {
+
+		private final String channelId;
+		private final DirectoryPoller poller;
+		private long delayMs = properties.pollInterval().toMillis();
+		private volatile boolean cancelled;
+		private volatile ScheduledFuture<?> next;
+
+		private PollingTask(String channelId, DirectoryPoller poller) {
+			this.channelId = channelId;
+			this.poller = poller;
+		}
+
+		private void schedule() {
+			if (!cancelled) {
+				next = pollingExecutor.schedule(() -> pollExecutor.execute(this), delayMs, TimeUnit.MILLISECONDS);
+			}
+		}
+
+		private void cancel() {
+			cancelled = true;
+			ScheduledFuture<?> scheduled = next;
+			if (scheduled != null) {
+				scheduled.cancel(false);
+			}
+		}
+
+		@Override
+		public void run() {
+			if (cancelled) {
+				return;
+			}
+			long minDelayMs = properties.pollInterval().toMillis();
+			long maxDelayMs = Math.max(minDelayMs, properties.maxPollInterval().toMillis());
+			delayMs = poll(channelId, poller) ? minDelayMs : Math.min(delayMs * POLL_BACKOFF_FACTOR, maxDelayMs);
+			schedule();
+		}
 	}
+
+	private record WatchTarget(Path root, boolean recursive) {}
+
+	private record ChannelCallback(
+			Consumer<List<FileChange>> onChanges,
+			Runnable onResync
+	) {}
 }
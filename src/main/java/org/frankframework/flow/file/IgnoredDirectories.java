@@ -0,0 +1,43 @@
+package org.frankframework.flow.file;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import org.frankframework.flow.filesystem.ProjectScanner;
+
+/**
+ * Decides which directories below a watched root are left alone: those that {@link ProjectScanner} skips, and those
+ * that match one of the configured globs, see {@link FileWatcherProperties#ignoredPaths()}.
+ */
+final class IgnoredDirectories {
+
+	private final List<PathMatcher> matchers;
+
+	IgnoredDirectories(List<String> globs) {
+		this.matchers = globs.stream()
+				.map(glob -> FileSystems.getDefault().getPathMatcher("glob:" + glob))
+				.toList();
+	}
+
+	/**
+	 * The root itself is never ignored.
+	 */
+	boolean isIgnored(Path root, Path directory) {
+		if (directory.equals(root)) {
+			return false;
+		}
+		if (ProjectScanner.isIgnoredDirectory(directory)) {
+			return true;
+		}
+
+		Path relativePath = root.relativize(directory);
+		Path fileName = directory.getFileName();
+		for (PathMatcher matcher : matchers) {
+			if (matcher.matches(relativePath) || (fileName != null && matcher.matches(fileName))) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
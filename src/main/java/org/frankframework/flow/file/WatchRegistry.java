@@ -0,0 +1,190 @@
+package org.frankframework.flow.file;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Keeps the watch keys of all channels of a {@link WatchService}. Every directory has at most one key, however many
+ * channels watch it, and the key is cancelled as soon as the last of them is released. Each key costs a kernel
+ * resource, such as an inotify watch on Linux, so no more than {@code maxWatches} directories are watched at once.
+ * A channel that doesn't fit is not watched at all, so its owner can fall back to polling.
+ */
+@Log4j2
+final class WatchRegistry {
+
+	private final WatchService watchService;
+	private final int maxWatches;
+	private final IgnoredDirectories ignoredDirectories;
+
+	private final Map<Path, WatchedDirectory> directories = new HashMap<>();
+	private final Map<WatchKey, WatchedDirectory> directoriesByKey = new HashMap<>();
+	private final Map<String, ChannelWatch> channels = new HashMap<>();
+
+	WatchRegistry(WatchService watchService, int maxWatches, IgnoredDirectories ignoredDirectories) {
+		this.watchService = watchService;
+		this.maxWatches = maxWatches;
+		this.ignoredDirectories = ignoredDirectories;
+	}
+
+	synchronized boolean isWatching(String channelId) {
+		return channels.containsKey(channelId);
+	}
+
+	/**
+	 * Watches the root for the channel, including all directories below it that are not ignored when
+	 * {@code recursive} is set.
+	 *
+	 * @return {@code false}, with nothing watched for the channel, when the directories don't fit in the budget
+	 */
+	synchronized boolean watch(String channelId, Path root, boolean recursive) throws IOException {
+		if (channels.containsKey(channelId)) {
+			return true;
+		}
+
+		ChannelWatch channel = new ChannelWatch(root.toAbsolutePath().normalize(), recursive, new HashSet<>());
+		channels.put(channelId, channel);
+		if (!addDirectories(channelId, channel, channel.root())) {
+			release(channelId);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Watches a directory that was created below the root of a recursive channel, including its subdirectories.
+	 *
+	 * @return {@code false} when the directories don't fit in the budget; what did fit stays watched
+	 */
+	synchronized boolean watchCreatedDirectory(String channelId, Path directory) throws IOException {
+		ChannelWatch channel = channels.get(channelId);
+		if (channel == null || !channel.recursive()) {
+			return true;
+		}
+		return addDirectories(channelId, channel, directory);
+	}
+
+	synchronized Set<String> getChannels(WatchKey key) {
+		WatchedDirectory directory = directoriesByKey.get(key);
+		return directory != null ? Set.copyOf(directory.channels()) : Set.of();
+	}
+
+	synchronized int getWatchCount() {
+		return directories.size();
+	}
+
+	/**
+	 * Stops watching for the channel, cancelling the keys that no other channel uses.
+	 */
+	synchronized void release(String channelId) {
+		ChannelWatch channel = channels.remove(channelId);
+		if (channel == null) {
+			return;
+		}
+
+		for (Path path : channel.directories()) {
+			WatchedDirectory directory = directories.get(path);
+			if (directory != null && directory.channels().remove(channelId) && directory.channels().isEmpty()) {
+				directory.key().cancel();
+				directories.remove(path);
+				directoriesByKey.remove(directory.key());
+			}
+		}
+	}
+
+	/**
+	 * Forgets a key that is no longer valid, typically because its directory was deleted.
+	 */
+	synchronized void discard(WatchKey key) {
+		WatchedDirectory directory = directoriesByKey.remove(key);
+		if (directory == null) {
+			return;
+		}
+
+		directories.remove(directory.path());
+		for (String channelId : directory.channels()) {
+			ChannelWatch channel = channels.get(channelId);
+			if (channel != null) {
+				channel.directories().remove(directory.path());
+			}
+		}
+	}
+
+	private boolean addDirectories(String channelId, ChannelWatch channel, Path start) throws IOException {
+		if (!channel.recursive()) {
+			return add(channelId, channel, start);
+		}
+
+		var visitor = new SimpleFileVisitor<Path>() {
+			private boolean withinBudget = true;
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+				if (ignoredDirectories.isIgnored(channel.root(), directory)) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				if (!add(channelId, channel, directory)) {
+					withinBudget = false;
+					return FileVisitResult.TERMINATE;
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException exception) {
+				// Entries that vanish or can't be read while walking are not watched
+				return FileVisitResult.CONTINUE;
+			}
+		};
+		Files.walkFileTree(start, visitor);
+		return visitor.withinBudget;
+	}
+
+	private boolean add(String channelId, ChannelWatch channel, Path directory) {
+		Path path = directory.toAbsolutePath().normalize();
+		WatchedDirectory watched = directories.get(path);
+		if (watched == null) {
+			if (directories.size() >= maxWatches) {
+				return false;
+			}
+			WatchKey key;
+			try {
+				key = path.register(
+						watchService,
+						StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE,
+						StandardWatchEventKinds.ENTRY_MODIFY
+				);
+			} catch (NoSuchFileException _) {
+				return true;
+			} catch (IOException exception) {
+				// Typically the operating system's own limit, such as fs.inotify.max_user_watches
+				log.warn("Could not watch {}: {}", path, exception.getMessage());
+				return false;
+			}
+			watched = new WatchedDirectory(path, key, new HashSet<>());
+			directories.put(path, watched);
+			directoriesByKey.put(key, watched);
+		}
+
+		watched.channels().add(channelId);
+		channel.directories().add(path);
+		return true;
+	}
+
+	private record WatchedDirectory(Path path, WatchKey key, Set<String> channels) {}
+
+	private record ChannelWatch(Path root, boolean recursive, Set<Path> directories) {}
+}
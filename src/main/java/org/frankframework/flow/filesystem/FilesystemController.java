@@ -1,12 +1,15 @@
 package org.frankframework.flow.filesystem;
 
+import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.nio.file.AccessDeniedException;
 import org.frankframework.flow.file.FileWatcherService;
+import org.frankframework.flow.sse.SseClient;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -35,8 +38,12 @@ public class FilesystemController {
 	}
 
 	@GetMapping("/watch")
-	public SseEmitter watch(@RequestParam String path) throws IOException {
-		return fileWatcherService.subscribeToPath(fileSystemStorage.toAbsolutePath(path));
+	public SseEmitter watch(
+			@RequestParam String path,
+			@RequestHeader(value = SseClient.LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+			HttpSession session
+	) throws IOException {
+		return fileWatcherService.subscribeToPath(fileSystemStorage.toAbsolutePath(path), new SseClient(session.getId(), lastEventId));
 }
 
 	@PostMapping("/mkdir")
@@ -0,0 +1,252 @@
+package org.frankframework.flow.filesystem;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Walks a project directory once, reading the attributes of every entry a single time, and hands each file and
+ * directory to a {@link Visitor} that builds whatever the caller needs from it: a file tree, a list of
+ * configuration files, or both at once. Directories in {@link #IGNORED_DIRECTORIES} are skipped entirely.
+ */
+public final class ProjectScanner {
+
+	public static final Set<String> IGNORED_DIRECTORIES = Set.of(".git", "target", "node_modules");
+
+	/**
+	 * Directories before files, each by name, so the order doesn't depend on how the file system lists a directory.
+	 */
+	private static final Comparator<Entry> CHILD_ORDER = Comparator
+			.comparing((Entry entry) -> !entry.attributes().isDirectory())
+			.thenComparing(entry -> entry.path().getFileName().toString());
+
+	private ProjectScanner() {}
+
+	/**
+	 * Receives the entries of a scan bottom-up: a directory is visited after all of its children, which it gets with
+	 * its subdirectories first and then its files, each sorted by name.
+	 */
+	public interface Visitor<T> {
+		T visitFile(Path file, BasicFileAttributes attributes) throws IOException;
+
+		T visitDirectory(Path directory, BasicFileAttributes attributes, List<T> children) throws IOException;
+	}
+
+	/**
+	 * Lists the entries of a directory in the order in which a scan visits them. Links are followed, except broken
+	 * ones, which are listed with the attributes of the link itself.
+	 */
+	public static List<Entry> listChildren(Path directory) throws IOException {
+		List<Entry> entries = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			for (Path entry : stream) {
+				entries.add(new Entry(entry, readAttributes(entry)));
+			}
+		}
+		entries.sort(CHILD_ORDER);
+		return entries;
+	}
+
+	/**
+	 * Follows links like {@link Files#walkFileTree} does with {@link FileVisitOption#FOLLOW_LINKS}: a broken link is
+	 * reported with the attributes of the link itself.
+	 */
+	private static BasicFileAttributes readAttributes(Path entry) throws IOException {
+		try {
+			return Files.readAttributes(entry, BasicFileAttributes.class);
+		} catch (IOException _) {
+			return Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+		}
+	}
+
+	public static boolean isIgnoredDirectory(Path directory) {
+		Path fileName = directory.getFileName();
+		return fileName != null && IGNORED_DIRECTORIES.contains(fileName.toString());
+	}
+
+	public static <T> T scan(Path root, Visitor<T> visitor) throws IOException {
+		ScanningFileVisitor<T> fileVisitor = new ScanningFileVisitor<>(root, visitor);
+		Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, fileVisitor);
+		return fileVisitor.result;
+	}
+
+	/**
+	 * Scans the root with every entry handled in its own virtual thread, which pays off when I/O latency rather than
+	 * throughput is the limit, such as on network-mounted workspaces. At most {@code parallelism} directory listings
+	 * and file visits run at the same time. The visitor sees the same entries in the same order as with
+	 * {@link #scan(Path, Visitor)}, so it must only be thread-safe, not order-independent.
+	 */
+	public static <T> T scan(Path root, Visitor<T> visitor, int parallelism) throws IOException {
+		if (parallelism <= 1) {
+			return scan(root, visitor);
+		}
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			ParallelScan<T> scan = new ParallelScan<>(visitor, executor, new Semaphore(parallelism));
+			try {
+				return scan.visit(root, Files.readAttributes(root, BasicFileAttributes.class), Set.of());
+			} catch (IOException | RuntimeException exception) {
+				executor.shutdownNow();
+				throw exception;
+			}
+		}
+	}
+
+	private static final class ScanningFileVisitor<T> extends SimpleFileVisitor<Path> {
+		private final Path root;
+		private final Visitor<T> visitor;
+		private final Deque<List<Visited<T>>> children = new ArrayDeque<>();
+		private final Deque<BasicFileAttributes> directoryAttributes = new ArrayDeque<>();
+		private T result;
+
+		private ScanningFileVisitor(Path root, Visitor<T> visitor) {
+			this.root = root;
+			this.visitor = visitor;
+		}
+
+		@Override
+		public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+			if (!directory.equals(root) && isIgnoredDirectory(directory)) {
+				return FileVisitResult.SKIP_SUBTREE;
+			}
+			children.push(new ArrayList<>());
+			directoryAttributes.push(attributes);
+			return FileVisitResult.CONTINUE;
+		}
+
+		@Override
+		public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+			add(new Entry(file, attributes), visitor.visitFile(file, attributes));
+			return FileVisitResult.CONTINUE;
+		}
+
+		@Override
+		public FileVisitResult visitFileFailed(Path file, IOException exception) throws IOException {
+			if (exception instanceof FileSystemLoopException) {
+				return FileVisitResult.CONTINUE;
+			}
+			throw exception;
+		}
+
+		@Override
+		public FileVisitResult postVisitDirectory(Path directory, IOException exception) throws IOException {
+			if (exception != null) {
+				throw exception;
+			}
+			List<T> directoryChildren = children.pop().stream()
+					.sorted(Comparator.comparing(Visited::entry, CHILD_ORDER))
+					.map(Visited::node)
+					.toList();
+			BasicFileAttributes attributes = directoryAttributes.pop();
+			add(new Entry(directory, attributes), visitor.visitDirectory(directory, attributes, new ArrayList<>(directoryChildren)));
+			return FileVisitResult.CONTINUE;
+		}
+
+		private void add(Entry entry, T node) {
+			if (children.isEmpty()) {
+				result = node;
+			} else {
+				children.peek().add(new Visited<>(entry, node));
+			}
+		}
+	}
+
+	private record Visited<T>(Entry entry, T node) {}
+
+	private record ParallelScan<T>(Visitor<T> visitor, ExecutorService executor, Semaphore permits) {
+
+		/**
+		 * Lists a directory and stats its entries under a single permit, then visits every entry in its own task.
+		 * The permit is released before waiting on the children, so deep trees cannot exhaust the permits.
+		 */
+		private T visit(Path path, BasicFileAttributes attributes, Set<Object> ancestorKeys) throws IOException {
+			if (!attributes.isDirectory()) {
+				return withPermit(() -> visitor.visitFile(path, attributes));
+			}
+
+			Set<Object> directoryKeys = ancestorKeys;
+			if (attributes.fileKey() != null) {
+				directoryKeys = new HashSet<>(ancestorKeys);
+				directoryKeys.add(attributes.fileKey());
+			}
+
+			List<Entry> entries = withPermit(() -> listChildren(path));
+			List<Future<T>> futures = new ArrayList<>(entries.size());
+			for (Entry entry : entries) {
+				boolean isLoop = entry.attributes().fileKey() != null && directoryKeys.contains(entry.attributes().fileKey());
+				if (entry.attributes().isDirectory() && (isLoop || isIgnoredDirectory(entry.path()))) {
+					continue;
+				}
+				Set<Object> childAncestorKeys = directoryKeys;
+				futures.add(executor.submit(() -> visit(entry.path(), entry.attributes(), childAncestorKeys)));
+			}
+
+			List<T> children = new ArrayList<>(futures.size());
+			for (Future<T> future : futures) {
+				children.add(await(future));
+			}
+			return visitor.visitDirectory(path, attributes, children);
+		}
+
+		private <R> R withPermit(IoAction<R> action) throws IOException {
+			try {
+				permits.acquire();
+			} catch (InterruptedException _) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while scanning project");
+			}
+			try {
+				return action.run();
+			} finally {
+				permits.release();
+			}
+		}
+
+		private T await(Future<T> future) throws IOException {
+			try {
+				return future.get();
+			} catch (InterruptedException _) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while scanning project");
+			} catch (ExecutionException exception) {
+				switch (exception.getCause()) {
+					case IOException ioException -> throw ioException;
+					case RuntimeException runtimeException -> throw runtimeException;
+					case Error error -> throw error;
+					default -> throw new IOException(exception.getCause());
+				}
+			}
+		}
+	}
+
+	/**
+	 * An entry of a directory with its attributes, as read once by {@link #listChildren(Path)}.
+	 */
+	public record Entry(Path path, BasicFileAttributes attributes) {}
+
+	@FunctionalInterface
+	private interface IoAction<R> {
+		R run() throws IOException;
+	}
+}
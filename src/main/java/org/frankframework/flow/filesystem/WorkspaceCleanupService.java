@@ -27,6 +27,9 @@ public class WorkspaceCleanupService {
 	@Value("${frankflow.workspace.retention-hours:24}")
 	private int retentionHours;
 
+	@Value("${frankflow.cache.dir:/tmp/frankflow/cache}")
+	private String cacheDirectoryPath;
+
 	@Scheduled(fixedRate = CLEANUP_INTERVAL_MS)
 	public void cleanupOldWorkspaces() {
 		log.info("Starting workspace cleanup check...");
@@ -38,9 +41,11 @@ public class WorkspaceCleanupService {
 		}
 
 		Instant cutoffTime = Instant.now().minus(retentionHours, ChronoUnit.HOURS);
+		// Caches are not session workspaces, even when configured within the workspace root
+		Path cacheDirectory = Paths.get(cacheDirectoryPath).toAbsolutePath().normalize();
 
 		try (Stream<Path> sessions = Files.list(root)) {
-			sessions.filter(Files::isDirectory).forEach(sessionDir -> {
+			sessions.filter(Files::isDirectory).filter(sessionDir -> !isCacheDirectory(sessionDir, cacheDirectory)).forEach(sessionDir -> {
 				try {
 					FileTime lastModifiedTime = Files.getLastModifiedTime(sessionDir);
 
@@ -56,4 +61,8 @@ public class WorkspaceCleanupService {
 			log.error("Error accessing workspace root for cleanup", e);
 		}
 	}
+
+	private static boolean isCacheDirectory(Path sessionDir, Path cacheDirectory) {
+		return cacheDirectory.startsWith(sessionDir.toAbsolutePath().normalize());
+	}
 }
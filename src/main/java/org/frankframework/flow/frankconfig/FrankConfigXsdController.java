@@ -1,10 +1,15 @@
 package org.frankframework.flow.frankconfig;
 
+import java.nio.charset.StandardCharsets;
 import lombok.extern.log4j.Log4j2;
+import org.frankframework.flow.common.StaticDocument;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Log4j2
@@ -12,6 +17,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/xsd/frankconfig")
 public class FrankConfigXsdController {
 
+	private static final MediaType XSD_CONTENT_TYPE = new MediaType(MediaType.TEXT_XML, StandardCharsets.UTF_8);
+
 	private final FrankConfigXsdService frankConfigXsdService;
 
 	public FrankConfigXsdController(FrankConfigXsdService frankConfigXsdService) {
@@ -19,9 +26,12 @@ public class FrankConfigXsdController {
 	}
 
 	@GetMapping(produces = MediaType.TEXT_XML_VALUE)
-	public ResponseEntity<String> getFrankConfigXsd() {
-		String xsd = frankConfigXsdService.getFrankConfigXsd();
-		log.info("Fetched FrankConfig XSD");
-		return ResponseEntity.ok(xsd);
+	public ResponseEntity<byte[]> getFrankConfigXsd(
+			@RequestHeader HttpHeaders headers,
+			@RequestParam(name = StaticDocument.VERSION_PARAMETER, required = false) String version
+	) {
+		StaticDocument document = frankConfigXsdService.getFrankConfigXsdDocument();
+		log.debug("Serving FrankConfig XSD version {}", document.getVersion());
+		return document.toResponse(XSD_CONTENT_TYPE, headers, version);
 	}
 }
@@ -1,30 +1,53 @@
 package org.frankframework.flow.frankconfig;
 
-import lombok.extern.log4j.Log4j2;
-import org.frankframework.flow.exception.ApiException;
-import org.springframework.http.HttpStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.frankframework.flow.common.RemoteDocument;
+import org.frankframework.flow.common.StaticDocument;
+import org.frankframework.flow.filesystem.FileSystemStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-@Log4j2
+/**
+ * Provides the FrankConfig XSD, cached in {@code ~/.flow/frankdoc} (local) or in {@code frankflow.cache.dir}
+ * (cloud) and revalidated in the background, see {@link RemoteDocument}.
+ */
 @Service
 public class FrankConfigXsdService {
 	private static final String FRANKCONFIG_XSD_URL = "https://schemas.frankframework.org/FrankConfig.xsd";
+	private static final String FRANKCONFIG_XSD_FILENAME = "FrankConfig.xsd";
+	private static final Path LOCAL_CACHE_DIRECTORY = Paths.get(System.getProperty("user.home"), ".flow", "frankdoc");
 
-	private final RestTemplate restTemplate;
+	private final RemoteDocument frankConfigXsd;
 
-	public FrankConfigXsdService(RestTemplate restTemplate) {
-		this.restTemplate = restTemplate;
+	@Autowired
+	public FrankConfigXsdService(
+			RestTemplate restTemplate,
+			ObjectMapper objectMapper,
+			FileSystemStorage fileSystemStorage,
+			@Value("${frankflow.cache.dir:/tmp/frankflow/cache}") String cacheDirectory
+	) {
+		this(new RemoteDocument(
+				restTemplate,
+				objectMapper,
+				FRANKCONFIG_XSD_URL,
+				(fileSystemStorage.isLocalEnvironment() ? LOCAL_CACHE_DIRECTORY : Paths.get(cacheDirectory, "frankdoc")).resolve(FRANKCONFIG_XSD_FILENAME),
+				"frankdoc/" + FRANKCONFIG_XSD_FILENAME
+		));
+	}
+
+	FrankConfigXsdService(RemoteDocument frankConfigXsd) {
+		this.frankConfigXsd = frankConfigXsd;
 	}
 
 	public String getFrankConfigXsd() {
-		try {
-			log.info("Fetching FrankConfig XSD from {}", FRANKCONFIG_XSD_URL);
-			return restTemplate.getForObject(FRANKCONFIG_XSD_URL, String.class);
-		} catch (RestClientException exception) {
-			log.error("Failed to fetch FrankConfig XSD from {}", FRANKCONFIG_XSD_URL, exception);
-			throw new ApiException("Failed to fetch FrankConfig XSD", HttpStatus.NOT_FOUND);
-		}
+		return frankConfigXsd.getContent();
+	}
+
+	public StaticDocument getFrankConfigXsdDocument() {
+		return frankConfigXsd.getDocument();
 	}
 }
@@ -0,0 +1,105 @@
+package org.frankframework.flow.frankconfig;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import lombok.extern.log4j.Log4j2;
+import org.frankframework.flow.filesystem.FileSystemStorage;
+import org.frankframework.flow.utility.XmlSecurityUtils;
+import org.frankframework.flow.utility.XsdAttributeOrdererUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Creates the attribute orderer for a FrankConfig XSD. Compiling the attribute order means parsing and indexing the
+ * whole XSD, so the result is stored in {@code ~/.flow} (local) or in {@code frankflow.cache.dir} (cloud), together
+ * with a hash of the XSD it was compiled from. As long as the XSD doesn't change, later starts read the stored order
+ * instead.
+ */
+@Log4j2
+@Service
+public class XsdAttributeOrderService {
+
+	private static final String ORDER_FILENAME = "attribute-order.json";
+	private static final Path LOCAL_ORDER_FILE = Paths.get(System.getProperty("user.home"), ".flow", ORDER_FILENAME);
+
+	private final ObjectMapper objectMapper;
+	private final Path orderFile;
+
+	@Autowired
+	public XsdAttributeOrderService(
+			FileSystemStorage fileSystemStorage,
+			ObjectMapper objectMapper,
+			@Value("${frankflow.cache.dir:/tmp/frankflow/cache}") String cacheDirectory
+	) {
+		this(objectMapper, fileSystemStorage.isLocalEnvironment() ? LOCAL_ORDER_FILE : Paths.get(cacheDirectory, ORDER_FILENAME));
+	}
+
+	XsdAttributeOrderService(ObjectMapper objectMapper, Path orderFile) {
+		this.objectMapper = objectMapper;
+		this.orderFile = orderFile;
+	}
+
+	public XsdAttributeOrdererUtils createOrderer(String xsdContent) throws ParserConfigurationException, SAXException, IOException {
+		String xsdHash = hash(xsdContent);
+		StoredAttributeOrder stored = readStoredOrder();
+		if (stored != null && xsdHash.equals(stored.xsdHash())) {
+			log.debug("Using stored attribute order from {}", orderFile);
+			return new XsdAttributeOrdererUtils(stored.attributeOrder());
+		}
+
+		XsdAttributeOrdererUtils orderer = new XsdAttributeOrdererUtils(
+				XmlSecurityUtils.createSecureDocumentBuilder().parse(new InputSource(new StringReader(xsdContent))));
+		store(new StoredAttributeOrder(xsdHash, orderer.getAttributeOrder()));
+		return orderer;
+	}
+
+	private StoredAttributeOrder readStoredOrder() {
+		if (!Files.exists(orderFile)) {
+			return null;
+		}
+
+		try {
+			return objectMapper.readValue(orderFile.toFile(), StoredAttributeOrder.class);
+		} catch (IOException exception) {
+			log.warn("Could not read stored attribute order {}, compiling it from the XSD: {}", orderFile, exception.getMessage());
+			return null;
+		}
+	}
+
+	private void store(StoredAttributeOrder order) {
+		try {
+			Files.createDirectories(orderFile.getParent());
+			Path tempFile = orderFile.resolveSibling(orderFile.getFileName() + ".tmp");
+			objectMapper.writeValue(tempFile.toFile(), order);
+			Files.move(tempFile, orderFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException exception) {
+			log.warn("Could not store attribute order {}: {}", orderFile, exception.getMessage());
+		}
+	}
+
+	private static String hash(String content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException("SHA-256 is not available", exception);
+		}
+	}
+
+	record StoredAttributeOrder(String xsdHash, Map<String, List<String>> attributeOrder) {}
+}
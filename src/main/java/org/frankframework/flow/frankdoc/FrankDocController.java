@@ -1,10 +1,14 @@
 package org.frankframework.flow.frankdoc;
 
 import lombok.extern.log4j.Log4j2;
+import org.frankframework.flow.common.StaticDocument;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Log4j2
@@ -19,9 +23,12 @@ public class FrankDocController {
 	}
 
 	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<String> getFrankDocJson() {
-		String frankDocJson = frankDocService.getFrankDocJson();
-		log.info("Fetched FrankDoc JSON");
-		return ResponseEntity.ok(frankDocJson);
+	public ResponseEntity<byte[]> getFrankDocJson(
+			@RequestHeader HttpHeaders headers,
+			@RequestParam(name = StaticDocument.VERSION_PARAMETER, required = false) String version
+	) {
+		StaticDocument document = frankDocService.getFrankDocJsonDocument();
+		log.debug("Serving FrankDoc JSON version {}", document.getVersion());
+		return document.toResponse(MediaType.APPLICATION_JSON, headers, version);
 	}
 }
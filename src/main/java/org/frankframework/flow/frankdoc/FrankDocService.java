@@ -1,34 +1,58 @@
 package org.frankframework.flow.frankdoc;
 
-import lombok.extern.log4j.Log4j2;
-import org.frankframework.flow.exception.ApiException;
-import org.springframework.http.HttpStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.frankframework.flow.common.RemoteDocument;
+import org.frankframework.flow.common.StaticDocument;
+import org.frankframework.flow.filesystem.FileSystemStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-@Log4j2
+/**
+ * Provides the FrankDoc JSON, cached in {@code ~/.flow/frankdoc} (local) or in {@code frankflow.cache.dir}
+ * (cloud) and revalidated in the background, see {@link RemoteDocument}.
+ */
 @Service
 public class FrankDocService {
 	private static final String FRANKDOC_JSON_URL = "https://reference.frankframework.org/js/frankdoc.json";
+	private static final String FRANKDOC_JSON_FILENAME = "frankdoc.json";
+	private static final Path LOCAL_CACHE_DIRECTORY = Paths.get(System.getProperty("user.home"), ".flow", "frankdoc");
 
-	private final RestTemplate restTemplate;
+	private final RemoteDocument frankDocJson;
 
-	public FrankDocService(RestTemplate restTemplate) {
-		this.restTemplate = restTemplate;
+	@Autowired
+	public FrankDocService(
+			RestTemplate restTemplate,
+			ObjectMapper objectMapper,
+			FileSystemStorage fileSystemStorage,
+			@Value("${frankflow.cache.dir:/tmp/frankflow/cache}") String cacheDirectory
+	) {
+		this(new RemoteDocument(
+				restTemplate,
+				objectMapper,
+				FRANKDOC_JSON_URL,
+				(fileSystemStorage.isLocalEnvironment() ? LOCAL_CACHE_DIRECTORY : Paths.get(cacheDirectory, "frankdoc")).resolve(FRANKDOC_JSON_FILENAME),
+				"frankdoc/" + FRANKDOC_JSON_FILENAME
+		));
+	}
+
+	FrankDocService(RemoteDocument frankDocJson) {
+		this.frankDocJson = frankDocJson;
 	}
 
 	/**
-	 * Fetches the FrankDoc JSON from the external URL.
+	 * Returns the FrankDoc JSON, without waiting for the network when a copy is cached or embedded.
 	 *
 	 * @return The FrankDoc JSON as a String.
 	 */
 	public String getFrankDocJson() {
-		try {
-			log.info("Fetching FrankDoc JSON from {}", FRANKDOC_JSON_URL);
-			return restTemplate.getForObject(FRANKDOC_JSON_URL, String.class);
-		} catch (RestClientException _) {
-			throw new ApiException("Failed to fetch FrankDoc JSON", HttpStatus.NOT_FOUND);
-		}
+		return frankDocJson.getContent();
+	}
+
+	public StaticDocument getFrankDocJsonDocument() {
+		return frankDocJson.getDocument();
 	}
 }
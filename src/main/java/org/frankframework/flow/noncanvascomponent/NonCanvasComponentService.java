@@ -1,7 +1,6 @@
 package org.frankframework.flow.noncanvascomponent;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -11,16 +10,15 @@ import java.util.Map;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
 import lombok.extern.log4j.Log4j2;
+import org.frankframework.flow.configuration.ConfigurationDocumentCache;
 import org.frankframework.flow.exception.ApiException;
 import org.frankframework.flow.filesystem.FileSystemStorage;
 import org.frankframework.flow.utility.XmlConfigurationUtils;
 import org.frankframework.flow.utility.XmlNonCanvasComponentUtils;
-import org.frankframework.flow.utility.XmlSecurityUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 @Log4j2
@@ -30,9 +28,11 @@ public class NonCanvasComponentService {
 	private static final String NAME_ATTRIBUTE = "name";
 
 	private final FileSystemStorage fileSystemStorage;
+	private final ConfigurationDocumentCache configurationDocumentCache;
 
-	public NonCanvasComponentService(FileSystemStorage fileSystemStorage) {
+	public NonCanvasComponentService(FileSystemStorage fileSystemStorage, ConfigurationDocumentCache configurationDocumentCache) {
 		this.fileSystemStorage = fileSystemStorage;
+		this.configurationDocumentCache = configurationDocumentCache;
 	}
 
 	public List<NonCanvasComponentDTO> getNonCanvasComponents(String configurationPath) {
@@ -72,8 +72,10 @@ public class NonCanvasComponentService {
 	}
 
 	private List<NonCanvasComponentDTO> writeAndList(String configurationPath, Document configurationDocument) {
-		writeConfigurationDocument(configurationPath, configurationDocument);
-		return toDataTransferObjects(configurationDocument);
+		Path absolutePath = writeConfigurationDocument(configurationPath, configurationDocument);
+		List<NonCanvasComponentDTO> components = toDataTransferObjects(configurationDocument);
+		configurationDocumentCache.update(absolutePath, configurationDocument);
+		return components;
 	}
 
 	private List<NonCanvasComponentDTO> toDataTransferObjects(Document configurationDocument) {
@@ -95,20 +97,19 @@ public class NonCanvasComponentService {
 		Path absolutePath = resolveExistingConfiguration(configurationPath);
 
 		try {
-			String content = fileSystemStorage.readFile(absolutePath.toString());
-			String repairedContent = XmlConfigurationUtils.repairFlowNamespace(content);
-			return XmlSecurityUtils.createSecureDocumentBuilder().parse(new InputSource(new StringReader(repairedContent)));
+			return configurationDocumentCache.read(absolutePath);
 		} catch (IOException | ParserConfigurationException | SAXException exception) {
 			throw new ApiException("Failed to read configuration: " + exception.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
 		}
 	}
 
-	private void writeConfigurationDocument(String configurationPath, Document configurationDocument) {
+	private Path writeConfigurationDocument(String configurationPath, Document configurationDocument) {
 		Path absolutePath = resolveExistingConfiguration(configurationPath);
 
 		try {
 			String updatedContent = XmlConfigurationUtils.convertNodeToString(configurationDocument);
 			fileSystemStorage.writeFile(absolutePath.toString(), updatedContent);
+			return absolutePath;
 		} catch (TransformerException | IOException exception) {
 			throw new ApiException("Failed to write configuration: " + exception.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
 		}
@@ -5,9 +5,11 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
@@ -21,6 +23,7 @@ import org.eclipse.jgit.transport.CredentialsProvider;
 import org.frankframework.flow.exception.ApiException;
 import org.frankframework.flow.filesystem.FileSystemStorage;
 import org.frankframework.flow.filesystem.FilesystemEntry;
+import org.frankframework.flow.filesystem.ProjectScanner;
 import org.frankframework.flow.git.GitCredentialHelper;
 import org.frankframework.flow.git.GitService;
 import org.frankframework.flow.projectsettings.FilterType;
@@ -39,12 +42,30 @@ import org.springframework.web.multipart.MultipartFile;
 public class ConfigurationProjectService {
 	private static final long BYTES_PER_MB = 1024L * 1024;
 	private static final int IMPORT_BUFFER_SIZE = 8192;
+	private static final long RACY_MODIFICATION_WINDOW_MS = 2_000L;
+	private static final long MISSING_PROJECT_TTL_MS = 5_000L;
+	private static final int MAX_MISSING_PROJECTS = 1_000;
+
+	private static final ProjectScanner.Visitor<Void> CONFIGURATION_FILES_ONLY = new ProjectScanner.Visitor<>() {
+		@Override
+		public Void visitFile(Path file, BasicFileAttributes attributes) {
+			return null;
+		}
+
+		@Override
+		public Void visitDirectory(Path directory, BasicFileAttributes attributes, List<Void> children) {
+			return null;
+		}
+	};
 
 	private final FileSystemStorage fileSystemStorage;
 	private final RecentProjectsService recentProjectsService;
 
 	private final long maxUncompressedImportBytes;
 	private final Map<String, ConfigurationProject> projectCache = new ConcurrentHashMap<>();
+	private final Map<String, ConfigurationProject> projectIndex = new ConcurrentHashMap<>();
+	private final Map<String, Long> missingProjects = new ConcurrentHashMap<>();
+	private final Map<Path, ConfigurationFileListing> configurationFileListings = new ConcurrentHashMap<>();
 
 	@Autowired
 	public ConfigurationProjectService(FileSystemStorage fileSystemStorage, @Lazy RecentProjectsService recentProjectsService, ImportProperties importProperties) {
@@ -101,17 +122,75 @@ public class ConfigurationProjectService {
 		return foundProjects;
 	}
 
+	/**
+	 * Looks a project up by name in an index of the loaded projects. On a miss only the single directory the project
+	 * could live in is resolved, and names that resolve to nothing are remembered for a short while, so requests
+	 * for unknown projects don't load every project either.
+	 */
 	public ConfigurationProject getProject(String name) throws ApiException {
-		for (ConfigurationProject cached : projectCache.values()) {
-			if (cached.getName().equals(name)) {
-				return cached;
+		if (!isValidProjectName(name)) {
+			throw projectNotFound(name);
+		}
+
+		String key = toProjectKey(name);
+		ConfigurationProject indexed = projectIndex.get(key);
+		if (indexed != null) {
+			return indexed;
+		}
+
+		Long missingSince = missingProjects.get(key);
+		if (missingSince != null && System.currentTimeMillis() - missingSince < MISSING_PROJECT_TTL_MS) {
+			throw projectNotFound(name);
+		}
+
+		ConfigurationProject configurationProject = findProject(name);
+		if (configurationProject == null) {
+			if (missingProjects.size() >= MAX_MISSING_PROJECTS) {
+				missingProjects.clear();
 			}
+			missingProjects.put(key, System.currentTimeMillis());
+			throw projectNotFound(name);
 		}
+		return configurationProject;
+	}
 
-		return getProjects().stream()
-				.filter(project -> project.getName().equals(name))
-				.findFirst()
-				.orElseThrow(() -> new ApiException("Project \"" + name +"\" not found", HttpStatus.NOT_FOUND));
+	private ConfigurationProject findProject(String name) {
+		if (!fileSystemStorage.isLocalEnvironment()) {
+			// Cloud projects are the directories directly in the workspace root
+			try {
+				return Files.isDirectory(fileSystemStorage.toAbsolutePath(name)) ? loadProjectCached(name) : null;
+			} catch (Exception _) {
+				return null;
+			}
+		}
+
+		for (RecentProject recent : recentProjectsService.getRecentProjects()) {
+			try {
+				Path fileName = Path.of(recent.rootPath()).getFileName();
+				if (fileName != null && fileName.toString().equals(name)) {
+					return loadProjectCached(recent.rootPath());
+				}
+			} catch (Exception _) {
+				log.debug("Recent project is no longer valid: {}", recent.rootPath());
+			}
+		}
+		return null;
+	}
+
+	private boolean isValidProjectName(String name) {
+		return name != null && !name.isBlank() && !name.contains("/") && !name.contains("\\") && !name.equals(".") && !name.equals("..");
+	}
+
+	/**
+	 * Local project names are global, cloud project names are only unique within the workspace of a session, so there
+	 * the key is the location of the project in that workspace.
+	 */
+	private String toProjectKey(String name) {
+		return fileSystemStorage.isLocalEnvironment() ? name : fileSystemStorage.toAbsolutePath(name).toString();
+	}
+
+	private ApiException projectNotFound(String name) {
+		return new ApiException("Project \"" + name +"\" not found", HttpStatus.NOT_FOUND);
 	}
 
 	public ConfigurationProject createProjectOnDisk(ConfigurationProjectCreateDTO projectCreate) throws IOException {
@@ -179,10 +258,15 @@ public class ConfigurationProjectService {
 
 	public void invalidateCache() {
 		projectCache.clear();
+		projectIndex.clear();
+		missingProjects.clear();
+		configurationFileListings.clear();
 	}
 
 	public void invalidateProject(String projectName) {
 		projectCache.entrySet().removeIf(entry -> entry.getValue().getName().equals(projectName));
+		projectIndex.values().removeIf(project -> project.getName().equals(projectName));
+		configurationFileListings.keySet().removeIf(path -> String.valueOf(path.getFileName()).equals(projectName));
 	}
 
 	public ConfigurationProject enableFilter(String projectName, String type) throws ApiException {
@@ -305,24 +389,77 @@ public class ConfigurationProjectService {
 		);
 	}
 
+	/**
+	 * Returns the configuration files of a project. The list is cached together with the modification times of the
+	 * directories it was read from: adding, removing or renaming a file changes the modification time of its
+	 * directory, so a cached list stays valid as long as none of those times changed and no file has to be listed.
+	 */
 	private List<String> getConfigurationFilesDynamically(String projectRoot) {
-		Path absolutePath = fileSystemStorage.toAbsolutePath(projectRoot);
+		Path absolutePath = fileSystemStorage.toAbsolutePath(projectRoot).toAbsolutePath().normalize();
+
+		ConfigurationFileListing cached = configurationFileListings.get(absolutePath);
+		if (cached != null && cached.isCurrent()) {
+			return cached.filepaths();
+		}
 
 		if (!Files.exists(absolutePath) || !Files.isDirectory(absolutePath)) {
+			configurationFileListings.remove(absolutePath);
 			return List.of();
 		}
 
-		try (Stream<Path> stream = Files.walk(absolutePath)) {
-			return stream.filter(Files::isRegularFile)
-					.filter(path -> path.toString().toLowerCase().endsWith(".xml"))
-					.map(path -> fileSystemStorage.toRelativePath(path.toString()))
-					.toList();
+		try {
+			return scanWithListing(absolutePath, CONFIGURATION_FILES_ONLY, 1).listing().filepaths();
 		} catch (IOException exception) {
 			log.error("Failed to read configurations from disk for project {}", projectRoot, exception);
+			configurationFileListings.remove(absolutePath);
 			return List.of();
 		}
 	}
 
+	/**
+	 * Scans a project directory for the given visitor, and lists its configuration files along the way, so a later
+	 * {@link #toDto(ConfigurationProject)} doesn't have to walk the project again as long as its directories are
+	 * unchanged. Loading a project therefore walks it once for both its file tree and its configuration files.
+	 *
+	 * @see ProjectScanner#scan(Path, ProjectScanner.Visitor, int)
+	 */
+	public <T> T scanProject(Path projectPath, ProjectScanner.Visitor<T> visitor, int parallelism) throws IOException {
+		return scanWithListing(projectPath.toAbsolutePath().normalize(), visitor, parallelism).result();
+	}
+
+	private <T> ListingScan<T> scanWithListing(Path absolutePath, ProjectScanner.Visitor<T> visitor, int parallelism) throws IOException {
+		// A parallel scan visits entries concurrently, so the configuration files are sorted once it's done
+		Set<String> configurationFiles = ConcurrentHashMap.newKeySet();
+		Map<Path, Long> directoryModificationTimes = new ConcurrentHashMap<>();
+		T result = ProjectScanner.scan(absolutePath, new ProjectScanner.Visitor<T>() {
+			@Override
+			public T visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+				if (attributes.isRegularFile() && file.getFileName().toString().toLowerCase().endsWith(".xml")) {
+					configurationFiles.add(fileSystemStorage.toRelativePath(file.toString()));
+				}
+				return visitor.visitFile(file, attributes);
+			}
+
+			@Override
+			public T visitDirectory(Path directory, BasicFileAttributes attributes, List<T> children) throws IOException {
+				directoryModificationTimes.put(directory, attributes.lastModifiedTime().toMillis());
+				return visitor.visitDirectory(directory, attributes, children);
+			}
+		}, parallelism);
+
+		List<String> filepaths = configurationFiles.stream().sorted().toList();
+		ConfigurationFileListing listing = new ConfigurationFileListing(filepaths, Map.copyOf(directoryModificationTimes));
+		// A directory changed within the timestamp granularity of the file system could change again without its
+		// modification time moving, so such a listing is not trusted until it is read again later
+		long newestModification = directoryModificationTimes.values().stream().mapToLong(Long::longValue).max().orElse(0);
+		if (System.currentTimeMillis() - newestModification > RACY_MODIFICATION_WINDOW_MS) {
+			configurationFileListings.put(absolutePath, listing);
+		} else {
+			configurationFileListings.remove(absolutePath);
+		}
+		return new ListingScan<>(result, listing);
+	}
+
 	private FilterType parseFilterType(String type) {
 		try {
 			return FilterType.valueOf(type.toUpperCase());
@@ -344,6 +481,10 @@ public class ConfigurationProjectService {
 		ConfigurationProject configurationProject = loadProjectFromStorage(path);
 		String cacheKey = fileSystemStorage.toAbsolutePath(path).toString();
 		projectCache.put(cacheKey, configurationProject);
+
+		String projectKey = toProjectKey(configurationProject.getName());
+		projectIndex.put(projectKey, configurationProject);
+		missingProjects.remove(projectKey);
 		return configurationProject;
 	}
 
@@ -358,4 +499,22 @@ public class ConfigurationProjectService {
 
 		return new ConfigurationProject(absolutePath.getFileName().toString(), absolutePath.toString());
 	}
+
+	private record ListingScan<T>(T result, ConfigurationFileListing listing) {}
+
+	private record ConfigurationFileListing(List<String> filepaths, Map<Path, Long> directoryModificationTimes) {
+
+		private boolean isCurrent() {
+			for (Map.Entry<Path, Long> directory : directoryModificationTimes.entrySet()) {
+				try {
+					if (Files.getLastModifiedTime(directory.getKey()).toMillis() != directory.getValue()) {
+						return false;
+					}
+				} catch (IOException _) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
 }
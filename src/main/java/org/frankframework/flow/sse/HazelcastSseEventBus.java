@@ -0,0 +1,239 @@
+package org.frankframework.flow.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.ReliableTopicConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.flakeidgen.FlakeIdGenerator;
+import com.hazelcast.map.IMap;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.TopicOverloadPolicy;
+import jakarta.annotation.PreDestroy;
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * Relays events to all Flow nodes through a Hazelcast reliable topic, so clients get the events of a channel whichever
+ * node they are connected to. Events are delivered on the publishing node right away and on the other nodes when the
+ * topic hands them over. When the topic falls behind, its oldest events are dropped, like those of a slow subscriber.
+ * <p>
+ * Claims on channels are leases in a distributed map, which are renewed each time they are claimed again, so a node
+ * that goes down loses its channels after {@link SseRelayProperties#leaseTime()}. The same entry holds the epoch and
+ * sequence of the channel and the nodes that follow it, so whichever node publishes continues the sequence, and a new
+ * epoch starts only once no node follows the channel anymore.
+ */
+@Log4j2
+@Service
+@ConditionalOnProperty(prefix = "frankflow.sse.relay", name = "type", havingValue = "hazelcast")
+public class HazelcastSseEventBus implements SseEventBus {
+
+	static final String TOPIC_NAME = "frank-flow-sse-events";
+	static final String CHANNELS_MAP_NAME = "frank-flow-sse-channels";
+	static final String EPOCHS_NAME = "frank-flow-sse-epochs";
+
+	private final HazelcastInstance hazelcastInstance;
+	private final ObjectMapper objectMapper;
+	private final long leaseTimeMs;
+	private final UUID localMember;
+	private final ITopic<SseRelayMessage> topic;
+	private final IMap<String, ChannelClaim> channels;
+	private final FlakeIdGenerator epochs;
+	private volatile Delivery localDelivery;
+
+	@Autowired
+	public HazelcastSseEventBus(SseRelayProperties properties, ObjectMapper objectMapper) {
+		this(Hazelcast.newHazelcastInstance(createConfig(properties)), objectMapper, properties);
+	}
+
+	HazelcastSseEventBus(HazelcastInstance hazelcastInstance, ObjectMapper objectMapper, SseRelayProperties properties) {
+		this.hazelcastInstance = hazelcastInstance;
+		this.objectMapper = objectMapper;
+		this.leaseTimeMs = properties.leaseTime().toMillis();
+		this.localMember = hazelcastInstance.getCluster().getLocalMember().getUuid();
+		this.topic = hazelcastInstance.getReliableTopic(TOPIC_NAME);
+		this.channels = hazelcastInstance.getMap(CHANNELS_MAP_NAME);
+		this.epochs = hazelcastInstance.getFlakeIdGenerator(EPOCHS_NAME);
+	}
+
+	/**
+	 * The Flow nodes form a cluster of their own. Without configured members they are discovered the way Hazelcast
+	 * does by default.
+	 */
+	static Config createConfig(SseRelayProperties properties) {
+		Config config = new Config();
+		config.setClusterName(properties.clusterName());
+		config.setProperty("hazelcast.phone.home.enabled", "false");
+		config.getNetworkConfig().setPort(properties.port()).setPortAutoIncrement(true);
+		if (!properties.members().isEmpty()) {
+			JoinConfig join = config.getNetworkConfig().getJoin();
+			join.getAutoDetectionConfig().setEnabled(false);
+			join.getMulticastConfig().setEnabled(false);
+			join.getTcpIpConfig().setEnabled(true).setMembers(properties.members());
+		}
+		config.addReliableTopicConfig(new ReliableTopicConfig(TOPIC_NAME).setTopicOverloadPolicy(TopicOverloadPolicy.DISCARD_OLDEST));
+		return config;
+	}
+
+	@PreDestroy
+	public void stop() {
+		hazelcastInstance.shutdown();
+	}
+
+	@Override
+	public void register(Delivery delivery) {
+		topic.addMessageListener(message -> {
+			SseRelayMessage relayed = message.getMessageObject();
+			if (!localMember.equals(relayed.origin())) {
+				delivery.deliver(relayed.channelId(), relayed.toEvent());
+			}
+		});
+		this.localDelivery = delivery;
+	}
+
+	@Override
+	public void publish(String channelId, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+		localDelivery.deliver(channelId, event);
+		try {
+			topic.publish(SseRelayMessage.of(localMember, channelId, event, objectMapper));
+		} catch (JsonProcessingException | RuntimeException exception) {
+			log.warn("Could not relay an event of channel {} to the other nodes", channelId, exception);
+		}
+	}
+
+	@Override
+	public SseEventId currentEventId(String channelId) {
+		return locked(channelId, () -> {
+			ChannelClaim claim = channels.get(channelId);
+			ChannelClaim followed = claim != null ? claim.followedBy(localMember) : ChannelClaim.start(epochs.newId(), localMember);
+			channels.set(channelId, followed);
+			return followed.eventId();
+		});
+	}
+
+	@Override
+	public SseEventId claimNextEventId(String channelId) {
+		return locked(channelId, () -> {
+			long now = hazelcastInstance.getCluster().getClusterTime();
+			ChannelClaim claim = channels.get(channelId);
+			if (claim == null) {
+				claim = ChannelClaim.start(epochs.newId(), localMember);
+			} else if (claim.isClaimedByOtherThan(localMember, now)) {
+				return null;
+			}
+			ChannelClaim claimed = claim.followedBy(localMember).next().publishedBy(localMember, now + leaseTimeMs);
+			channels.set(channelId, claimed);
+			return claimed.eventId();
+		});
+	}
+
+	@Override
+	public void skipEventId(String channelId) {
+		locked(channelId, () -> {
+			ChannelClaim claim = channels.get(channelId);
+			if (claim != null && !claim.isClaimedByOtherThan(localMember, hazelcastInstance.getCluster().getClusterTime())) {
+				channels.set(channelId, claim.next());
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public void releaseChannel(String channelId) {
+		locked(channelId, () -> {
+			ChannelClaim claim = channels.get(channelId);
+			if (claim != null && localMember.equals(claim.publisher())) {
+				channels.set(channelId, claim.publishedBy(null, 0));
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Members that left the cluster without unfollowing are dropped here as well, so their channels start over too.
+	 */
+	@Override
+	public void unfollowChannel(String channelId) {
+		locked(channelId, () -> {
+			ChannelClaim claim = channels.get(channelId);
+			if (claim == null) {
+				return null;
+			}
+			Set<UUID> followers = hazelcastInstance.getCluster().getMembers().stream()
+					.map(Member::getUuid)
+					.filter(member -> !member.equals(localMember) && claim.followers().contains(member))
+					.collect(Collectors.toSet());
+			if (followers.isEmpty()) {
+				channels.delete(channelId);
+			} else {
+				channels.set(channelId, claim.withFollowers(followers));
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Claims are read and written under the lock of their key, so nodes don't overwrite each other's updates.
+	 */
+	private <T> T locked(String channelId, Supplier<T> action) {
+		channels.lock(channelId);
+		try {
+			return action.get();
+		} finally {
+			channels.unlock(channelId);
+		}
+	}
+
+	/**
+	 * The state of a channel in the cluster.
+	 *
+	 * @param publisher      the member that publishes the events of the channel, or {@code null} when none does
+	 * @param leaseExpiresAt the cluster time at which other members may claim the channel, unless the publisher claims
+	 *                       it again before
+	 * @param followers      the members that follow the channel
+	 */
+	record ChannelClaim(UUID publisher, long leaseExpiresAt, long epoch, long sequence, Set<UUID> followers) implements Serializable {
+
+		static ChannelClaim start(long epoch, UUID follower) {
+			return new ChannelClaim(null, 0, epoch, 0, Set.of(follower));
+		}
+
+		SseEventId eventId() {
+			return new SseEventId(epoch, sequence);
+		}
+
+		boolean isClaimedByOtherThan(UUID member, long now) {
+			return publisher != null && !publisher.equals(member) && leaseExpiresAt > now;
+		}
+
+		ChannelClaim next() {
+			return new ChannelClaim(publisher, leaseExpiresAt, epoch, sequence + 1, followers);
+		}
+
+		ChannelClaim publishedBy(UUID member, long expiresAt) {
+			return new ChannelClaim(member, expiresAt, epoch, sequence, followers);
+		}
+
+		ChannelClaim followedBy(UUID member) {
+			Set<UUID> updated = new HashSet<>(followers);
+			updated.add(member);
+			return withFollowers(updated);
+		}
+
+		ChannelClaim withFollowers(Set<UUID> members) {
+			return new ChannelClaim(publisher, leaseExpiresAt, epoch, sequence, Set.copyOf(members));
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package org.frankframework.flow.sse;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * Delivers events on this node only, for a single node or nodes behind a load balancer with sticky sessions.
+ */
+@Service
+@ConditionalOnProperty(prefix = "frankflow.sse.relay", name = "type", havingValue = "local", matchIfMissing = true)
+public class LocalSseEventBus implements SseEventBus {
+
+	private final Map<String, SseEventId> eventIds = new ConcurrentHashMap<>();
+	// Epochs start from the clock, so ids handed out before a restart don't match those after it
+	private final AtomicLong epochs = new AtomicLong(System.currentTimeMillis());
+	private Delivery delivery;
+
+	@Override
+	public void register(Delivery delivery) {
+		this.delivery = delivery;
+	}
+
+	@Override
+	public void publish(String channelId, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+		delivery.deliver(channelId, event);
+	}
+
+	@Override
+	public SseEventId currentEventId(String channelId) {
+		return eventIds.computeIfAbsent(channelId, _ -> new SseEventId(epochs.incrementAndGet(), 0));
+	}
+
+	@Override
+	public SseEventId claimNextEventId(String channelId) {
+		return eventIds.compute(channelId, (_, current) -> current != null ? current.next() : new SseEventId(epochs.incrementAndGet(), 1));
+	}
+
+	@Override
+	public void skipEventId(String channelId) {
+		claimNextEventId(channelId);
+	}
+
+	@Override
+	public void releaseChannel(String channelId) {
+		// Nothing to release without other nodes
+	}
+
+	@Override
+	public void unfollowChannel(String channelId) {
+		eventIds.remove(channelId);
+	}
+}
@@ -1,50 +1,298 @@
 package org.frankframework.flow.sse;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.frankframework.flow.exception.ApiException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+/**
+ * Fans events out to the subscribers of a channel, on every node that the {@link SseEventBus} reaches. Delivering an
+ * event only queues it for every subscriber, see
+ * {@link SseSubscriber}, and returns right away; each subscriber is sent its events on a virtual thread of its own.
+ * Idle subscribers get a heartbeat every {@link SseProperties#heartbeatInterval()}, and subscribers that take longer
+ * than {@link SseProperties#sendTimeout()} to accept an event are disconnected.
+ * <p>
+ * Channels exist as long as they have subscribers. Subscriptions beyond the limits per channel and per session are
+ * refused with {@code 429 Too Many Requests}, and connections are closed after
+ * {@link SseProperties#connectionTimeout()}, after which browsers reconnect.
+ * <p>
+ * The number of subscribers, the number of queued events and the number of events dropped for slow subscribers are
+ * published as metrics.
+ */
+@Log4j2
 @Service
 public class SseChannelService {
 
-	private final Map<String, List<SseEmitter>> channelEmitters = new ConcurrentHashMap<>();
+	private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
 
-	public SseEmitter subscribe(String channelId) {
-		SseEmitter emitter = new SseEmitter(0L);
-		channelEmitters.computeIfAbsent(channelId, _ -> new CopyOnWriteArrayList<>()).add(emitter);
-		Runnable cleanup = () -> removeFromChannel(channelId, emitter);
+	private final SseProperties properties;
+	private final SseEventBus eventBus;
+	private final Executor sendExecutor;
+	private final Counter droppedEvents;
+	private final Counter stalledSubscribers;
+	private final Counter rejectedSubscriptions;
+
+	private final Map<String, List<SseSubscriber>> channelSubscribers = new ConcurrentHashMap<>();
+	private final Map<String, Runnable> channelClosedListeners = new ConcurrentHashMap<>();
+	private final Map<String, Integer> sessionSubscriptions = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(
+			Thread.ofVirtual().name("sse-heartbeat", 0).factory()
+	);
+
+	@Autowired
+	public SseChannelService(SseProperties properties, SseEventBus eventBus, MeterRegistry meterRegistry) {
+		this(properties, eventBus, meterRegistry, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-sender-", 0).factory()));
+	}
+
+	SseChannelService(SseProperties properties, SseEventBus eventBus, MeterRegistry meterRegistry, Executor sendExecutor) {
+		this.properties = properties;
+		this.eventBus = eventBus;
+		this.sendExecutor = sendExecutor;
+		this.droppedEvents = Counter.builder("flow.sse.events.dropped")
+				.description("Events dropped because a subscriber could not keep up")
+				.register(meterRegistry);
+		this.stalledSubscribers = Counter.builder("flow.sse.subscribers.stalled")
+				.description("Subscribers disconnected because sending an event to them timed out")
+				.register(meterRegistry);
+		this.rejectedSubscriptions = Counter.builder("flow.sse.subscriptions.rejected")
+				.description("Subscriptions refused because a channel or session had too many subscribers")
+				.register(meterRegistry);
+		Gauge.builder("flow.sse.subscribers", this, SseChannelService::getSubscriberCount)
+				.description("Open server-sent event connections")
+				.register(meterRegistry);
+		Gauge.builder("flow.sse.events.queued", this, SseChannelService::getQueuedEventCount)
+				.description("Events waiting to be sent to subscribers")
+				.register(meterRegistry);
+		eventBus.register(this::deliver);
+	}
+
+	@PostConstruct
+	public void start() {
+		long interval = properties.heartbeatInterval().toMillis();
+		heartbeatExecutor.scheduleWithFixedDelay(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		heartbeatExecutor.shutdownNow();
+		if (sendExecutor instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+
+	public SseEmitter subscribe(String channelId, SseClient client) {
+		return subscribe(channelId, client, null, null);
+	}
+
+	/**
+	 * Subscribes to a channel.
+	 *
+	 * @param onChannelClosed runs once the channel has no subscribers left, so whatever produces its events can stop;
+	 *                        a later subscription replaces the listener of the channel
+	 * @param firstEvent      an event for this subscriber only, sent before any broadcast, or {@code null}
+	 * @throws ApiException when the channel or the session of the client has too many subscribers
+	 */
+	public SseEmitter subscribe(String channelId, SseClient client, Runnable onChannelClosed, SseEmitter.SseEventBuilder firstEvent) {
+		reserveSessionSubscription(client.sessionId());
+		SseEmitter emitter = new SseEmitter(properties.connectionTimeout().toMillis());
+		SseSubscriber subscriber = new SseSubscriber(emitter, client.sessionId(), properties.queueCapacity(), sendExecutor,
+				failed -> removeFromChannel(channelId, List.of(failed)));
+		if (firstEvent != null) {
+			subscriber.offer(firstEvent.build());
+		}
+
+		try {
+			channelSubscribers.compute(channelId, (_, subscribers) -> {
+				List<SseSubscriber> updated = subscribers != null ? subscribers : new CopyOnWriteArrayList<>();
+				if (updated.size() >= properties.maxSubscribersPerChannel()) {
+					throw tooManySubscribers("Too many subscribers for this channel");
+				}
+				updated.add(subscriber);
+				if (onChannelClosed != null) {
+					channelClosedListeners.put(channelId, onChannelClosed);
+				}
+				return updated;
+			});
+		} catch (ApiException exception) {
+			subscriber.close();
+			releaseSessionSubscription(client.sessionId());
+			throw exception;
+		}
+
+		Runnable cleanup = () -> removeFromChannel(channelId, List.of(subscriber));
 		emitter.onCompletion(cleanup);
 		emitter.onTimeout(cleanup);
 		emitter.onError(_ -> cleanup.run());
+		subscriber.start();
 		return emitter;
 	}
 
+	/**
+	 * Sends the event to the subscribers of the channel on all nodes, without waiting for any of them.
+	 */
 	public void broadcast(String channelId, SseEmitter.SseEventBuilder event) {
-		List<SseEmitter> emitters = channelEmitters.get(channelId);
-		if (emitters == null || emitters.isEmpty()) {
+		// Built once, as building the same event again would add to its content
+		eventBus.publish(channelId, event.build());
+	}
+
+	/**
+	 * @see SseEventBus#currentEventId(String)
+	 */
+	public SseEventId currentEventId(String channelId) {
+		return eventBus.currentEventId(channelId);
+	}
+
+	/**
+	 * @return the id of the event this node publishes next, or {@code null} when another node publishes the events of
+	 * the channel, see {@link SseEventBus#claimNextEventId(String)}
+	 */
+	public SseEventId claimNextEventId(String channelId) {
+		return eventBus.claimNextEventId(channelId);
+	}
+
+	/**
+	 * @see SseEventBus#skipEventId(String)
+	 */
+	public void skipEventId(String channelId) {
+		eventBus.skipEventId(channelId);
+	}
+
+	/**
+	 * @see SseEventBus#unfollowChannel(String)
+	 */
+	public void unfollowChannel(String channelId) {
+		eventBus.unfollowChannel(channelId);
+	}
+
+	/**
+	 * Queues the event for every subscriber of the channel on this node.
+	 */
+	private void deliver(String channelId, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+		List<SseSubscriber> subscribers = channelSubscribers.get(channelId);
+		if (subscribers == null || subscribers.isEmpty()) {
 			return;
 		}
 
-		List<SseEmitter> dead = new ArrayList<>();
-		for (SseEmitter emitter : emitters) {
-			try {
-				emitter.send(event);
-			} catch (Exception _) {
-				dead.add(emitter);
+		for (SseSubscriber subscriber : subscribers) {
+			int dropped = subscriber.offer(data);
+			if (dropped > 0) {
+				droppedEvents.increment(dropped);
 			}
 		}
+	}
+
+	public boolean hasSubscribers(String channelId) {
+		return channelSubscribers.containsKey(channelId);
+	}
+
+	int getSubscriberCount() {
+		return channelSubscribers.values().stream().mapToInt(List::size).sum();
+	}
+
+	int getQueuedEventCount() {
+		return channelSubscribers.values().stream()
+				.flatMap(List::stream)
+				.mapToInt(SseSubscriber::getQueueSize)
+				.sum();
+	}
+
+	/**
+	 * Sends a heartbeat to idle subscribers and disconnects stalled ones. Completing the emitter of a stalled
+	 * subscriber waits for the send that hangs, so that happens on a thread of its own.
+	 */
+	void sendHeartbeats() {
+		long now = System.nanoTime();
+		long timeout = properties.sendTimeout().toNanos();
+		channelSubscribers.forEach((channelId, subscribers) -> {
+			List<SseSubscriber> stalled = new ArrayList<>();
+			for (SseSubscriber subscriber : subscribers) {
+				if (subscriber.isStalled(now, timeout)) {
+					stalled.add(subscriber);
+				} else {
+					subscriber.offerIfIdle(HEARTBEAT);
+				}
+			}
 
-		emitters.removeAll(dead);
+			if (!stalled.isEmpty()) {
+				log.debug("Disconnecting {} stalled subscribers of channel {}", stalled.size(), channelId);
+				stalledSubscribers.increment(stalled.size());
+				removeFromChannel(channelId, stalled);
+				for (SseSubscriber subscriber : stalled) {
+					sendExecutor.execute(() -> subscriber.getEmitter().completeWithError(new IOException("Sending an event timed out")));
+				}
+			}
+		});
 	}
 
-	private void removeFromChannel(String channelId, SseEmitter emitter) {
-		List<SseEmitter> list = channelEmitters.get(channelId);
-		if (list != null) {
-			list.remove(emitter);
+	int getChannelCount() {
+		return channelSubscribers.size();
+	}
+
+	private void reserveSessionSubscription(String sessionId) {
+		if (sessionId == null) {
+			return;
+		}
+		sessionSubscriptions.compute(sessionId, (_, count) -> {
+			int current = count != null ? count : 0;
+			if (current >= properties.maxSubscribersPerSession()) {
+				throw tooManySubscribers("Too many subscriptions for this session");
+			}
+			return current + 1;
+		});
+	}
+
+	private void releaseSessionSubscription(String sessionId) {
+		if (sessionId != null) {
+			sessionSubscriptions.computeIfPresent(sessionId, (_, count) -> count > 1 ? count - 1 : null);
+		}
+	}
+
+	private ApiException tooManySubscribers(String message) {
+		rejectedSubscriptions.increment();
+		return new ApiException(message, HttpStatus.TOO_MANY_REQUESTS);
+	}
+
+	/**
+	 * Channels are removed together with their last subscriber, atomically with respect to new subscriptions.
+	 */
+	private void removeFromChannel(String channelId, List<SseSubscriber> subscribers) {
+		for (SseSubscriber subscriber : subscribers) {
+			if (subscriber.close()) {
+				releaseSessionSubscription(subscriber.getSessionId());
+			}
+		}
+		List<SseSubscriber> remaining = channelSubscribers.computeIfPresent(channelId, (_, list) -> {
+			list.removeAll(subscribers);
+			return list.isEmpty() ? null : list;
+		});
+
+		if (remaining == null) {
+			eventBus.releaseChannel(channelId);
+			Runnable listener = channelClosedListeners.remove(channelId);
+			if (listener != null) {
+				listener.run();
+			}
 		}
 	}
 }
@@ -0,0 +1,13 @@
+package org.frankframework.flow.sse;
+
+/**
+ * Who subscribes to a channel.
+ *
+ * @param sessionId   the HTTP session of the subscriber, to limit the number of subscriptions per session, or
+ *                    {@code null} when it has none
+ * @param lastEventId the {@code Last-Event-ID} sent by a client that reconnects, or {@code null} on a first connect
+ */
+public record SseClient(String sessionId, String lastEventId) {
+
+	public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+}
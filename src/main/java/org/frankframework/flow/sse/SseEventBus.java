@@ -0,0 +1,60 @@
+package org.frankframework.flow.sse;
+
+import java.util.Set;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * Carries the events of {@link SseChannelService} to every node that has subscribers, each of which fans them out to
+ * its own subscribers. Which implementation is used depends on {@code frankflow.sse.relay.type}.
+ * <p>
+ * When several nodes follow the same channel, such as a workspace on shared storage, only one of them should publish
+ * its events, or clients would get every event once per node. That node is the one that {@link
+ * #claimNextEventId(String) claimed} the channel. The ids of the events are kept with the claim, so they keep
+ * increasing when another node takes over.
+ */
+public interface SseEventBus {
+
+	/**
+	 * Sets where events are delivered on this node, whichever node published them. Called once, before anything is
+	 * published.
+	 */
+	void register(Delivery delivery);
+
+	void publish(String channelId, Set<ResponseBodyEmitter.DataWithMediaType> event);
+
+	/**
+	 * Marks the channel as followed by this node until {@link #unfollowChannel(String)}.
+	 *
+	 * @return the id of the latest event of the channel, in a new epoch when no node followed it
+	 */
+	SseEventId currentEventId(String channelId);
+
+	/**
+	 * Claims the channel for this node, as long as no other node did, and advances its sequence.
+	 *
+	 * @return the id of the event this node publishes next, or {@code null} when another node publishes the events of
+	 * the channel
+	 */
+	SseEventId claimNextEventId(String channelId);
+
+	/**
+	 * Advances the sequence of the channel for an event that nobody received, unless another node publishes the events
+	 * of the channel, so that clients that reconnect find they missed it.
+	 */
+	void skipEventId(String channelId);
+
+	/**
+	 * Lets other nodes claim the channel, once this node no longer has subscribers for it.
+	 */
+	void releaseChannel(String channelId);
+
+	/**
+	 * Stops following the channel on this node. Once no node follows it, its sequence starts over in a new epoch.
+	 */
+	void unfollowChannel(String channelId);
+
+	@FunctionalInterface
+	interface Delivery {
+		void deliver(String channelId, Set<ResponseBodyEmitter.DataWithMediaType> event);
+	}
+}
@@ -0,0 +1,21 @@
+package org.frankframework.flow.sse;
+
+/**
+ * The id of an event of a channel. Sequence numbers increase by one per event and start over once no node follows the
+ * channel anymore; the epoch tells those runs apart, so a client that reconnects can't mistake an id of an earlier
+ * run for a current one.
+ */
+public record SseEventId(long epoch, long sequence) {
+
+	public SseEventId next() {
+		return new SseEventId(epoch, sequence + 1);
+	}
+
+	/**
+	 * @return the id as sent to clients, which send it back as {@code Last-Event-ID} when they reconnect
+	 */
+	@Override
+	public String toString() {
+		return epoch + "-" + sequence;
+	}
+}
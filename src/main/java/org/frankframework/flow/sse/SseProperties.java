@@ -0,0 +1,48 @@
+package org.frankframework.flow.sse;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param queueCapacity            the number of events kept for a subscriber that can't keep up; the oldest events are
+ *                                 dropped beyond it, which clients notice as a gap in the event ids
+ * @param heartbeatInterval        how often idle subscribers get a comment, which keeps proxies from closing the
+ *                                 connection and reveals connections that died
+ * @param sendTimeout              how long sending a single event may take before the subscriber is disconnected
+ * @param connectionTimeout        how long a connection stays open; browsers then reconnect on their own, passing the
+ *                                 id of the last event they got, so connections of clients that vanished don't linger
+ * @param maxSubscribersPerChannel the number of subscribers a single channel accepts
+ * @param maxSubscribersPerSession the number of subscriptions a single HTTP session may have open, for all channels
+ *                                 together
+ */
+@ConfigurationProperties(prefix = "frankflow.sse")
+public record SseProperties(Integer queueCapacity, Duration heartbeatInterval, Duration sendTimeout, Duration connectionTimeout,
+		Integer maxSubscribersPerChannel, Integer maxSubscribersPerSession) {
+	private static final int DEFAULT_QUEUE_CAPACITY = 64;
+	private static final Duration DEFAULT_HEARTBEAT_INTERVAL = Duration.ofSeconds(30);
+	private static final Duration DEFAULT_SEND_TIMEOUT = Duration.ofSeconds(60);
+	private static final Duration DEFAULT_CONNECTION_TIMEOUT = Duration.ofMinutes(30);
+	private static final int DEFAULT_MAX_SUBSCRIBERS_PER_CHANNEL = 256;
+	private static final int DEFAULT_MAX_SUBSCRIBERS_PER_SESSION = 32;
+
+	public SseProperties {
+		if (queueCapacity == null) {
+			queueCapacity = DEFAULT_QUEUE_CAPACITY;
+		}
+		if (heartbeatInterval == null) {
+			heartbeatInterval = DEFAULT_HEARTBEAT_INTERVAL;
+		}
+		if (sendTimeout == null) {
+			sendTimeout = DEFAULT_SEND_TIMEOUT;
+		}
+		if (connectionTimeout == null) {
+			connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
+		}
+		if (maxSubscribersPerChannel == null) {
+			maxSubscribersPerChannel = DEFAULT_MAX_SUBSCRIBERS_PER_CHANNEL;
+		}
+		if (maxSubscribersPerSession == null) {
+			maxSubscribersPerSession = DEFAULT_MAX_SUBSCRIBERS_PER_SESSION;
+		}
+	}
+}
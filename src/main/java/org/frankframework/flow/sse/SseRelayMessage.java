@@ -0,0 +1,41 @@
+package org.frankframework.flow.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * An event on its way to other nodes. Its data is converted to text up front, JSON for anything but text, which is
+ * what the message converters would send to clients anyway.
+ *
+ * @param origin the member that published the event, which delivered it locally already
+ */
+record SseRelayMessage(UUID origin, String channelId, List<String> parts) implements Serializable {
+
+	private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+	static SseRelayMessage of(UUID origin, String channelId, Set<ResponseBodyEmitter.DataWithMediaType> event, ObjectMapper objectMapper)
+			throws JsonProcessingException {
+		List<String> parts = new ArrayList<>(event.size());
+		for (ResponseBodyEmitter.DataWithMediaType data : event) {
+			parts.add(data.getData() instanceof String text ? text : objectMapper.writeValueAsString(data.getData()));
+		}
+		return new SseRelayMessage(origin, channelId, List.copyOf(parts));
+	}
+
+	Set<ResponseBodyEmitter.DataWithMediaType> toEvent() {
+		Set<ResponseBodyEmitter.DataWithMediaType> event = new LinkedHashSet<>();
+		for (String part : parts) {
+			event.add(new ResponseBodyEmitter.DataWithMediaType(part, TEXT_PLAIN_UTF8));
+		}
+		return event;
+	}
+}
@@ -0,0 +1,41 @@
+package org.frankframework.flow.sse;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param type        {@code local} to deliver events on this node only, or {@code hazelcast} to relay them to all nodes
+ *                    of a Hazelcast cluster
+ * @param clusterName the name of the Hazelcast cluster of the Flow nodes, which is separate from any cluster of Frank!
+ *                    Framework instances
+ * @param members     the addresses of the other nodes, such as {@code flow-1:5801}; empty to let Hazelcast discover them
+ * @param port        the port of this node's Hazelcast member; the next free port is used when it is taken
+ * @param leaseTime   how long a node that claimed a channel keeps it without publishing; a node that goes down
+ *                    without releasing its channels holds them this long
+ */
+@ConfigurationProperties(prefix = "frankflow.sse.relay")
+public record SseRelayProperties(String type, String clusterName, List<String> members, Integer port, Duration leaseTime) {
+	private static final String DEFAULT_TYPE = "local";
+	private static final String DEFAULT_CLUSTER_NAME = "frank-flow";
+	private static final int DEFAULT_PORT = 5801;
+	private static final Duration DEFAULT_LEASE_TIME = Duration.ofMinutes(1);
+
+	public SseRelayProperties {
+		if (type == null) {
+			type = DEFAULT_TYPE;
+		}
+		if (clusterName == null) {
+			clusterName = DEFAULT_CLUSTER_NAME;
+		}
+		if (members == null) {
+			members = List.of();
+		}
+		if (port == null) {
+			port = DEFAULT_PORT;
+		}
+		if (leaseTime == null) {
+			leaseTime = DEFAULT_LEASE_TIME;
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package org.frankframework.flow.sse;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * An emitter with its own bounded queue of outgoing events. Events are sent by a task that only runs while the queue
+ * has events, so a client that reads slowly, or not at all, holds up nobody but itself. When the queue is full the
+ * oldest event is dropped to make room.
+ * <p>
+ * Nothing is sent before {@link #start()}, so events can be queued for a subscriber before others can broadcast to it.
+ */
+final class SseSubscriber {
+
+	private final SseEmitter emitter;
+	private final String sessionId;
+	private final int queueCapacity;
+	private final Executor sendExecutor;
+	private final Consumer<SseSubscriber> onSendFailed;
+
+	private final Deque<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayDeque<>();
+	private boolean started;
+	private boolean sending;
+	private boolean closed;
+	private volatile long sendingSince;
+
+	/**
+	 * @param onSendFailed runs once when an event could not be sent, after which nothing is sent anymore; it may
+	 *                     {@link #close()} the subscriber itself
+	 */
+	SseSubscriber(SseEmitter emitter, String sessionId, int queueCapacity, Executor sendExecutor, Consumer<SseSubscriber> onSendFailed) {
+		this.emitter = emitter;
+		this.sessionId = sessionId;
+		this.queueCapacity = queueCapacity;
+		this.sendExecutor = sendExecutor;
+		this.onSendFailed = onSendFailed;
+	}
+
+	SseEmitter getEmitter() {
+		return emitter;
+	}
+
+	String getSessionId() {
+		return sessionId;
+	}
+
+	/**
+	 * Starts sending the queued events, and any events queued from now on.
+	 */
+	void start() {
+		synchronized (this) {
+			if (started) {
+				return;
+			}
+			started = true;
+			if (queue.isEmpty() || sending) {
+				return;
+			}
+			sending = true;
+		}
+		sendExecutor.execute(this::sendQueued);
+	}
+
+	/**
+	 * Queues an event, dropping the oldest queued events when the queue is full.
+	 *
+	 * @return the number of events dropped
+	 */
+	int offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+		int dropped = 0;
+		boolean startSending;
+		synchronized (this) {
+			if (closed) {
+				return 0;
+			}
+			while (queue.size() >= queueCapacity) {
+				queue.poll();
+				dropped++;
+			}
+			queue.add(event);
+			startSending = started && !sending;
+			if (startSending) {
+				sending = true;
+			}
+		}
+
+		if (startSending) {
+			sendExecutor.execute(this::sendQueued);
+		}
+		return dropped;
+	}
+
+	/**
+	 * Queues an event only when nothing else is queued or being sent, for events such as heartbeats that are
+	 * pointless while other events flow.
+	 */
+	void offerIfIdle(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+		synchronized (this) {
+			if (sending || !queue.isEmpty()) {
+				return;
+			}
+		}
+		offer(event);
+	}
+
+	synchronized int getQueueSize() {
+		return queue.size();
+	}
+
+	/**
+	 * @return whether an event has been on its way for longer than the timeout, typically because the client stopped
+	 * reading while its connection stays open
+	 */
+	boolean isStalled(long nowNanos, long timeoutNanos) {
+		long since = sendingSince;
+		return since != 0 && nowNanos - since > timeoutNanos;
+	}
+
+	/**
+	 * Stops sending and drops the queued events.
+	 *
+	 * @return {@code false} when it was closed already
+	 */
+	synchronized boolean close() {
+		boolean wasOpen = !closed;
+		closed = true;
+		queue.clear();
+		return wasOpen;
+	}
+
+	private void sendQueued() {
+		while (true) {
+			Set<ResponseBodyEmitter.DataWithMediaType> event;
+			synchronized (this) {
+				event = closed ? null : queue.poll();
+				if (event == null) {
+					sending = false;
+					return;
+				}
+			}
+
+			sendingSince = System.nanoTime();
+			try {
+				emitter.send(event);
+			} catch (IOException | RuntimeException _) {
+				synchronized (this) {
+					sending = false;
+				}
+				onSendFailed.accept(this);
+				close();
+				return;
+			} finally {
+				sendingSince = 0;
+			}
+		}
+	}
+}
@@ -1,13 +1,89 @@
 package org.frankframework.flow.utility;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import lombok.experimental.UtilityClass;
 import org.w3c.dom.*;
 
 @UtilityClass
 public class XmlAdapterUtils {
 
+	private static final XMLInputFactory ADAPTER_NAME_INPUT_FACTORY = createAdapterNameInputFactory();
+	private static final int HEXADECIMAL_RADIX = 16;
+	private static final char UNRESOLVED_REFERENCE = '\uFFFD';
+
+	/**
+	 * Streams the names of all Adapter elements out of a configuration without building a DOM, see
+	 * {@link #readConfigurationOutline(InputStream)}.
+	 *
+	 * @return the non-blank adapter names in document order
+	 * @throws XMLStreamException if the configuration is not well-formed
+	 */
+	public static List<String> extractAdapterNames(InputStream configuration) throws XMLStreamException {
+		return readConfigurationOutline(configuration).adapterNames();
+	}
+
+	/**
+	 * Streams the root element and the names of all Adapter elements out of a configuration without building a DOM.
+	 * Like {@link #findAdapterInDocument(Document, String)}, lowercase {@code adapter} elements are only used when the
+	 * configuration has no {@code Adapter} elements. Namespaces are not resolved, so a configuration that uses the
+	 * {@code flow:} prefix without declaring it can be read as-is. Reading stops once the root element is closed.
+	 *
+	 * @throws XMLStreamException if the configuration is not well-formed
+	 */
+	public static ConfigurationOutline readConfigurationOutline(InputStream configuration) throws XMLStreamException {
+		XMLStreamReader reader = ADAPTER_NAME_INPUT_FACTORY.createXMLStreamReader(configuration);
+		try {
+			String rootElement = null;
+			List<String> adapterNames = new ArrayList<>();
+			List<String> lowercaseAdapterNames = new ArrayList<>();
+			int depth = 0;
+
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+					String elementName = reader.getLocalName();
+					if (rootElement == null) {
+						rootElement = elementName;
+					}
+					if ("Adapter".equals(elementName)) {
+						addAdapterName(adapterNames, reader.getAttributeValue(null, "name"));
+					} else if ("adapter".equals(elementName)) {
+						addAdapterName(lowercaseAdapterNames, reader.getAttributeValue(null, "name"));
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT && --depth == 0) {
+					break;
+				}
+			}
+
+			return new ConfigurationOutline(rootElement, adapterNames.isEmpty() ? lowercaseAdapterNames : adapterNames);
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static void addAdapterName(List<String> adapterNames, String name) {
+		if (name != null && !name.isBlank()) {
+			adapterNames.add(name);
+		}
+	}
+
+	private static XMLInputFactory createAdapterNameInputFactory() {
+		XMLInputFactory factory = XmlSecurityUtils.createSecureXmlInputFactory();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		return factory;
+	}
+
 	/**
 	 * Finds and returns an Adapter element (matched by name attribute)
 	 * inside the given configuration document.
@@ -106,4 +182,269 @@ public class XmlAdapterUtils {
 		adapterNode.getParentNode().removeChild(adapterNode);
 		return true;
 	}
+
+	/**
+	 * Finds the location of an Adapter element (matched by name attribute) in the text of a configuration, using the
+	 * same element preference as {@link #findAdapterInDocument(Document, String)}. This lets a caller replace the
+	 * adapter by splicing text, leaving every other character of the configuration untouched.
+	 *
+	 * @return the character range of the adapter from its start tag up to and including its end tag, or null when the
+	 * 		adapter does not exist or the configuration is not well-formed enough to locate it reliably
+	 */
+	public static AdapterRange findAdapterRange(String configuration, String adapterName) {
+		List<AdapterRange> ranges = new AdapterRangeScanner(configuration).scan();
+		if (ranges == null) {
+			return null;
+		}
+
+		boolean hasUppercaseAdapters = ranges.stream().anyMatch(range -> "Adapter".equals(range.elementName()));
+		String elementName = hasUppercaseAdapters ? "Adapter" : "adapter";
+		return ranges.stream()
+				.filter(range -> elementName.equals(range.elementName()) && adapterName.equals(range.name()))
+				.findFirst()
+				.orElse(null);
+	}
+
+	public record ConfigurationOutline(String rootElement, List<String> adapterNames) {
+	}
+
+	/**
+	 * @param start the index of the {@code <} of the start tag
+	 * @param end the index just after the {@code >} of the end tag, or of the start tag when the element is empty
+	 */
+	public record AdapterRange(String elementName, String name, int start, int end) {
+	}
+
+	/**
+	 * Minimal XML tokenizer that records where adapters start and end. It checks as much of the structure as it
+	 * needs to trust those offsets (tag nesting, quoting, comments, CDATA sections and processing instructions),
+	 * and gives up by returning null on anything it does not understand.
+	 */
+	private static final class AdapterRangeScanner {
+		private final String xml;
+		private final List<AdapterRange> ranges = new ArrayList<>();
+		private final Deque<OpenElement> openElements = new ArrayDeque<>();
+		private int position;
+
+		private AdapterRangeScanner(String xml) {
+			this.xml = xml;
+		}
+
+		private List<AdapterRange> scan() {
+			boolean rootSeen = false;
+			while (true) {
+				int tagStart = xml.indexOf('<', position);
+				if (tagStart < 0) {
+					return rootSeen && openElements.isEmpty() ? ranges : null;
+				}
+				position = tagStart;
+
+				boolean scanned;
+				if (xml.startsWith("<!--", position)) {
+					scanned = skipPast("-->");
+				} else if (xml.startsWith("<![CDATA[", position)) {
+					scanned = !openElements.isEmpty() && skipPast("]]>");
+				} else if (xml.startsWith("<?", position)) {
+					scanned = skipPast("?>");
+				} else if (xml.startsWith("<!", position)) {
+					scanned = !rootSeen && skipDoctype();
+				} else if (xml.startsWith("</", position)) {
+					scanned = scanEndTag();
+				} else {
+					scanned = (!rootSeen || !openElements.isEmpty()) && scanStartTag();
+					rootSeen = true;
+				}
+
+				if (!scanned) {
+					return null;
+				}
+			}
+		}
+
+		private boolean skipPast(String terminator) {
+			int end = xml.indexOf(terminator, position);
+			if (end < 0) {
+				return false;
+			}
+			position = end + terminator.length();
+			return true;
+		}
+
+		private boolean skipDoctype() {
+			int bracketDepth = 0;
+			char quote = 0;
+			for (int i = position + "<!".length(); i < xml.length(); i++) {
+				char c = xml.charAt(i);
+				if (quote != 0) {
+					quote = c == quote ? 0 : quote;
+				} else if (c == '"' || c == '\'') {
+					quote = c;
+				} else if (c == '[') {
+					bracketDepth++;
+				} else if (c == ']') {
+					bracketDepth--;
+				} else if (c == '>' && bracketDepth == 0) {
+					position = i + 1;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean scanEndTag() {
+			position += "</".length();
+			String name = readName();
+			skipWhitespace();
+			if (name.isEmpty() || !xml.startsWith(">", position) || openElements.isEmpty()) {
+				return false;
+			}
+			position++;
+
+			OpenElement element = openElements.pop();
+			if (!element.name().equals(name)) {
+				return false;
+			}
+			if (element.adapterName() != null) {
+				ranges.add(new AdapterRange(element.name(), element.adapterName(), element.start(), position));
+			}
+			return true;
+		}
+
+		private boolean scanStartTag() {
+			int start = position;
+			position++;
+			String name = readName();
+			if (name.isEmpty()) {
+				return false;
+			}
+
+			String nameAttribute = null;
+			while (true) {
+				boolean separated = skipWhitespace();
+				if (xml.startsWith("/>", position)) {
+					position += "/>".length();
+					if (isAdapter(name)) {
+						ranges.add(new AdapterRange(name, nameAttribute, start, position));
+					}
+					return true;
+				}
+				if (xml.startsWith(">", position)) {
+					position++;
+					openElements.push(new OpenElement(name, isAdapter(name) ? nullToEmpty(nameAttribute) : null, start));
+					return true;
+				}
+
+				String attributeName = readName();
+				if (!separated || attributeName.isEmpty()) {
+					return false;
+				}
+				skipWhitespace();
+				if (!xml.startsWith("=", position)) {
+					return false;
+				}
+				position++;
+				skipWhitespace();
+				String value = readAttributeValue();
+				if (value == null) {
+					return false;
+				}
+				if ("name".equals(attributeName)) {
+					nameAttribute = value;
+				}
+			}
+		}
+
+		private String readAttributeValue() {
+			if (position >= xml.length() || (xml.charAt(position) != '"' && xml.charAt(position) != '\'')) {
+				return null;
+			}
+			char quote = xml.charAt(position);
+			int end = xml.indexOf(quote, position + 1);
+			if (end < 0) {
+				return null;
+			}
+			String raw = xml.substring(position + 1, end);
+			position = end + 1;
+			return raw.indexOf('<') >= 0 ? null : decodeAttributeValue(raw);
+		}
+
+		private String readName() {
+			int start = position;
+			while (position < xml.length() && isNameCharacter(xml.charAt(position))) {
+				position++;
+			}
+			return xml.substring(start, position);
+		}
+
+		private boolean skipWhitespace() {
+			int start = position;
+			while (position < xml.length() && Character.isWhitespace(xml.charAt(position))) {
+				position++;
+			}
+			return position > start;
+		}
+
+		private static boolean isNameCharacter(char c) {
+			return !Character.isWhitespace(c) && c != '/' && c != '>' && c != '<' && c != '=' && c != '"' && c != '\'' && c != '!' && c != '?';
+		}
+
+		private static boolean isAdapter(String elementName) {
+			return "Adapter".equals(elementName) || "adapter".equals(elementName);
+		}
+
+		private static String nullToEmpty(String value) {
+			return value != null ? value : "";
+		}
+
+		/**
+		 * Normalizes whitespace and resolves entity and character references the way a parser would, so the value can
+		 * be compared with attribute values from a DOM.
+		 */
+		private static String decodeAttributeValue(String raw) {
+			StringBuilder decoded = new StringBuilder(raw.length());
+			int i = 0;
+			while (i < raw.length()) {
+				char c = raw.charAt(i);
+				int referenceEnd = c == '&' ? raw.indexOf(';', i) : -1;
+				if (referenceEnd < 0) {
+					decoded.append(c == '\t' || c == '\n' || c == '\r' ? ' ' : c);
+					i++;
+					continue;
+				}
+
+				String reference = raw.substring(i + 1, referenceEnd);
+				switch (reference) {
+					case "lt" -> decoded.append('<');
+					case "gt" -> decoded.append('>');
+					case "amp" -> decoded.append('&');
+					case "quot" -> decoded.append('"');
+					case "apos" -> decoded.append('\'');
+					default -> decoded.appendCodePoint(parseCharacterReference(reference));
+				}
+				i = referenceEnd + 1;
+			}
+			return decoded.toString();
+		}
+
+		/**
+		 * Unknown entities are declared in a DTD, which isn't read here. They decode to a replacement character, as do
+		 * invalid references, so that the value doesn't match any adapter name.
+		 */
+		private static int parseCharacterReference(String reference) {
+			try {
+				int codePoint = UNRESOLVED_REFERENCE;
+				if (reference.startsWith("#x")) {
+					codePoint = Integer.parseInt(reference.substring("#x".length()), HEXADECIMAL_RADIX);
+				} else if (reference.startsWith("#")) {
+					codePoint = Integer.parseInt(reference.substring("#".length()));
+				}
+				return Character.isValidCodePoint(codePoint) ? codePoint : UNRESOLVED_REFERENCE;
+			} catch (NumberFormatException _) {
+				return UNRESOLVED_REFERENCE;
+			}
+		}
+	}
+
+	private record OpenElement(String name, String adapterName, int start) {
+	}
 }
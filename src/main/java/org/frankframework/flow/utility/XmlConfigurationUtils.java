@@ -80,8 +80,7 @@ public class XmlConfigurationUtils {
 	 * @throws TransformerException if an error occurs during transformation
 	 */
 	public static String convertNodeToString(Node node) throws TransformerException {
-		Transformer transformer =
-				XmlSecurityUtils.createSecureTransformerFactory().newTransformer();
+		Transformer transformer = XmlSecurityUtils.createSecureTransformer();
 
 		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
 		transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
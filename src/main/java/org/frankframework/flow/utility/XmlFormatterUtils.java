@@ -1,9 +1,10 @@
 package org.frankframework.flow.utility;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.StringWriter;
+import java.io.Writer;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
@@ -15,13 +16,23 @@ import org.xml.sax.ext.DefaultHandler2;
 
 public class XmlFormatterUtils extends DefaultHandler2 {
 	private static final int INDENT_SIZE = 2;
-
-	private final StringBuilder sb = new StringBuilder();
+	private static final int MAX_INDENTATION_SLICE = 256;
+	private static final char[] INDENTATION = " ".repeat(MAX_INDENTATION_SLICE).toCharArray();
+	private static final int INITIAL_VALUE_BUFFER_SIZE = 256;
+	private static final char[] ESCAPED_AMPERSAND = "&amp;".toCharArray();
+	private static final char[] ESCAPED_LESS_THAN = "&lt;".toCharArray();
+	private static final char[] ESCAPED_QUOTE = "&quot;".toCharArray();
+
+	private final Writer out;
 	private int depth = 0;
 	private boolean startTagOpen = false;
+	private boolean written = false;
+	private char lastWritten;
+	private char[] valueBuffer = new char[INITIAL_VALUE_BUFFER_SIZE];
 	private final XsdAttributeOrdererUtils orderer;
 
-	private XmlFormatterUtils(XsdAttributeOrdererUtils orderer) {
+	private XmlFormatterUtils(Writer out, XsdAttributeOrdererUtils orderer) {
+		this.out = out;
 		this.orderer = orderer;
 	}
 
@@ -36,27 +47,46 @@ public class XmlFormatterUtils extends DefaultHandler2 {
 
 	public static String format(String xml, XsdAttributeOrdererUtils orderer)
 			throws ParserConfigurationException, SAXException, IOException {
-		XmlFormatterUtils handler = new XmlFormatterUtils(orderer);
+		// Formatting mostly adds indentation, so the output is at least about as large as the input
+		StringWriter writer = new StringWriter(xml.length());
+		format(new StringReader(xml), writer, orderer);
+		return writer.toString();
+	}
+
+	/**
+	 * Formats the XML read from {@code xml} straight into {@code out}, without holding the document or the formatted
+	 * result in memory. The writer is not flushed or closed; pass a buffered writer when writing to a file or stream.
+	 */
+	public static void format(Reader xml, Writer out, XsdAttributeOrdererUtils orderer)
+			throws ParserConfigurationException, SAXException, IOException {
+		XmlFormatterUtils handler = new XmlFormatterUtils(out, orderer);
 		XMLReader reader = createSecureXmlReader(handler);
-		reader.parse(new InputSource(new StringReader(xml)));
-		return handler.toString();
+		try {
+			reader.parse(new InputSource(xml));
+		} catch (SAXException exception) {
+			if (exception.getException() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw exception;
+		}
 	}
 
 	@Override
-	public void startElement(String uri, String localName, String qName, Attributes attrs) {
+	public void startElement(String uri, String localName, String qName, Attributes attrs) throws SAXException {
 		closeStartTagIfOpen();
 		appendNewlineIfNeeded();
 
 		int elementIndent = depth * INDENT_SIZE;
-		sb.append(" ".repeat(elementIndent)).append('<').append(qName);
-
-		if (attrs.getLength() > 0) {
-			List<String[]> ordered = orderer != null ? orderer.reorder(qName, attrs) : toList(attrs);
-			String attrPad = " ".repeat(elementIndent + INDENT_SIZE);
-			for (String[] attr : ordered) {
-				sb.append('\n').append(attrPad);
-				appendAttribute(attr);
-			}
+		appendIndentation(elementIndent);
+		append('<');
+		append(qName);
+
+		int[] order = orderer != null && attrs.getLength() > 1 ? orderer.order(qName, attrs) : null;
+		for (int i = 0; i < attrs.getLength(); i++) {
+			int index = order != null ? order[i] : i;
+			append('\n');
+			appendIndentation(elementIndent + INDENT_SIZE);
+			appendAttribute(attrs.getQName(index), attrs.getValue(index));
 		}
 
 		startTagOpen = true;
@@ -64,73 +94,136 @@ public class XmlFormatterUtils extends DefaultHandler2 {
 	}
 
 	@Override
-	public void endElement(String uri, String localName, String qName) {
+	public void endElement(String uri, String localName, String qName) throws SAXException {
 		depth--;
 
 		if (startTagOpen) {
-			sb.append("/>");
+			append("/>");
 			startTagOpen = false;
 		} else {
-			sb.append('\n');
-			sb.append(" ".repeat(depth * INDENT_SIZE));
-			sb.append("</").append(qName).append('>');
+			append('\n');
+			appendIndentation(depth * INDENT_SIZE);
+			append("</");
+			append(qName);
+			append('>');
 		}
 	}
 
 	@Override
-	public void characters(char[] ch, int start, int length) {
-		String text = new String(ch, start, length).trim();
-		if (!text.isEmpty()) {
+	public void characters(char[] ch, int start, int length) throws SAXException {
+		// Trim like String.trim() does, without creating the string
+		int textStart = start;
+		int textEnd = start + length;
+		while (textStart < textEnd && ch[textStart] <= ' ') {
+			textStart++;
+		}
+		while (textEnd > textStart && ch[textEnd - 1] <= ' ') {
+			textEnd--;
+		}
+
+		if (textStart < textEnd) {
 			closeStartTagIfOpen();
-			sb.append(escapeText(text));
+			appendEscaped(ch, textStart, textEnd, false);
 		}
 	}
 
 	@Override
-	public void comment(char[] ch, int start, int length) {
+	public void comment(char[] ch, int start, int length) throws SAXException {
 		closeStartTagIfOpen();
 		appendNewlineIfNeeded();
 
-		sb.append(" ".repeat(depth * INDENT_SIZE));
-		sb.append("<!--").append(new String(ch, start, length)).append("-->");
+		appendIndentation(depth * INDENT_SIZE);
+		append("<!--");
+		append(ch, start, length);
+		append("-->");
 	}
 
-	@Override
-	public String toString() {
-		return sb.toString();
+	private void appendAttribute(String name, String value) throws SAXException {
+		append(name);
+		append("=\"");
+		if (value.length() > valueBuffer.length) {
+			valueBuffer = new char[value.length()];
+		}
+		value.getChars(0, value.length(), valueBuffer, 0);
+		appendEscaped(valueBuffer, 0, value.length(), true);
+		append('"');
 	}
 
-	private void appendAttribute(String[] nameValue) {
-		sb.append(nameValue[0]).append("=\"").append(escapeAttr(nameValue[1])).append('"');
+	private void appendNewlineIfNeeded() throws SAXException {
+		if (written && lastWritten != '\n') {
+			append('\n');
+		}
 	}
 
-	private static List<String[]> toList(Attributes attrs) {
-		List<String[]> list = new ArrayList<>(attrs.getLength());
-		for (int i = 0; i < attrs.getLength(); i++) {
-			list.add(new String[]{attrs.getQName(i), attrs.getValue(i)});
+	private void closeStartTagIfOpen() throws SAXException {
+		if (startTagOpen) {
+			append('>');
+			startTagOpen = false;
 		}
-		return list;
 	}
 
-	private void appendNewlineIfNeeded() {
-		if (!sb.isEmpty() && sb.charAt(sb.length() - 1) != '\n') {
-			sb.append('\n');
+	private void appendIndentation(int width) throws SAXException {
+		for (int remaining = width; remaining > 0; remaining -= INDENTATION.length) {
+			append(INDENTATION, 0, Math.min(remaining, INDENTATION.length));
 		}
 	}
 
-	private void closeStartTagIfOpen() {
-		if (startTagOpen) {
-			sb.append('>');
-			startTagOpen = false;
+	/**
+	 * Escapes {@code &} and {@code <}, and in attribute values also {@code "}, writing the unescaped runs in between
+	 * as they are.
+	 */
+	private void appendEscaped(char[] ch, int start, int end, boolean attribute) throws SAXException {
+		int run = start;
+		for (int i = start; i < end; i++) {
+			char[] replacement = switch (ch[i]) {
+				case '&' -> ESCAPED_AMPERSAND;
+				case '<' -> ESCAPED_LESS_THAN;
+				case '"' -> attribute ? ESCAPED_QUOTE : null;
+				default -> null;
+			};
+			if (replacement != null) {
+				append(ch, run, i - run);
+				append(replacement, 0, replacement.length);
+				run = i + 1;
+			}
+		}
+		append(ch, run, end - run);
+	}
+
+	private void append(char c) throws SAXException {
+		try {
+			out.write(c);
+		} catch (IOException exception) {
+			throw new SAXException(exception);
 		}
+		written = true;
+		lastWritten = c;
 	}
 
-	private static String escapeAttr(String val) {
-		return val.replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;");
+	private void append(String text) throws SAXException {
+		if (text.isEmpty()) {
+			return;
+		}
+		try {
+			out.write(text);
+		} catch (IOException exception) {
+			throw new SAXException(exception);
+		}
+		written = true;
+		lastWritten = text.charAt(text.length() - 1);
 	}
 
-	private static String escapeText(String val) {
-		return val.replace("&", "&amp;").replace("<", "&lt;");
+	private void append(char[] ch, int start, int length) throws SAXException {
+		if (length == 0) {
+			return;
+		}
+		try {
+			out.write(ch, start, length);
+		} catch (IOException exception) {
+			throw new SAXException(exception);
+		}
+		written = true;
+		lastWritten = ch[start + length - 1];
 	}
 
 	private static XMLReader createSecureXmlReader(XmlFormatterUtils handler)
@@ -4,6 +4,9 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import lombok.experimental.UtilityClass;
 import lombok.extern.log4j.Log4j2;
@@ -13,6 +16,13 @@ import org.xml.sax.SAXParseException;
 
 /**
  * Utility class for creating secure XML parsers and transformers that prevent XXE vulnerabilities.
+ * <p>
+ * Looking up and configuring a factory is far more expensive than the parsing or transforming that usually follows,
+ * so {@link #createSecureDocumentBuilder()} and {@link #createSecureTransformer()} take their instances from a single
+ * configured factory. Platform threads, such as the request threads of the web server, keep and reuse their own
+ * instance, which is reset before it is handed out again. Virtual threads are not pooled and cheap to create, so
+ * caching per virtual thread would only keep instances alive that are never used again; they get a new instance from
+ * the shared factory instead.
  */
 @Log4j2
 @UtilityClass
@@ -35,6 +45,11 @@ public class XmlSecurityUtils {
 		}
 	};
 
+	private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = createSharedDocumentBuilderFactory();
+	private static final TransformerFactory TRANSFORMER_FACTORY = createSecureTransformerFactory();
+	private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDERS = new ThreadLocal<>();
+	private static final ThreadLocal<Transformer> TRANSFORMERS = new ThreadLocal<>();
+
 	/**
 	 * Creates a secure DocumentBuilderFactory configured to prevent XXE attacks.
 	 *
@@ -57,17 +72,46 @@ public class XmlSecurityUtils {
 	}
 
 	/**
-	 * Creates a secure DocumentBuilder configured to prevent XXE attacks.
+	 * Returns a secure DocumentBuilder configured to prevent XXE attacks. The builder may be reused by later calls on
+	 * the same thread, so it must not be kept beyond the current operation or passed to another thread.
 	 *
 	 * @return A DocumentBuilder with security features enabled
 	 * @throws ParserConfigurationException if the parser cannot be created
 	 */
 	public static DocumentBuilder createSecureDocumentBuilder() throws ParserConfigurationException {
-		DocumentBuilder builder = createSecureDocumentBuilderFactory().newDocumentBuilder();
+		DocumentBuilder builder = Thread.currentThread().isVirtual() ? null : DOCUMENT_BUILDERS.get();
+		if (builder == null) {
+			builder = newDocumentBuilder();
+		} else {
+			builder.reset();
+		}
 		builder.setErrorHandler(QUIET_ERROR_HANDLER);
 		return builder;
 	}
 
+	/**
+	 * Returns a secure Transformer without a stylesheet, reset to its default output properties. Like
+	 * {@link #createSecureDocumentBuilder()}, the transformer may be reused by later calls on the same thread.
+	 *
+	 * @return An identity Transformer created by a factory with security features enabled
+	 * @throws TransformerConfigurationException if the transformer cannot be created
+	 */
+	public static Transformer createSecureTransformer() throws TransformerConfigurationException {
+		Transformer transformer = Thread.currentThread().isVirtual() ? null : TRANSFORMERS.get();
+		if (transformer != null) {
+			transformer.reset();
+			return transformer;
+		}
+
+		synchronized (TRANSFORMER_FACTORY) {
+			transformer = TRANSFORMER_FACTORY.newTransformer();
+		}
+		if (!Thread.currentThread().isVirtual()) {
+			TRANSFORMERS.set(transformer);
+		}
+		return transformer;
+	}
+
 	/**
 	 * Creates a secure TransformerFactory configured to prevent XXE attacks.
 	 *
@@ -85,4 +129,40 @@ public class XmlSecurityUtils {
 		}
 		return factory;
 	}
+
+	private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+		DocumentBuilder builder;
+		synchronized (DOCUMENT_BUILDER_FACTORY) {
+			builder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+		}
+		if (!Thread.currentThread().isVirtual()) {
+			DOCUMENT_BUILDERS.set(builder);
+		}
+		return builder;
+	}
+
+	private static DocumentBuilderFactory createSharedDocumentBuilderFactory() {
+		try {
+			return createSecureDocumentBuilderFactory();
+		} catch (ParserConfigurationException e) {
+			throw new IllegalStateException("Could not create secure DocumentBuilderFactory: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Creates a secure XMLInputFactory for streaming (StAX) parsing that prevents XXE attacks. The factory is
+	 * thread-safe once configured, so callers can keep a single instance and create readers from it concurrently.
+	 *
+	 * Entities declared in an internal DTD are not expanded either, which rules out entity expansion attacks such as
+	 * billion laughs; a document that refers to one fails to parse.
+	 *
+	 * @return An XMLInputFactory that never resolves external entities or DTDs
+	 */
+	public static XMLInputFactory createSecureXmlInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newDefaultFactory();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+		return factory;
+	}
 }
@@ -2,15 +2,12 @@ package org.frankframework.flow.utility;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import javax.xml.XMLConstants;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -18,155 +15,208 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.Attributes;
 
+/**
+ * Orders the attributes of configuration elements like the FrankConfig XSD declares them: namespaced attributes
+ * first, then the required and the optional attributes of the element type, each in XSD order, and finally any
+ * unknown attributes alphabetically.
+ * <p>
+ * The XSD is compiled once, in the constructor, into an immutable table of attribute ranks per element, so an
+ * instance is safe to share between concurrent formatting requests. {@link #getAttributeOrder()} exposes the table in
+ * a form that can be stored and passed to {@link #XsdAttributeOrdererUtils(Map)} later, without parsing the XSD again.
+ */
 public class XsdAttributeOrdererUtils {
 	private static final String XSD_ATTRIBUTE = "attribute";
 	private static final String XSD_EXTENSION = "extension";
+	private static final String TYPE_SUFFIX = "Type";
+	private static final int NAMESPACED_RANK = -1;
+	private static final int UNKNOWN_RANK = Integer.MAX_VALUE;
 
-	private final Map<String, Map<String, Element>> index;
-	private final Map<String, OrderInfo> cache = new HashMap<>();
-
-	private record OrderInfo(List<String> xsdOrder, Set<String> required) {}
+	private final Map<String, List<String>> attributeOrder;
+	private final Map<String, Map<String, Integer>> attributeRanks;
 
 	public XsdAttributeOrdererUtils(Document xsdDoc) {
-		this.index = buildIndex(xsdDoc);
+		this(new AttributeOrderCompiler(buildIndex(xsdDoc)).compile());
 	}
 
-	private static Map<String, Map<String, Element>> buildIndex(Document doc) {
-		Map<String, Map<String, Element>> idx = new HashMap<>();
-		NodeList all = doc.getElementsByTagNameNS(XMLConstants.W3C_XML_SCHEMA_NS_URI, "*");
-		for (int i = 0; i < all.getLength(); i++) {
-			Element elem = (Element) all.item(i);
-			String name = elem.getAttribute("name");
-			if (!name.isEmpty()) {
-				idx.computeIfAbsent(elem.getLocalName(), k -> new HashMap<>()).put(name, elem);
+	/**
+	 * @param attributeOrder the attributes of every element in the order to write them, as returned by
+	 * 		{@link #getAttributeOrder()}
+	 */
+	public XsdAttributeOrdererUtils(Map<String, List<String>> attributeOrder) {
+		Map<String, List<String>> order = new HashMap<>();
+		Map<String, Map<String, Integer>> ranks = new HashMap<>();
+		attributeOrder.forEach((elementName, attributes) -> {
+			order.put(elementName, List.copyOf(attributes));
+			Map<String, Integer> elementRanks = new HashMap<>();
+			for (String attribute : attributes) {
+				elementRanks.putIfAbsent(attribute, elementRanks.size());
 			}
-		}
-		return idx;
+			ranks.put(elementName, Map.copyOf(elementRanks));
+		});
+		this.attributeOrder = Map.copyOf(order);
+		this.attributeRanks = Map.copyOf(ranks);
 	}
 
-	List<String[]> reorder(String elementName, Attributes attrs) {
-		OrderInfo info = cache.computeIfAbsent(elementName, this::computeOrderInfo);
-		Map<String, String> attrMap = buildAttrMap(attrs);
-		Set<String> xsdSet = new HashSet<>(info.xsdOrder());
-
-		List<String[]> result = new ArrayList<>();
-		result.addAll(namespacedAttrs(attrMap));
-		result.addAll(inXsdOrderFiltered(info.xsdOrder(), info.required(), attrMap, true));
-		result.addAll(inXsdOrderFiltered(info.xsdOrder(), info.required(), attrMap, false));
-		result.addAll(unknownAttrs(attrMap, xsdSet));
-		return result;
+	public Map<String, List<String>> getAttributeOrder() {
+		return attributeOrder;
 	}
 
-	private static Map<String, String> buildAttrMap(Attributes attrs) {
-		Map<String, String> map = new LinkedHashMap<>();
-		for (int i = 0; i < attrs.getLength(); i++) {
-			map.put(attrs.getQName(i), attrs.getValue(i));
+	/**
+	 * Returns the indexes of {@code attrs} in the order in which the attributes should be written.
+	 */
+	int[] order(String elementName, Attributes attrs) {
+		Map<String, Integer> ranks = attributeRanks.getOrDefault(elementName, Map.of());
+		int length = attrs.getLength();
+		int[] order = new int[length];
+		int[] rankOfIndex = new int[length];
+		for (int i = 0; i < length; i++) {
+			String name = attrs.getQName(i);
+			Integer rank = ranks.get(name);
+			if (name.indexOf(':') >= 0) {
+				rankOfIndex[i] = NAMESPACED_RANK;
+			} else {
+				rankOfIndex[i] = rank != null ? rank : UNKNOWN_RANK;
+			}
+			order[i] = i;
 		}
-		return map;
-	}
 
-	private static List<String[]> inXsdOrderFiltered(List<String> xsdOrder, Set<String> required,
-			Map<String, String> attrMap, boolean requiredOnly) {
-		List<String[]> result = new ArrayList<>();
-		for (String name : xsdOrder) {
-			if (required.contains(name) != requiredOnly) continue;
-			String value = attrMap.get(name);
-			if (value != null) result.add(pair(name, value));
+		// Elements have only a handful of attributes, for which an insertion sort is the fastest
+		for (int i = 1; i < length; i++) {
+			int index = order[i];
+			int j = i - 1;
+			while (j >= 0 && compare(attrs, rankOfIndex, order[j], index) > 0) {
+				order[j + 1] = order[j];
+				j--;
+			}
+			order[j + 1] = index;
 		}
-		return result;
-	}
-
-	private static List<String[]> unknownAttrs(Map<String, String> attrMap, Set<String> xsdSet) {
-		return attrMap.entrySet().stream()
-				.filter(e -> !xsdSet.contains(e.getKey()) && !e.getKey().contains(":"))
-				.map(e -> pair(e.getKey(), e.getValue()))
-				.sorted(Comparator.comparing(a -> a[0]))
-				.collect(Collectors.toList());
+		return order;
 	}
 
-	private static List<String[]> namespacedAttrs(Map<String, String> attrMap) {
-		return attrMap.entrySet().stream()
-				.filter(e -> e.getKey().contains(":"))
-				.map(e -> pair(e.getKey(), e.getValue()))
-				.sorted(Comparator.comparing(a -> a[0]))
-				.collect(Collectors.toList());
+	List<String[]> reorder(String elementName, Attributes attrs) {
+		int[] order = order(elementName, attrs);
+		List<String[]> result = new ArrayList<>(order.length);
+		for (int index : order) {
+			result.add(new String[]{attrs.getQName(index), attrs.getValue(index)});
+		}
+		return result;
 	}
 
-	private static String[] pair(String name, String value) {
-		return new String[]{name, value};
+	/**
+	 * Namespaced and unknown attributes share a rank and are sorted by name among themselves.
+	 */
+	private static int compare(Attributes attrs, int[] rankOfIndex, int first, int second) {
+		int byRank = Integer.compare(rankOfIndex[first], rankOfIndex[second]);
+		return byRank != 0 ? byRank : attrs.getQName(first).compareTo(attrs.getQName(second));
 	}
 
-	private OrderInfo computeOrderInfo(String elementName) {
-		Element typeNode = findComplexType(elementName + "Type");
-		if (typeNode == null) return new OrderInfo(Collections.emptyList(), Collections.emptySet());
-		Set<String> requiredSet = new HashSet<>();
-		List<String> ordered = new ArrayList<>(new LinkedHashSet<>(collect(typeNode, new HashSet<>(), requiredSet)));
-		return new OrderInfo(ordered, requiredSet);
+	private static Map<String, Map<String, Element>> buildIndex(Document doc) {
+		Map<String, Map<String, Element>> idx = new HashMap<>();
+		NodeList all = doc.getElementsByTagNameNS(XMLConstants.W3C_XML_SCHEMA_NS_URI, "*");
+		for (int i = 0; i < all.getLength(); i++) {
+			Element elem = (Element) all.item(i);
+			String name = elem.getAttribute("name");
+			if (!name.isEmpty()) {
+				idx.computeIfAbsent(elem.getLocalName(), k -> new HashMap<>()).put(name, elem);
+			}
+		}
+		return idx;
 	}
 
-	private List<String> collect(Element node, Set<String> visited, Set<String> requiredSet) {
-		List<String> baseAttrs = Collections.emptyList();
-		List<String> ownAttrs = new ArrayList<>();
-
-		NodeList children = node.getChildNodes();
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			if (child.getNodeType() != Node.ELEMENT_NODE) continue;
-			Element elem = (Element) child;
-			String local = elem.getLocalName();
-
-			if (XSD_ATTRIBUTE.equals(local)) {
-				collectAttribute(elem, ownAttrs, requiredSet);
-			} else if (XSD_EXTENSION.equals(local)) {
-				baseAttrs = resolveBaseAttributes(elem, visited, requiredSet);
-				ownAttrs.addAll(collect(elem, visited, requiredSet));
-			} else {
-				ownAttrs.addAll(collectGeneric(elem, visited, requiredSet));
+	/**
+	 * Resolves the attributes of every element type in the XSD, including those inherited from base types and
+	 * attribute groups.
+	 */
+	private record AttributeOrderCompiler(Map<String, Map<String, Element>> index) {
+
+		private Map<String, List<String>> compile() {
+			Map<String, List<String>> order = new HashMap<>();
+			for (String typeName : index.getOrDefault("complexType", Map.of()).keySet()) {
+				if (typeName.length() > TYPE_SUFFIX.length() && typeName.endsWith(TYPE_SUFFIX)) {
+					List<String> attributes = computeOrder(typeName);
+					if (!attributes.isEmpty()) {
+						order.put(typeName.substring(0, typeName.length() - TYPE_SUFFIX.length()), attributes);
+					}
+				}
 			}
+			return order;
 		}
 
-		List<String> result = new ArrayList<>(baseAttrs.size() + ownAttrs.size());
-		result.addAll(baseAttrs);
-		result.addAll(ownAttrs);
-		return result;
-	}
+		private List<String> computeOrder(String typeName) {
+			Element typeNode = findComplexType(typeName);
+			Set<String> requiredSet = new HashSet<>();
+			Set<String> xsdOrder = new LinkedHashSet<>(collect(typeNode, new HashSet<>(), requiredSet));
+
+			List<String> ordered = new ArrayList<>(xsdOrder.size());
+			xsdOrder.stream().filter(requiredSet::contains).forEach(ordered::add);
+			xsdOrder.stream().filter(name -> !requiredSet.contains(name)).forEach(ordered::add);
+			return ordered;
+		}
 
-	private static void collectAttribute(Element attributeElem, List<String> target, Set<String> requiredSet) {
-		String name = attributeElem.getAttribute("name");
-		if (!name.isEmpty()) {
-			target.add(name);
-			if ("required".equals(attributeElem.getAttribute("use"))) {
-				requiredSet.add(name);
+		private List<String> collect(Element node, Set<String> visited, Set<String> requiredSet) {
+			List<String> baseAttrs = Collections.emptyList();
+			List<String> ownAttrs = new ArrayList<>();
+
+			NodeList children = node.getChildNodes();
+			for (int i = 0; i < children.getLength(); i++) {
+				Node child = children.item(i);
+				if (child.getNodeType() != Node.ELEMENT_NODE) continue;
+				Element elem = (Element) child;
+				String local = elem.getLocalName();
+
+				if (XSD_ATTRIBUTE.equals(local)) {
+					collectAttribute(elem, ownAttrs, requiredSet);
+				} else if (XSD_EXTENSION.equals(local)) {
+					baseAttrs = resolveBaseAttributes(elem, visited, requiredSet);
+					ownAttrs.addAll(collect(elem, visited, requiredSet));
+				} else {
+					ownAttrs.addAll(collectGeneric(elem, visited, requiredSet));
+				}
 			}
+
+			List<String> result = new ArrayList<>(baseAttrs.size() + ownAttrs.size());
+			result.addAll(baseAttrs);
+			result.addAll(ownAttrs);
+			return result;
 		}
-	}
 
-	private List<String> collectGeneric(Element elem, Set<String> visited, Set<String> requiredSet) {
-		String ref = elem.getAttribute("ref");
-		if (ref.isEmpty()) {
-			return collect(elem, visited, requiredSet);
+		private static void collectAttribute(Element attributeElem, List<String> target, Set<String> requiredSet) {
+			String name = attributeElem.getAttribute("name");
+			if (!name.isEmpty()) {
+				target.add(name);
+				if ("required".equals(attributeElem.getAttribute("use"))) {
+					requiredSet.add(name);
+				}
+			}
 		}
-		if (!visited.add(ref)) {
-			return Collections.emptyList();
+
+		private List<String> collectGeneric(Element elem, Set<String> visited, Set<String> requiredSet) {
+			String ref = elem.getAttribute("ref");
+			if (ref.isEmpty()) {
+				return collect(elem, visited, requiredSet);
+			}
+			if (!visited.add(ref)) {
+				return Collections.emptyList();
+			}
+			Element refDef = findDefinition(ref, elem.getLocalName());
+			return refDef != null ? collect(refDef, visited, requiredSet) : Collections.emptyList();
 		}
-		Element refDef = findDefinition(ref, elem.getLocalName());
-		return refDef != null ? collect(refDef, visited, requiredSet) : Collections.emptyList();
-	}
 
-	private Element findDefinition(String ref, String localName) {
-		Map<String, Element> defs = index.get(localName);
-		return defs != null ? defs.get(ref) : null;
-	}
+		private Element findDefinition(String ref, String localName) {
+			Map<String, Element> defs = index.get(localName);
+			return defs != null ? defs.get(ref) : null;
+		}
 
-	private List<String> resolveBaseAttributes(Element extensionElem, Set<String> visited, Set<String> requiredSet) {
-		String base = extensionElem.getAttribute("base");
-		if (base.isEmpty() || !visited.add(base)) return Collections.emptyList();
-		Element baseType = findComplexType(base);
-		return baseType != null ? collect(baseType, visited, requiredSet) : Collections.emptyList();
-	}
+		private List<String> resolveBaseAttributes(Element extensionElem, Set<String> visited, Set<String> requiredSet) {
+			String base = extensionElem.getAttribute("base");
+			if (base.isEmpty() || !visited.add(base)) return Collections.emptyList();
+			Element baseType = findComplexType(base);
+			return baseType != null ? collect(baseType, visited, requiredSet) : Collections.emptyList();
+		}
 
-	private Element findComplexType(String name) {
-		Map<String, Element> types = index.get("complexType");
-		return types != null ? types.get(name) : null;
+		private Element findComplexType(String name) {
+			Map<String, Element> types = index.get("complexType");
+			return types != null ? types.get(name) : null;
+		}
 	}
 }
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import org.frankframework.flow.configuration.ConfigurationDocumentCache;
 import org.frankframework.flow.configuration.ConfigurationFile;
 import org.frankframework.flow.configuration.ConfigurationXmlDTO;
 import org.frankframework.flow.exception.ApiException;
@@ -37,7 +38,7 @@ class AdapterServiceTest {
 
 	@BeforeEach
 	void setUp() {
-		adapterService = new AdapterService(configurationProjectService, fileSystemStorage);
+		adapterService = new AdapterService(configurationProjectService, fileSystemStorage, new ConfigurationDocumentCache());
 	}
 
 	@Test
@@ -270,6 +271,66 @@ class AdapterServiceTest {
 		assertFalse(written.contains("SecondPipe"));
 	}
 
+	@Test
+	void updateAdapter_leavesRestOfFileUntouched() throws Exception {
+		String before = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<!-- Hand written, keep formatting -->\n"
+				+ "<Configuration>\n"
+				+ "\t<Adapter   name='First'  ><Kept  attr = \"1\" /></Adapter>\n";
+		String after = "\n"
+				+ "\t<Adapter name=\"Third\"/><!-- trailing comment -->\n"
+				+ "</Configuration>\n";
+		String original = before + "\t<Adapter name=\"Second\">\n\t\t<OldPipe/>\n\t</Adapter>" + after;
+
+		Path configFile = tempDir.resolve("config.xml");
+		Files.writeString(configFile, original, StandardCharsets.UTF_8);
+		when(fileSystemStorage.toAbsolutePath(configFile.toString())).thenReturn(configFile);
+
+		boolean result = adapterService.updateAdapter(configFile, "Second", "<Adapter name=\"Second\"><NewPipe/></Adapter>");
+
+		assertTrue(result);
+		String written = Files.readString(configFile, StandardCharsets.UTF_8);
+		assertTrue(written.startsWith(before + "\t<Adapter name=\"Second\">\n\t"), "Text before the adapter should be unchanged");
+		assertTrue(written.endsWith("<NewPipe/>\n\t</Adapter>" + after), "Text after the adapter should be unchanged");
+		assertFalse(written.contains("OldPipe"));
+	}
+
+	@Test
+	void updateAdapter_splicesBytesAroundMultibyteCharacters() throws Exception {
+		String before = "<Configuration>\n\t<!-- Café \uD83D\uDE00 -->\n\t";
+		String after = "\n\t<Adapter name=\"Ünïcode\"/>\n</Configuration>\n";
+
+		Path configFile = tempDir.resolve("config.xml");
+		when(fileSystemStorage.toAbsolutePath(configFile.toString())).thenReturn(configFile);
+
+		// Both a shorter and a longer adapter, which move the rest of the file in either direction
+		for (String adapter : new String[] {"<Adapter name=\"Straße\"/>", "<Adapter name=\"Straße\"><Pipe name=\"€\"/></Adapter>"}) {
+			Files.writeString(configFile, before + "<Adapter name=\"Straße\"><OldPipe name=\"日本語\"/></Adapter>" + after, StandardCharsets.UTF_8);
+
+			assertTrue(adapterService.updateAdapter(configFile, "Straße", adapter));
+
+			String written = Files.readString(configFile, StandardCharsets.UTF_8);
+			assertTrue(written.startsWith(before + "<Adapter name=\"Straße\""), "Text before the adapter should be unchanged");
+			assertTrue(written.endsWith("</Adapter>" + after) || written.endsWith("/>" + after), "Text after the adapter should be unchanged");
+			assertEquals(adapter.contains("€"), written.contains("<Pipe name=\"€\"/>"));
+			assertFalse(written.contains("OldPipe"));
+		}
+	}
+
+	@Test
+	void updateAdapter_returnsUpdatedAdapterFromCacheAfterPatching() throws Exception {
+		ConfigurationDocumentCache cache = new ConfigurationDocumentCache();
+		adapterService = new AdapterService(configurationProjectService, fileSystemStorage, cache);
+		Path configFile = tempDir.resolve("config.xml");
+		Files.writeString(configFile, "<Configuration><Adapter name=\"A\"><OldPipe/></Adapter></Configuration>", StandardCharsets.UTF_8);
+		when(fileSystemStorage.toAbsolutePath(configFile.toString())).thenReturn(configFile);
+		cache.read(configFile);
+
+		adapterService.updateAdapter(configFile, "A", "<Adapter name=\"A\"><NewPipe/></Adapter>");
+
+		assertEquals(1, cache.read(configFile).getElementsByTagName("NewPipe").getLength());
+	}
+
 	private static ConfigurationFile configWith(String path, String xml) {
 		ConfigurationFile config = new ConfigurationFile(path, "");
 		config.setXmlContent(xml);
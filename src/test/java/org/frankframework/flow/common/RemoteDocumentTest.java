@@ -0,0 +1,135 @@
+package org.frankframework.flow.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.frankframework.flow.exception.ApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class RemoteDocumentTest {
+
+	private static final String URL = "https://schemas.example.org/Document.xsd";
+	private static final String FALLBACK_RESOURCE = "remote-document/fallback.xsd";
+
+	@Mock
+	private RestTemplate restTemplate;
+
+	@TempDir
+	private Path tempDir;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private Path cacheFile;
+
+	@BeforeEach
+	void setUp() {
+		cacheFile = tempDir.resolve("cache/Document.xsd");
+	}
+
+	@Test
+	void getContentDownloadsAndCachesDocumentWhenNothingIsCached() {
+		stubExchange(ResponseEntity.ok().eTag("\"v1\"").body("<online/>"));
+
+		String content = createDocument("missing/resource.xsd").getContent();
+
+		assertEquals("<online/>", content);
+		assertTrue(Files.exists(cacheFile));
+		RemoteDocument restarted = createDocument("missing/resource.xsd");
+		assertEquals("<online/>", restarted.getContent());
+		verify(restTemplate, times(1)).exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+	}
+
+	@Test
+	void getContentUsesRecentlyCheckedCacheWithoutNetwork() throws IOException {
+		writeCache("<cached/>", "\"v1\"", System.currentTimeMillis());
+
+		assertEquals("<cached/>", createDocument(FALLBACK_RESOURCE).getContent());
+		verifyNoInteractions(restTemplate);
+	}
+
+	@Test
+	void getContentRevalidatesStaleCacheWithConditionalRequest() throws IOException {
+		writeCache("<cached/>", "\"v1\"", 0);
+		stubExchange(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+		RemoteDocument document = createDocument(FALLBACK_RESOURCE);
+
+		assertEquals("<cached/>", document.getContent());
+		assertEquals("<cached/>", document.getContent());
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<HttpEntity<?>> request = ArgumentCaptor.forClass(HttpEntity.class);
+		verify(restTemplate, times(1)).exchange(eq(URL), eq(HttpMethod.GET), request.capture(), eq(String.class));
+		assertEquals("\"v1\"", request.getValue().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+	}
+
+	@Test
+	void getContentServesChangedDocumentAfterRevalidation() throws IOException {
+		writeCache("<cached/>", "\"v1\"", 0);
+		stubExchange(ResponseEntity.ok().eTag("\"v2\"").body("<changed/>"));
+		RemoteDocument document = createDocument(FALLBACK_RESOURCE);
+
+		assertEquals("<cached/>", document.getContent());
+
+		assertEquals("<changed/>", document.getContent());
+		assertEquals("<changed/>", Files.readString(cacheFile));
+	}
+
+	@Test
+	void getContentFallsBackToEmbeddedCopyWhenOffline() {
+		when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+				.thenThrow(new RestClientException("No route to host"));
+		RemoteDocument document = createDocument(FALLBACK_RESOURCE);
+
+		String content = document.getContent();
+
+		assertTrue(content.contains("id=\"fallback\""));
+		assertEquals(content, document.getContent());
+		verify(restTemplate, times(1)).exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+	}
+
+	@Test
+	void getContentThrowsWhenNoCopyIsAvailable() {
+		when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+				.thenThrow(new RestClientException("No route to host"));
+
+		RemoteDocument document = createDocument("missing/resource.xsd");
+
+		assertThrows(ApiException.class, document::getContent);
+	}
+
+	private RemoteDocument createDocument(String fallbackResource) {
+		return new RemoteDocument(restTemplate, objectMapper, URL, cacheFile, fallbackResource, Runnable::run);
+	}
+
+	private void stubExchange(ResponseEntity<String> response) {
+		when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class))).thenReturn(response);
+	}
+
+	private void writeCache(String content, String etag, long checkedAt) throws IOException {
+		Files.createDirectories(cacheFile.getParent());
+		Files.writeString(cacheFile, content);
+		objectMapper.writeValue(
+				cacheFile.resolveSibling(cacheFile.getFileName() + ".json").toFile(),
+				new RemoteDocument.CachedDocumentMetadata(etag, null, checkedAt)
+		);
+	}
+}
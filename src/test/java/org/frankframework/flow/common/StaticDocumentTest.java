@@ -0,0 +1,58 @@
+package org.frankframework.flow.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+class StaticDocumentTest {
+
+	private final StaticDocument document = StaticDocument.of("{\"types\":{}}");
+
+	@Test
+	void versionDependsOnlyOnContent() {
+		assertEquals(document.getVersion(), StaticDocument.of("{\"types\":{}}").getVersion());
+		assertNotEquals(document.getVersion(), StaticDocument.of("{\"types\":[]}").getVersion());
+	}
+
+	@Test
+	void toResponseMatchesWeakAndGzipETags() {
+		assertEquals(HttpStatus.NOT_MODIFIED, respond(HttpHeaders.IF_NONE_MATCH, "W/" + document.getIdentityETag()).getStatusCode());
+		assertEquals(HttpStatus.NOT_MODIFIED, respond(HttpHeaders.IF_NONE_MATCH, "\"other\", " + document.getGzipETag()).getStatusCode());
+		assertEquals(HttpStatus.OK, respond(HttpHeaders.IF_NONE_MATCH, "\"other\"").getStatusCode());
+	}
+
+	@Test
+	void toResponseNotModifiedHasNoBody() {
+		ResponseEntity<byte[]> response = respond(HttpHeaders.IF_NONE_MATCH, "*");
+
+		assertNull(response.getBody());
+		assertEquals(document.getIdentityETag(), response.getHeaders().getETag());
+	}
+
+	@Test
+	void toResponseSkipsGzipWhenRejected() {
+		ResponseEntity<byte[]> response = respond(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0");
+
+		assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(document.getIdentityETag(), response.getHeaders().getETag());
+		assertEquals("{\"types\":{}}", new String(response.getBody()));
+	}
+
+	@Test
+	void toResponseUsesSeparateETagForGzippedBody() {
+		ResponseEntity<byte[]> response = respond(HttpHeaders.ACCEPT_ENCODING, "GZIP;q=0.5");
+
+		assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(document.getGzipETag(), response.getHeaders().getETag());
+	}
+
+	private ResponseEntity<byte[]> respond(String headerName, String headerValue) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(headerName, headerValue);
+		return document.toResponse(MediaType.APPLICATION_JSON, headers, null);
+	}
+}
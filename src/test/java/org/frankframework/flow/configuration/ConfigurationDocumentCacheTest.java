@@ -0,0 +1,149 @@
+package org.frankframework.flow.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+class ConfigurationDocumentCacheTest {
+
+	private static final FileTime FIXED_TIME = FileTime.from(Instant.parse("2026-01-01T00:00:00Z"));
+
+	@TempDir
+	private Path tempDir;
+
+	private ConfigurationDocumentCache cache;
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		cache = new ConfigurationDocumentCache();
+		file = tempDir.resolve("Configuration.xml");
+		write("<Configuration><Adapter name=\"A\"/></Configuration>");
+	}
+
+	@Test
+	void readReturnsIndependentCopies() throws Exception {
+		Document first = cache.read(file);
+		first.getDocumentElement().setAttribute("changed", "true");
+
+		Document second = cache.read(file);
+
+		assertNotSame(first, second);
+		assertFalse(second.getDocumentElement().hasAttribute("changed"));
+	}
+
+	@Test
+	void readReusesDocumentWhileFileIsUnchanged() throws Exception {
+		cache.read(file);
+
+		// Same size and modification time, so the cache cannot see the difference
+		write("<Configuration><Adapter name=\"B\"/></Configuration>");
+
+		assertEquals("A", firstAdapterName(cache.read(file)));
+	}
+
+	@Test
+	void readParsesFileAgainWhenItChanged() throws Exception {
+		cache.read(file);
+
+		write("<Configuration><Adapter name=\"Changed\"/></Configuration>");
+
+		assertEquals("Changed", firstAdapterName(cache.read(file)));
+	}
+
+	@Test
+	void updateMakesWrittenDocumentTheCachedVersion() throws Exception {
+		Document document = cache.read(file);
+		((Element) document.getElementsByTagName("Adapter").item(0)).setAttribute("name", "Updated");
+		write("<Configuration><Adapter name=\"Updated\"/></Configuration>");
+
+		cache.update(file, document);
+		// Rewriting with the same size and time must not trigger a parse that would reveal this content
+		write("<Configuration><Adapter name=\"Unparse\"/></Configuration>");
+
+		assertEquals("Updated", firstAdapterName(cache.read(file)));
+	}
+
+	@Test
+	void evictDropsDocumentsBelowDirectoryEvenWhenFilesLookUnchanged() throws Exception {
+		Path other = tempDir.resolve("Other.xml");
+		Files.writeString(other, "<Configuration><Adapter name=\"O\"/></Configuration>");
+		Files.setLastModifiedTime(other, FIXED_TIME);
+		cache.read(file);
+		cache.read(other);
+
+		// Same size and modification time: only the watcher can tell these files changed
+		write("<Configuration><Adapter name=\"B\"/></Configuration>");
+		Files.writeString(other, "<Configuration><Adapter name=\"P\"/></Configuration>");
+		Files.setLastModifiedTime(other, FIXED_TIME);
+		cache.evict(tempDir);
+
+		assertEquals("B", firstAdapterName(cache.read(file)));
+		assertEquals("P", firstAdapterName(cache.read(other)));
+	}
+
+	@Test
+	void readDoesNotTrustRecentModificationTime() throws Exception {
+		FileTime recent = FileTime.from(Instant.now());
+		Files.writeString(file, "<Configuration><Adapter name=\"A\"/></Configuration>");
+		Files.setLastModifiedTime(file, recent);
+		cache.read(file);
+
+		// Rewritten within the granularity of the modification time, with the same size
+		Files.writeString(file, "<Configuration><Adapter name=\"B\"/></Configuration>");
+		Files.setLastModifiedTime(file, recent);
+
+		assertEquals("B", firstAdapterName(cache.read(file)));
+	}
+
+	@Test
+	void updateDoesNotCacheRecentlyModifiedFile() throws Exception {
+		FileTime recent = FileTime.from(Instant.now());
+		Document document = cache.read(file);
+		((Element) document.getElementsByTagName("Adapter").item(0)).setAttribute("name", "Updated");
+		Files.writeString(file, "<Configuration><Adapter name=\"Updated\"/></Configuration>");
+		Files.setLastModifiedTime(file, recent);
+		cache.update(file, document);
+
+		// An outside edit right after the write, with the same size and modification time
+		Files.writeString(file, "<Configuration><Adapter name=\"Outside\"/></Configuration>");
+		Files.setLastModifiedTime(file, recent);
+
+		assertEquals("Outside", firstAdapterName(cache.read(file)));
+	}
+
+	@Test
+	void readAddsMissingFlowNamespace() throws Exception {
+		write("<Configuration><Adapter name=\"A\" flow:x=\"1\"/></Configuration>");
+
+		Document document = cache.read(file);
+
+		assertTrue(document.getDocumentElement().hasAttribute("xmlns:flow"));
+	}
+
+	@Test
+	void readFailsForMalformedXml() throws IOException {
+		write("<Configuration><Adapter>");
+
+		assertThrows(SAXException.class, () -> cache.read(file));
+	}
+
+	private void write(String content) throws IOException {
+		Files.writeString(file, content);
+		Files.setLastModifiedTime(file, FIXED_TIME);
+	}
+
+	private static String firstAdapterName(Document document) {
+		return ((Element) document.getElementsByTagName("Adapter").item(0)).getAttribute("name");
+	}
+}
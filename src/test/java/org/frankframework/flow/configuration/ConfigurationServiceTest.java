@@ -16,6 +16,7 @@ import org.frankframework.flow.exception.ApiException;
 import org.frankframework.flow.file.FileTreeService;
 import org.frankframework.flow.filesystem.FileSystemStorage;
 import org.frankframework.flow.frankconfig.FrankConfigXsdService;
+import org.frankframework.flow.frankconfig.XsdAttributeOrderService;
 import org.frankframework.flow.project.ConfigurationProject;
 import org.frankframework.flow.project.ConfigurationProjectService;
 import org.frankframework.flow.utility.XmlFormatterUtils;
@@ -47,6 +48,9 @@ class ConfigurationServiceTest {
 	@Mock
 	private FileTreeService fileTreeService;
 
+	@Mock
+	private XsdAttributeOrderService xsdAttributeOrderService;
+
 	private ConfigurationService configurationService;
 
 	@TempDir
@@ -54,7 +58,7 @@ class ConfigurationServiceTest {
 
 	@BeforeEach
 	void setUp() {
-		configurationService = new ConfigurationService(fileSystemStorage, configurationProjectService, frankConfigXsdService, fileTreeService);
+		configurationService = new ConfigurationService(fileSystemStorage, configurationProjectService, frankConfigXsdService, fileTreeService, new ConfigurationDocumentCache(), xsdAttributeOrderService);
 	}
 
 	private void stubToAbsolutePath() {
@@ -347,7 +351,7 @@ class ConfigurationServiceTest {
 
 		assertNotNull(result);
 		assertTrue(Files.exists(target), "NewConfig.xml should be created inside src/main/configurations");
-		verify(fileTreeService).invalidateTreeCache("myproject");
+		verify(fileTreeService).refreshTreePath("myproject", target.toString());
 	}
 
 	@Test
@@ -0,0 +1,138 @@
+package org.frankframework.flow.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AdapterIndexServiceTest {
+
+	private static final FileTime TRUSTED_MODIFICATION_TIME = FileTime.from(Instant.now().minus(Duration.ofHours(1)));
+
+	@TempDir
+	private Path tempDir;
+
+	private Path indexFile;
+	private AdapterIndexService adapterIndexService;
+
+	@BeforeEach
+	void setUp() {
+		indexFile = tempDir.resolve("index/adapter-index.json");
+		adapterIndexService = new AdapterIndexService(new ObjectMapper(), indexFile);
+	}
+
+	@Test
+	void getEntryReadsRootElementAndAdapterNames() throws IOException {
+		Path file = writeConfiguration("config.xml", "<Configuration><Adapter name=\"A\"/><Adapter name=\"B\"/></Configuration>");
+
+		AdapterIndexEntry entry = adapterIndexService.getEntry(file);
+
+		assertEquals("Configuration", entry.rootElement());
+		assertEquals(List.of("A", "B"), entry.adapterNames());
+	}
+
+	@Test
+	void getAdapterNamesReusesEntryWhenFileIsUnchanged() throws IOException {
+		Path file = writeConfiguration("config.xml", "<Configuration><Adapter name=\"A\"/></Configuration>");
+		assertEquals(List.of("A"), adapterIndexService.getAdapterNames(file));
+
+		// Same size and modification time: the index cannot tell the difference and must not read the file again
+		writeConfiguration("config.xml", "<Configuration><Adapter name=\"B\"/></Configuration>");
+
+		assertEquals(List.of("A"), adapterIndexService.getAdapterNames(file));
+	}
+
+	@Test
+	void getAdapterNamesRereadsChangedFile() throws IOException {
+		Path file = writeConfiguration("config.xml", "<Configuration><Adapter name=\"A\"/></Configuration>");
+		assertEquals(List.of("A"), adapterIndexService.getAdapterNames(file));
+
+		writeConfiguration("config.xml", "<Configuration><Adapter name=\"Renamed\"/></Configuration>");
+
+		assertEquals(List.of("Renamed"), adapterIndexService.getAdapterNames(file));
+	}
+
+	@Test
+	void getAdapterNamesDoesNotIndexRecentlyModifiedFile() throws IOException {
+		Path file = tempDir.resolve("config.xml");
+		Files.writeString(file, "<Configuration><Adapter name=\"A\"/></Configuration>");
+		assertEquals(List.of("A"), adapterIndexService.getAdapterNames(file));
+
+		Files.writeString(file, "<Configuration><Adapter name=\"B\"/></Configuration>");
+
+		assertEquals(List.of("B"), adapterIndexService.getAdapterNames(file));
+	}
+
+	@Test
+	void getAdapterNamesReturnsEmptyListForInvalidXml() throws IOException {
+		Path file = writeConfiguration("broken.xml", "<Configuration><Adapter name=\"A\">");
+
+		assertEquals(List.of(), adapterIndexService.getAdapterNames(file));
+	}
+
+	@Test
+	void getAdapterNamesReturnsEmptyListForMissingFile() {
+		assertEquals(List.of(), adapterIndexService.getAdapterNames(tempDir.resolve("missing.xml")));
+	}
+
+	@Test
+	void flushedIndexIsLoadedOnStartup() throws IOException {
+		Path file = writeConfiguration("config.xml", "<Configuration><Adapter name=\"A\"/></Configuration>");
+		Path deletedFile = writeConfiguration("deleted.xml", "<Configuration><Adapter name=\"Gone\"/></Configuration>");
+		adapterIndexService.getAdapterNames(file);
+		adapterIndexService.getAdapterNames(deletedFile);
+		adapterIndexService.flush();
+		Files.delete(deletedFile);
+
+		AdapterIndexService reloaded = new AdapterIndexService(new ObjectMapper(), indexFile);
+		reloaded.load();
+		writeConfiguration("config.xml", "<Configuration><Adapter name=\"B\"/></Configuration>");
+
+		assertTrue(Files.exists(indexFile));
+		assertEquals(List.of("A"), reloaded.getAdapterNames(file));
+	}
+
+	@Test
+	void evictDropsEntriesBelowDirectoryFromFlushedIndex() throws IOException {
+		Files.createDirectories(tempDir.resolve("renamed"));
+		Path kept = writeConfiguration("config.xml", "<Configuration><Adapter name=\"A\"/></Configuration>");
+		Path moved = writeConfiguration("renamed/config.xml", "<Configuration><Adapter name=\"M\"/></Configuration>");
+		adapterIndexService.getAdapterNames(kept);
+		adapterIndexService.getAdapterNames(moved);
+		adapterIndexService.flush();
+
+		adapterIndexService.evict(tempDir.resolve("renamed"));
+		adapterIndexService.flush();
+
+		String stored = Files.readString(indexFile);
+		assertTrue(stored.contains(kept.toAbsolutePath().normalize().toString()));
+		assertFalse(stored.contains(moved.toAbsolutePath().normalize().toString()));
+	}
+
+	@Test
+	void loadIgnoresCorruptIndex() throws IOException {
+		Files.createDirectories(indexFile.getParent());
+		Files.writeString(indexFile, "not json");
+		Path file = writeConfiguration("config.xml", "<Configuration><Adapter name=\"A\"/></Configuration>");
+
+		adapterIndexService.load();
+
+		assertEquals(List.of("A"), adapterIndexService.getAdapterNames(file));
+	}
+
+	private Path writeConfiguration(String fileName, String content) throws IOException {
+		Path file = tempDir.resolve(fileName);
+		Files.writeString(file, content);
+		Files.setLastModifiedTime(file, TRUSTED_MODIFICATION_TIME);
+		return file;
+	}
+}
@@ -0,0 +1,73 @@
+package org.frankframework.flow.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectoryPollerTest {
+
+	@TempDir
+	private Path tempDir;
+
+	@Test
+	void pollReportsCreatedModifiedAndDeletedEntries() throws IOException {
+		Path modified = Files.writeString(tempDir.resolve("modified.xml"), "<Configuration/>");
+		Path deleted = Files.writeString(tempDir.resolve("deleted.xml"), "<Configuration/>");
+		DirectoryPoller poller = new DirectoryPoller(tempDir, true, new IgnoredDirectories(List.of()));
+
+		Path createdDirectory = Files.createDirectories(tempDir.resolve("nested"));
+		Path created = Files.writeString(createdDirectory.resolve("created.xml"), "<Configuration/>");
+		Files.writeString(modified, "<Configuration><Adapter name=\"A\"/></Configuration>");
+		Files.delete(deleted);
+
+		List<FileChange> changes = poller.poll();
+
+		assertEquals(4, changes.size());
+		assertTrue(changes.contains(new FileChange(createdDirectory, FileChangeType.CREATED)));
+		assertTrue(changes.contains(new FileChange(created, FileChangeType.CREATED)));
+		assertTrue(changes.contains(new FileChange(modified, FileChangeType.MODIFIED)));
+		assertTrue(changes.contains(new FileChange(deleted, FileChangeType.DELETED)));
+		assertEquals(List.of(), poller.poll());
+	}
+
+	@Test
+	void pollNoticesModificationTimeWithoutSizeChange() throws IOException {
+		Path file = Files.writeString(tempDir.resolve("config.xml"), "<Configuration/>");
+		Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-01T00:00:00Z")));
+		DirectoryPoller poller = new DirectoryPoller(tempDir, true, new IgnoredDirectories(List.of()));
+
+		Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-02T00:00:00Z")));
+
+		assertEquals(List.of(new FileChange(file, FileChangeType.MODIFIED)), poller.poll());
+	}
+
+	@Test
+	void pollSkipsIgnoredDirectories() throws IOException {
+		Files.createDirectories(tempDir.resolve("target"));
+		Files.createDirectories(tempDir.resolve("build"));
+		DirectoryPoller poller = new DirectoryPoller(tempDir, true, new IgnoredDirectories(List.of("build")));
+
+		Files.writeString(tempDir.resolve("target/output.xml"), "<Configuration/>");
+		Files.writeString(tempDir.resolve("build/output.xml"), "<Configuration/>");
+
+		assertEquals(List.of(), poller.poll());
+	}
+
+	@Test
+	void pollWithoutRecursionOnlyReportsDirectChildren() throws IOException {
+		Path directory = Files.createDirectories(tempDir.resolve("nested"));
+		DirectoryPoller poller = new DirectoryPoller(tempDir, false, new IgnoredDirectories(List.of()));
+
+		Files.writeString(directory.resolve("deep.xml"), "<Configuration/>");
+		Path file = Files.writeString(tempDir.resolve("shallow.xml"), "<Configuration/>");
+
+		assertEquals(List.of(new FileChange(file, FileChangeType.CREATED)), poller.poll());
+	}
+}
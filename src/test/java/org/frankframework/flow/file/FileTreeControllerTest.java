@@ -1,23 +1,33 @@
 package org.frankframework.flow.file;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import org.frankframework.flow.exception.ApiException;
+import org.frankframework.flow.sse.SseClient;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @WebMvcTest(FileTreeController.class)
@@ -53,6 +63,41 @@ class FileTreeControllerTest {
 		verify(fileTreeService).getProjectTree("MyProject");
 	}
 
+	@Test
+	void streamProjectTreeWritesStreamedBody() throws Exception {
+		when(fileTreeService.streamProjectTree("MyProject"))
+				.thenReturn(outputStream -> outputStream.write("{\"name\":\"MyProject\",\"projectRoot\":true}".getBytes(StandardCharsets.UTF_8)));
+
+		MvcResult result = mockMvc.perform(get("/api/projects/MyProject/tree/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("MyProject"))
+				.andExpect(jsonPath("$.projectRoot").value(true));
+	}
+
+	@Test
+	void getDirectoryPagePassesPagingParameters() throws Exception {
+		FileTreeNode page = new FileTreeNode();
+		page.setName("big");
+		page.setType(NodeType.DIRECTORY);
+		page.setChildren(List.of());
+		page.setNextCursor("ZmlsZTA5");
+
+		when(fileTreeService.getDirectoryPage("MyProject", "big", 2, 50, "ZmlsZTAw", false)).thenReturn(page);
+
+		mockMvc.perform(get("/api/projects/MyProject/tree/page")
+						.param("path", "big")
+						.param("maxDepth", "2")
+						.param("pageSize", "50")
+						.param("cursor", "ZmlsZTAw"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("big"))
+				.andExpect(jsonPath("$.nextCursor").value("ZmlsZTA5"));
+	}
+
 	@Test
 	void getConfigurationTreeUsesShallowServiceWhenRequested() throws Exception {
 		FileTreeNode treeNode = new FileTreeNode();
@@ -138,14 +183,33 @@ class FileTreeControllerTest {
 
 	@Test
 	void watchProject_returnsEventStream() throws Exception {
-		when(fileWatcherService.subscribeToProject("MyProject")).thenReturn(new SseEmitter());
+		when(fileWatcherService.subscribeToProject(eq("MyProject"), any(SseClient.class))).thenReturn(new SseEmitter());
 
 		mockMvc.perform(get("/api/projects/MyProject/watch"))
 				.andExpect(status().isOk())
 				.andExpect(header().string("Content-Type", containsString("text/event-stream")));
 
-		verify(fileWatcherService).subscribeToProject("MyProject");
-}
+		verify(fileWatcherService).subscribeToProject(eq("MyProject"), argThat(client -> client.sessionId() != null && client.lastEventId() == null));
+	}
+
+	@Test
+	void watchProject_reconnect_passesLastEventId() throws Exception {
+		when(fileWatcherService.subscribeToProject(eq("MyProject"), any(SseClient.class))).thenReturn(new SseEmitter());
+
+		mockMvc.perform(get("/api/projects/MyProject/watch").header(SseClient.LAST_EVENT_ID_HEADER, "42-7"))
+				.andExpect(status().isOk());
+
+		verify(fileWatcherService).subscribeToProject(eq("MyProject"), argThat(client -> "42-7".equals(client.lastEventId())));
+	}
+
+	@Test
+	void watchProject_tooManySubscribers_returnsTooManyRequests() throws Exception {
+		when(fileWatcherService.subscribeToProject(eq("MyProject"), any(SseClient.class)))
+				.thenThrow(new ApiException("Too many subscriptions for this session", HttpStatus.TOO_MANY_REQUESTS));
+
+		mockMvc.perform(get("/api/projects/MyProject/watch"))
+				.andExpect(status().isTooManyRequests());
+	}
 
 	void getAncestorPathReturnsSparseTreeNode() throws Exception {
 		FileTreeNode spineChild = new FileTreeNode();
@@ -2,19 +2,28 @@ package org.frankframework.flow.file;
 
 import static org.junit.Assert.assertSame;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import org.frankframework.flow.exception.ApiException;
 import org.frankframework.flow.filesystem.FileSystemStorage;
+import org.frankframework.flow.filesystem.ProjectScanner;
 import org.frankframework.flow.project.ConfigurationProject;
 import org.frankframework.flow.project.ConfigurationProjectService;
+import org.frankframework.flow.utility.PathUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,6 +32,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @ExtendWith(MockitoExtension.class)
 public class FileTreeServiceTest {
@@ -45,7 +56,11 @@ public class FileTreeServiceTest {
 		FileService fileService = new FileService(configurationProjectService, fileSystemStorage, fileTreeService);
 		tempProjectRoot = Files.createTempDirectory("flow_unit_test");
 		tempConfigurationRoot = tempProjectRoot.resolve("src/main/configurations/"+TEST_PROJECT_NAME);
-		fileTreeService = new FileTreeService(configurationProjectService, fileSystemStorage, fileService);
+		AdapterIndexService adapterIndexService = new AdapterIndexService(new ObjectMapper(), tempProjectRoot.resolveSibling(tempProjectRoot.getFileName() + "-index.json"));
+		fileTreeService = new FileTreeService(configurationProjectService, fileSystemStorage, fileService, adapterIndexService);
+		ReflectionTestUtils.setField(fileTreeService, "treeBuildParallelism", 4);
+		lenient().when(configurationProjectService.scanProject(any(), any(), anyInt()))
+				.thenAnswer(invocation -> ProjectScanner.scan(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
 	}
 
 	@AfterEach
@@ -144,6 +159,27 @@ public class FileTreeServiceTest {
 		assertTrue(node.getChildren().stream().anyMatch(childNode -> childNode.getName().equals("readme.txt")));
 	}
 
+	@Test
+	public void getShallowDirectoryTreeListsBrokenSymlinkAsFile() throws IOException, ApiException {
+		stubToAbsolutePath();
+		Files.writeString(tempProjectRoot.resolve("config1.xml"), "<config/>");
+		try {
+			Files.createSymbolicLink(tempProjectRoot.resolve("broken.xml"), tempProjectRoot.resolve("missing.xml"));
+		} catch (UnsupportedOperationException | IOException exception) {
+			assumeTrue(false, "Symbolic links are not supported: " + exception.getMessage());
+		}
+
+		ConfigurationProject configurationProject =
+				new ConfigurationProject(TEST_PROJECT_NAME, tempProjectRoot.toAbsolutePath().toString());
+		when(configurationProjectService.getProject(TEST_PROJECT_NAME)).thenReturn(configurationProject);
+
+		FileTreeNode node = fileTreeService.getShallowDirectoryTree(TEST_PROJECT_NAME, ".");
+
+		assertEquals(2, node.getChildren().size());
+		assertTrue(node.getChildren().stream().anyMatch(child -> child.getName().equals("config1.xml")));
+		assertTrue(node.getChildren().stream().anyMatch(child -> child.getName().equals("broken.xml") && child.getType() == NodeType.FILE));
+	}
+
 	@Test
 	@DisplayName("Studio directory tree should strip non-configuration files but keep subfolders")
 	public void getShallowStudioDirectoryTreeFiltersNonConfigurationFiles() throws IOException, ApiException {
@@ -360,7 +396,7 @@ public class FileTreeServiceTest {
 		fileTreeService.invalidateTreeCache();
 		fileTreeService.getProjectTree(TEST_PROJECT_NAME);
 
-		verify(configurationProjectService, times(2)).getProject(TEST_PROJECT_NAME);
+		verify(configurationProjectService, times(2)).scanProject(any(), any(), anyInt());
 	}
 
 	@Test
@@ -377,7 +413,7 @@ public class FileTreeServiceTest {
 		fileTreeService.invalidateTreeCache(TEST_PROJECT_NAME);
 		fileTreeService.getProjectTree(TEST_PROJECT_NAME);
 
-		verify(configurationProjectService, times(2)).getProject(TEST_PROJECT_NAME);
+		verify(configurationProjectService, times(2)).scanProject(any(), any(), anyInt());
 	}
 
 	@Test
@@ -394,7 +430,241 @@ public class FileTreeServiceTest {
 		FileTreeNode second = fileTreeService.getProjectTree(TEST_PROJECT_NAME);
 
 		assertSame(first, second);
-		verify(configurationProjectService, times(1)).getProject(TEST_PROJECT_NAME);
+		verify(configurationProjectService, times(1)).scanProject(any(), any(), anyInt());
+	}
+
+	@Test
+	@DisplayName("Should patch the cached tree for created, modified and deleted files without rebuilding it")
+	void applyFileChanges_PatchesCachedTree() throws IOException, ApiException {
+		stubToAbsolutePath();
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(true);
+
+		Path modified = Files.writeString(tempProjectRoot.resolve("modified.xml"), "<Configuration><Adapter name=\"Old\"/></Configuration>");
+		Path deleted = Files.writeString(tempProjectRoot.resolve("deleted.xml"), "<Configuration/>");
+
+		ConfigurationProject configurationProject =
+				new ConfigurationProject(TEST_PROJECT_NAME, tempProjectRoot.toAbsolutePath().toString());
+		when(configurationProjectService.getProject(TEST_PROJECT_NAME)).thenReturn(configurationProject);
+
+		FileTreeNode tree = fileTreeService.getProjectTree(TEST_PROJECT_NAME);
+
+		Files.writeString(modified, "<Configuration><Adapter name=\"New\"/></Configuration>");
+		Files.delete(deleted);
+		Path created = Files.writeString(tempProjectRoot.resolve("created.xml"), "<Configuration><Adapter name=\"Created\"/></Configuration>");
+
+		fileTreeService.applyFileChanges(TEST_PROJECT_NAME, List.of(
+				new FileChange(modified, FileChangeType.MODIFIED),
+				new FileChange(deleted, FileChangeType.DELETED),
+				new FileChange(created, FileChangeType.CREATED)
+		));
+
+		assertSame(tree, fileTreeService.getProjectTree(TEST_PROJECT_NAME));
+		verify(configurationProjectService, times(1)).scanProject(any(), any(), anyInt());
+		assertEquals(List.of("New"), findChild(tree, "modified.xml").getAdapterNames());
+		assertEquals(List.of("Created"), findChild(tree, "created.xml").getAdapterNames());
+		assertTrue(tree.getChildren().stream().noneMatch(n -> n.getName().equals("deleted.xml")));
+	}
+
+	@Test
+	@DisplayName("Should add a created directory to the cached tree including the files inside it")
+	void applyFileChanges_CreatedDirectory_AddsSubtree() throws IOException, ApiException {
+		stubToAbsolutePath();
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(true);
+
+		ConfigurationProject configurationProject =
+				new ConfigurationProject(TEST_PROJECT_NAME, tempProjectRoot.toAbsolutePath().toString());
+		when(configurationProjectService.getProject(TEST_PROJECT_NAME)).thenReturn(configurationProject);
+
+		FileTreeNode tree = fileTreeService.getProjectTree(TEST_PROJECT_NAME);
+
+		Path nested = Files.createDirectories(tempProjectRoot.resolve("dir1/dir2"));
+		Path file = Files.writeString(nested.resolve("config.xml"), "<Configuration/>");
+
+		fileTreeService.applyFileChanges(TEST_PROJECT_NAME, List.of(new FileChange(file, FileChangeType.CREATED)));
+
+		FileTreeNode dir2 = findChild(findChild(tree, "dir1"), "dir2");
+		assertEquals(NodeType.DIRECTORY, dir2.getType());
+		assertEquals("config.xml", dir2.getChildren().getFirst().getName());
+	}
+
+	@Test
+	@DisplayName("Should build the same tree in parallel as sequentially")
+	void getProjectTree_ParallelBuild_MatchesSequentialBuild() throws IOException, ApiException {
+		stubToAbsolutePath();
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(true);
+
+		for (int i = 0; i < 5; i++) {
+			Path dir = Files.createDirectories(tempProjectRoot.resolve("dir" + i).resolve("nested"));
+			for (int j = 0; j < 5; j++) {
+				Files.writeString(dir.resolve("config" + j + ".xml"), "<Configuration><Adapter name=\"Adapter" + i + j + "\"/></Configuration>");
+			}
+			Files.writeString(dir.getParent().resolve("notes.txt"), "notes");
+		}
+
+		ConfigurationProject configurationProject = new ConfigurationProject(TEST_PROJECT_NAME, tempProjectRoot.toAbsolutePath().toString());
+		when(configurationProjectService.getProject(TEST_PROJECT_NAME)).thenReturn(configurationProject);
+
+		List<String> parallel = flatten(fileTreeService.getProjectTree(TEST_PROJECT_NAME));
+		fileTreeService.invalidateTreeCache();
+		ReflectionTestUtils.setField(fileTreeService, "treeBuildParallelism", 1);
+		List<String> sequential = flatten(fileTreeService.getProjectTree(TEST_PROJECT_NAME));
+
+		assertEquals(sequential, parallel);
+		assertTrue(parallel.contains(PathUtils.toForwardSlash(tempProjectRoot.resolve("dir3/nested/config2.xml").toAbsolutePath().toString()) + " FILE [Adapter32]"));
+	}
+
+	@Test
+	@DisplayName("Should stream the same JSON as the built tree, before and after it is cached")
+	void streamProjectTree_MatchesSerializedTree() throws IOException, ApiException {
+		stubToAbsolutePath();
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(false);
+
+		Path dir = Files.createDirectories(tempProjectRoot.resolve("dir1/nested"));
+		Files.writeString(dir.resolve("config.xml"), "<Configuration><Adapter name=\"A\"/></Configuration>");
+		Files.writeString(tempProjectRoot.resolve("notes.txt"), "notes");
+		Files.createDirectories(tempProjectRoot.resolve("empty"));
+		Files.createDirectories(tempProjectRoot.resolve("node_modules/ignored"));
+
+		ConfigurationProject configurationProject = new ConfigurationProject(TEST_PROJECT_NAME, tempProjectRoot.toAbsolutePath().toString());
+		when(configurationProjectService.getProject(TEST_PROJECT_NAME)).thenReturn(configurationProject);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		JsonNode streamed = objectMapper.readTree(stream(fileTreeService.streamProjectTree(TEST_PROJECT_NAME)));
+		JsonNode built = objectMapper.valueToTree(fileTreeService.getProjectTree(TEST_PROJECT_NAME));
+		JsonNode streamedFromCache = objectMapper.readTree(stream(fileTreeService.streamProjectTree(TEST_PROJECT_NAME)));
+
+		assertEquals(built, streamed);
+		assertEquals(built, streamedFromCache);
+		assertTrue(streamed.get("projectRoot").asBoolean());
+		verify(configurationProjectService, times(1)).scanProject(any(), any(), anyInt());
+	}
+
+	@Test
+	@DisplayName("Should fail before streaming when the project does not exist")
+	void streamProjectTree_ProjectMissing_ThrowsIllegalArgument() throws ApiException {
+		when(configurationProjectService.getProject("Unknown")).thenThrow(new ApiException("err", HttpStatus.NOT_FOUND));
+
+		assertThrows(IllegalArgumentException.class, () -> fileTreeService.streamProjectTree("Unknown"));
+	}
+
+	@Test
+	@DisplayName("Should page through a large directory in name order without gaps or duplicates")
+	void getDirectoryPage_PagesThroughDirectoryInNameOrder() throws IOException, ApiException {
+		stubToAbsolutePath();
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(true);
+		for (int i = 24; i >= 0; i--) {
+			Files.writeString(tempProjectRoot.resolve(String.format("file%02d.txt", i)), "content");
+		}
+		ConfigurationProject configurationProject = new ConfigurationProject(TEST_PROJECT_NAME, tempProjectRoot.toAbsolutePath().toString());
+		when(configurationProjectService.getProject(TEST_PROJECT_NAME)).thenReturn(configurationProject);
+
+		List<String> names = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			FileTreeNode page = fileTreeService.getDirectoryPage(TEST_PROJECT_NAME, null, 1, 10, cursor, false);
+			assertTrue(page.isProjectRoot());
+			page.getChildren().forEach(child -> names.add(child.getName()));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(25, names.size());
+		assertEquals(names.stream().sorted().toList(), names);
+		assertEquals("file00.txt", names.getFirst());
+	}
+
+	@Test
+	@DisplayName("Should expand subdirectories up to maxDepth and read adapter names only when asked")
+	void getDirectoryPage_ExpandsToMaxDepth() throws IOException, ApiException {
+		stubToAbsolutePath();
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(true);
+		Path nested = Files.createDirectories(tempProjectRoot.resolve("dir1/dir2"));
+		Files.writeString(tempProjectRoot.resolve("dir1/config.xml"), "<Configuration><Adapter name=\"A\"/></Configuration>");
+		Files.writeString(nested.resolve("deep.xml"), "<Configuration/>");
+		ConfigurationProject configurationProject = new ConfigurationProject(TEST_PROJECT_NAME, tempProjectRoot.toAbsolutePath().toString());
+		when(configurationProjectService.getProject(TEST_PROJECT_NAME)).thenReturn(configurationProject);
+
+		FileTreeNode withoutAdapterNames = fileTreeService.getDirectoryPage(TEST_PROJECT_NAME, null, 2, 10, null, false);
+		FileTreeNode withAdapterNames = fileTreeService.getDirectoryPage(TEST_PROJECT_NAME, null, 2, 10, null, true);
+
+		FileTreeNode dir1 = findChild(withoutAdapterNames, "dir1");
+		assertNull(findChild(dir1, "config.xml").getAdapterNames());
+		assertEquals(NodeType.DIRECTORY, findChild(dir1, "dir2").getType());
+		assertNull(findChild(dir1, "dir2").getChildren());
+		assertNull(dir1.getNextCursor());
+		assertEquals(List.of("A"), findChild(findChild(withAdapterNames, "dir1"), "config.xml").getAdapterNames());
+	}
+
+	@Test
+	@DisplayName("Should reject invalid paging parameters")
+	void getDirectoryPage_InvalidParameters_ThrowsIllegalArgument() {
+		assertThrows(IllegalArgumentException.class, () -> fileTreeService.getDirectoryPage(TEST_PROJECT_NAME, null, 0, 10, null, false));
+		assertThrows(IllegalArgumentException.class, () -> fileTreeService.getDirectoryPage(TEST_PROJECT_NAME, null, 1, 0, null, false));
+	}
+
+	@Test
+	@DisplayName("Should reject a cursor that was not handed out")
+	void getDirectoryPage_MalformedCursor_ThrowsIllegalArgument() throws ApiException {
+		stubToAbsolutePath();
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(true);
+		ConfigurationProject configurationProject = new ConfigurationProject(TEST_PROJECT_NAME, tempProjectRoot.toAbsolutePath().toString());
+		when(configurationProjectService.getProject(TEST_PROJECT_NAME)).thenReturn(configurationProject);
+
+		assertThrows(IllegalArgumentException.class, () -> fileTreeService.getDirectoryPage(TEST_PROJECT_NAME, null, 1, 10, "not base64!", false));
+	}
+
+	private static byte[] stream(StreamingResponseBody body) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		body.writeTo(outputStream);
+		return outputStream.toByteArray();
+	}
+
+	@Test
+	@DisplayName("Should ignore changes for projects that have no cached tree")
+	void applyFileChanges_NoCachedTree_DoesNothing() throws IOException, ApiException {
+		stubToAbsolutePath();
+		ConfigurationProject configurationProject =
+				new ConfigurationProject(TEST_PROJECT_NAME, tempProjectRoot.toAbsolutePath().toString());
+		when(configurationProjectService.getProject(TEST_PROJECT_NAME)).thenReturn(configurationProject);
+
+		fileTreeService.applyFileChanges(TEST_PROJECT_NAME, List.of(
+				new FileChange(tempProjectRoot.resolve("file.xml"), FileChangeType.CREATED)));
+
+		verify(configurationProjectService, never()).scanProject(any(), any(), anyInt());
+	}
+
+	@Test
+	@DisplayName("Should cache the trees of projects with the same name in different workspaces separately")
+	void getProjectTree_SameNameInOtherWorkspace_HasOwnCachedTree() throws IOException, ApiException {
+		stubToAbsolutePath();
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(false);
+
+		Path rootA = Files.createDirectories(tempProjectRoot.resolve("session-a/proj"));
+		Path rootB = Files.createDirectories(tempProjectRoot.resolve("session-b/proj"));
+		Files.writeString(rootA.resolve("a.xml"), "<Configuration/>");
+		Files.writeString(rootB.resolve("b.xml"), "<Configuration/>");
+		ConfigurationProject projectA = new ConfigurationProject("proj", rootA.toString());
+		ConfigurationProject projectB = new ConfigurationProject("proj", rootB.toString());
+
+		when(configurationProjectService.getProject("proj")).thenReturn(projectA);
+		FileTreeNode treeA = fileTreeService.getProjectTree("proj");
+		when(configurationProjectService.getProject("proj")).thenReturn(projectB);
+		FileTreeNode treeB = fileTreeService.getProjectTree("proj");
+
+		assertNotSame(treeA, treeB);
+		assertTrue(hasChild(treeB, "b.xml"));
+		assertFalse(hasChild(treeB, "a.xml"));
+
+		// A poller of workspace A has no session, so it patches the tree by the path of the project
+		Path created = Files.writeString(rootA.resolve("created.xml"), "<Configuration/>");
+		fileTreeService.applyFileChanges(rootA, List.of(new FileChange(created, FileChangeType.CREATED)));
+
+		when(configurationProjectService.getProject("proj")).thenReturn(projectA);
+		assertSame(treeA, fileTreeService.getProjectTree("proj"));
+		assertTrue(hasChild(treeA, "created.xml"));
+		assertFalse(hasChild(treeB, "created.xml"));
 	}
 
 	@Test
@@ -770,6 +1040,26 @@ public class FileTreeServiceTest {
 		assertEquals(NodeType.DIRECTORY, nestedNode.getType());
 	}
 
+	private static List<String> flatten(FileTreeNode node) {
+		List<String> lines = new ArrayList<>();
+		lines.add(node.getPath() + " " + node.getType() + (node.getAdapterNames() != null ? " " + node.getAdapterNames() : ""));
+		if (node.getChildren() != null) {
+			node.getChildren().forEach(child -> lines.addAll(flatten(child)));
+		}
+		return lines;
+	}
+
+	private static boolean hasChild(FileTreeNode parent, String name) {
+		return parent.getChildren().stream().anyMatch(child -> child.getName().equals(name));
+	}
+
+	private static FileTreeNode findChild(FileTreeNode parent, String name) {
+		return parent.getChildren().stream()
+				.filter(child -> child.getName().equals(name))
+				.findFirst()
+				.orElseThrow();
+	}
+
 	private void stubCreateProjectDirectory() throws IOException {
 		when(fileSystemStorage.createProjectDirectory(anyString())).thenAnswer(invocation -> {
 			String path = invocation.getArgument(0);
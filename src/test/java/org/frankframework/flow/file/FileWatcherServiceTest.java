@@ -1,30 +1,58 @@
 package org.frankframework.flow.file;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.frankframework.flow.configuration.ConfigurationDocumentCache;
 import org.frankframework.flow.filesystem.FileSystemStorage;
 import org.frankframework.flow.project.ConfigurationProject;
 import org.frankframework.flow.project.ConfigurationProjectService;
+import org.frankframework.flow.sse.LocalSseEventBus;
 import org.frankframework.flow.sse.SseChannelService;
+import org.frankframework.flow.sse.SseClient;
+import org.frankframework.flow.sse.SseProperties;
+import org.frankframework.flow.utility.PathUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @ExtendWith(MockitoExtension.class)
 class FileWatcherServiceTest {
 
+	private static final SseClient CLIENT = new SseClient(null, null);
+
 	@Mock
 	private FileSystemStorage fileSystemStorage;
 
@@ -34,6 +62,9 @@ class FileWatcherServiceTest {
 	@Mock
 	private ConfigurationProjectService configurationProjectService;
 
+	@Mock
+	private AdapterIndexService adapterIndexService;
+
 	private FileWatcherService service;
 	private Path tempDir;
 
@@ -41,7 +72,7 @@ class FileWatcherServiceTest {
 	void setUp() throws IOException {
 		tempDir = Files.createTempDirectory("file-watcher-test");
 		when(fileSystemStorage.isLocalEnvironment()).thenReturn(true);
-		service = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, new SseChannelService());
+		service = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()), new ConfigurationDocumentCache(), adapterIndexService, new FileWatcherProperties(null, null, null, null, null));
 		service.start();
 	}
 
@@ -60,15 +91,65 @@ class FileWatcherServiceTest {
 	}
 
 	@Test
-	void cloudEnvironment_doesNotStartWatchService() {
+	void cloudEnvironment_pollsSubscribedProjects() throws Exception {
 		when(fileSystemStorage.isLocalEnvironment()).thenReturn(false);
-		FileWatcherService cloudService = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, new SseChannelService());
+		FileWatcherProperties properties = new FileWatcherProperties(null, null, Duration.ofMillis(100), Duration.ofMillis(200), null);
+		FileWatcherService cloudService = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()), new ConfigurationDocumentCache(), adapterIndexService, properties);
 		cloudService.start();
+		ConfigurationProject project = new ConfigurationProject("project", tempDir.toString());
+		when(configurationProjectService.getProject("project")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
 
-		SseEmitter emitter = cloudService.subscribeToProject("project");
-		cloudService.stop();
+		try {
+			assertNotNull(cloudService.subscribeToProject("project", CLIENT));
+			// Wait for the interval to back off before changing anything
+			Thread.sleep(500);
+			Path file = tempDir.resolve("polled.xml");
+			Files.writeString(file, "<Configuration/>");
+
+			verify(fileTreeService, timeout(2000)).applyFileChanges(eq(tempDir),
+					argThat(changes -> changes.contains(new FileChange(file, FileChangeType.CREATED))));
+		} finally {
+			cloudService.stop();
+		}
+	}
 
-		assertNotNull(emitter);
+	@Test
+	void cloudEnvironment_slowPollDoesNotDelayOtherProjects() throws Exception {
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(false);
+		FileWatcherProperties properties = new FileWatcherProperties(null, null, Duration.ofMillis(100), Duration.ofMillis(200), null);
+		FileWatcherService cloudService = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()), new ConfigurationDocumentCache(), adapterIndexService, properties);
+		cloudService.start();
+		Path slowRoot = Files.createDirectories(tempDir.resolve("slow"));
+		Path fastRoot = Files.createDirectories(tempDir.resolve("fast"));
+		Path slowFile = Files.writeString(slowRoot.resolve("deleted.xml"), "<Configuration/>");
+		when(configurationProjectService.getProject("slow")).thenReturn(new ConfigurationProject("slow", slowRoot.toString()));
+		when(configurationProjectService.getProject("fast")).thenReturn(new ConfigurationProject("fast", fastRoot.toString()));
+		when(fileSystemStorage.toAbsolutePath(slowRoot.toString())).thenReturn(slowRoot);
+		when(fileSystemStorage.toAbsolutePath(fastRoot.toString())).thenReturn(fastRoot);
+		CountDownLatch slowPollBlocked = new CountDownLatch(1);
+		CountDownLatch releaseSlowPoll = new CountDownLatch(1);
+		doAnswer(_ -> {
+			slowPollBlocked.countDown();
+			releaseSlowPoll.await();
+			return null;
+		}).when(adapterIndexService).evict(slowFile);
+
+		try {
+			cloudService.subscribeToProject("slow", CLIENT);
+			cloudService.subscribeToProject("fast", CLIENT);
+			// The poll of the slow project hangs while it handles the deleted file
+			Files.delete(slowFile);
+			assertTrue(slowPollBlocked.await(2, TimeUnit.SECONDS));
+
+			Path fastFile = Files.writeString(fastRoot.resolve("created.xml"), "<Configuration/>");
+
+			verify(fileTreeService, timeout(2000)).applyFileChanges(eq(fastRoot),
+					argThat(changes -> changes.contains(new FileChange(fastFile, FileChangeType.CREATED))));
+		} finally {
+			releaseSlowPoll.countDown();
+			cloudService.stop();
+		}
 	}
 
 	@Test
@@ -77,14 +158,14 @@ class FileWatcherServiceTest {
 		when(configurationProjectService.getProject("test")).thenReturn(project);
 		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
 
-		SseEmitter emitter = service.subscribeToProject("test");
+		SseEmitter emitter = service.subscribeToProject("test", CLIENT);
 
 		assertNotNull(emitter);
 	}
 
 	@Test
 	void subscribeToPath_returnsEmitter() throws IOException {
-		SseEmitter emitter = service.subscribeToPath(tempDir);
+		SseEmitter emitter = service.subscribeToPath(tempDir, CLIENT);
 
 		assertNotNull(emitter);
 	}
@@ -95,11 +176,11 @@ class FileWatcherServiceTest {
 		when(configurationProjectService.getProject("test")).thenReturn(project);
 		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
 
-		service.subscribeToProject("test");
+		service.subscribeToProject("test", CLIENT);
 
 		Files.writeString(tempDir.resolve("new-file.xml"), "<Configuration/>");
 
-		verify(fileTreeService, after(2000).atLeastOnce()).invalidateTreeCache("test");
+		verify(fileTreeService, after(2000).atLeastOnce()).applyFileChanges(eq(tempDir), anyCollection());
 	}
 
 	@Test
@@ -108,12 +189,12 @@ class FileWatcherServiceTest {
 		when(configurationProjectService.getProject("test")).thenReturn(project);
 		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
 
-		service.subscribeToProject("test");
+		service.subscribeToProject("test", CLIENT);
 
 		Path subDir = Files.createDirectory(tempDir.resolve("subdir"));
 		Files.writeString(subDir.resolve("config.xml"), "<Configuration/>");
 
-		verify(fileTreeService, after(2000).atLeastOnce()).invalidateTreeCache("test");
+		verify(fileTreeService, after(2000).atLeastOnce()).applyFileChanges(eq(tempDir), anyCollection());
 	}
 
 	@Test
@@ -125,12 +206,12 @@ class FileWatcherServiceTest {
 		when(configurationProjectService.getProject("test")).thenReturn(project);
 		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
 
-		service.subscribeToProject("test");
+		service.subscribeToProject("test", CLIENT);
 
 		Files.writeString(gitDir.resolve("HEAD"), "ref: refs/heads/main");
 		Files.writeString(targetDir.resolve("output.class"), "bytecode");
 
-		verify(fileTreeService, after(500).never()).invalidateTreeCache("test");
+		verify(fileTreeService, after(500).never()).applyFileChanges(eq(tempDir), anyCollection());
 	}
 
 	@Test
@@ -138,7 +219,7 @@ class FileWatcherServiceTest {
 		when(configurationProjectService.getProject("unknown"))
 				.thenThrow(new RuntimeException("project not found"));
 
-		SseEmitter emitter = service.subscribeToProject("unknown");
+		SseEmitter emitter = service.subscribeToProject("unknown", CLIENT);
 
 		assertNotNull(emitter);
 	}
@@ -149,20 +230,369 @@ class FileWatcherServiceTest {
 		when(configurationProjectService.getProject("test")).thenReturn(project);
 		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
 
-		service.subscribeToProject("test");
-		service.subscribeToProject("test");
+		service.subscribeToProject("test", CLIENT);
+		service.subscribeToProject("test", CLIENT);
 
 		Files.writeString(tempDir.resolve("file.xml"), "<Configuration/>");
 
-		verify(fileTreeService, after(2000).atLeastOnce()).invalidateTreeCache("test");
+		verify(fileTreeService, after(2000).atLeastOnce()).applyFileChanges(eq(tempDir), anyCollection());
+	}
+
+	@Test
+	void subscribeToProject_onFileChange_passesChangedPathToTree() throws Exception {
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+
+		service.subscribeToProject("test", CLIENT);
+
+		Path file = tempDir.resolve("new-file.xml");
+		Files.writeString(file, "<Configuration/>");
+
+		verify(fileTreeService, after(2000).atLeastOnce()).applyFileChanges(eq(tempDir),
+				argThat(changes -> changes.contains(new FileChange(file, FileChangeType.CREATED))));
+		verify(fileTreeService, never()).invalidateTreeCache(tempDir);
+	}
+
+	@Test
+	void subscribeToProject_onFileDeleted_evictsItFromAdapterIndex() throws Exception {
+		Path file = Files.writeString(tempDir.resolve("deleted.xml"), "<Configuration/>");
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+
+		service.subscribeToProject("test", CLIENT);
+		Files.delete(file);
+
+		verify(adapterIndexService, timeout(2000)).evict(file);
 	}
 
 	@Test
 	void subscribeToPath_onFileChange_doesNotInvalidateProjectCache() throws Exception {
-		service.subscribeToPath(tempDir);
+		service.subscribeToPath(tempDir, CLIENT);
 
 		Files.writeString(tempDir.resolve("new-file.xml"), "<Configuration/>");
 
-		verify(fileTreeService, after(500).never()).invalidateTreeCache(org.mockito.ArgumentMatchers.any());
+		verify(fileTreeService, after(500).never()).invalidateTreeCache(any(Path.class));
+		verify(fileTreeService, never()).applyFileChanges(any(Path.class), anyCollection());
+	}
+
+	@Test
+	void subscribeToProject_onFileChange_broadcastsChangedPathsWithSequence() throws Exception {
+		SseChannelService sseChannelService = spy(new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()));
+		FileWatcherService watcher = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, sseChannelService, new ConfigurationDocumentCache(), adapterIndexService, new FileWatcherProperties(null, null, null, null, null));
+		watcher.start();
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+
+		try {
+			watcher.subscribeToProject("test", CLIENT);
+			Path file = tempDir.resolve("new-file.xml");
+			Files.writeString(file, "<Configuration/>");
+			verify(sseChannelService, timeout(2000)).broadcast(eq(tempDir.toString()), any());
+
+			Files.writeString(file, "<Configuration><Adapter name=\"A\"/></Configuration>");
+			ArgumentCaptor<SseEmitter.SseEventBuilder> events = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+			verify(sseChannelService, timeout(2000).times(2)).broadcast(eq(tempDir.toString()), events.capture());
+
+			FileChangeEvent first = toFileChangeEvent(events.getAllValues().getFirst());
+			FileChangeEvent second = toFileChangeEvent(events.getAllValues().getLast());
+			assertEquals(1, first.sequence());
+			assertEquals(2, second.sequence());
+			assertFalse(first.resync());
+			assertTrue(first.changes().contains(new FileChangeEvent.Change(PathUtils.toForwardSlash(file.toString()), FileChangeType.CREATED)));
+			assertTrue(second.changes().contains(new FileChangeEvent.Change(PathUtils.toForwardSlash(file.toString()), FileChangeType.MODIFIED)));
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void subscribeToProject_withIndentingConverter_keepsEventDataOnDataLines() throws Exception {
+		SseChannelService sseChannelService = spy(new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()));
+		FileWatcherService watcher = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, sseChannelService, new ConfigurationDocumentCache(), adapterIndexService, new FileWatcherProperties(null, null, null, null, null));
+		watcher.start();
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+		ObjectMapper indentingConverter = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+		try {
+			watcher.subscribeToProject("test", CLIENT);
+			Path file = tempDir.resolve("indented.xml");
+			Files.writeString(file, "<Configuration/>");
+
+			ArgumentCaptor<SseEmitter.SseEventBuilder> events = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+			verify(sseChannelService, timeout(2000)).broadcast(eq(tempDir.toString()), events.capture());
+
+			FileChangeEvent event = toFileChangeEvent(events.getValue(), indentingConverter);
+			assertEquals(1, event.sequence());
+			assertTrue(event.changes().contains(new FileChangeEvent.Change(PathUtils.toForwardSlash(file.toString()), FileChangeType.CREATED)));
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void subscribeToProject_continuousChanges_broadcastWithinMaxLatency() throws Exception {
+		SseChannelService sseChannelService = spy(new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()));
+		FileWatcherService watcher = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, sseChannelService, new ConfigurationDocumentCache(), adapterIndexService, new FileWatcherProperties(null, null, null, null, null));
+		watcher.start();
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+		Path file = tempDir.resolve("busy.xml");
+		long writeInterval = 50;
+		long writeDuration = FileWatcherService.MAX_BROADCAST_LATENCY_MS * 3;
+
+		try {
+			watcher.subscribeToProject("test", CLIENT);
+			Thread writer = Thread.ofVirtual().start(() -> {
+				long end = System.currentTimeMillis() + writeDuration;
+				try {
+					for (int i = 0; System.currentTimeMillis() < end; i++) {
+						Files.writeString(file, "<Configuration><!-- " + i + " --></Configuration>");
+						Thread.sleep(writeInterval);
+					}
+				} catch (IOException | InterruptedException _) {
+					// The test fails on the missing broadcast
+				}
+			});
+
+			verify(sseChannelService, timeout(FileWatcherService.MAX_BROADCAST_LATENCY_MS * 2)).broadcast(eq(tempDir.toString()), any());
+			writer.join();
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void subscribeToProject_tooManyChanges_broadcastsResync() throws Exception {
+		SseChannelService sseChannelService = spy(new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()));
+		FileWatcherService watcher = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, sseChannelService, new ConfigurationDocumentCache(), adapterIndexService, new FileWatcherProperties(null, null, null, null, null));
+		watcher.start();
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+
+		try {
+			watcher.subscribeToProject("test", CLIENT);
+			for (int i = 0; i <= FileWatcherService.MAX_PENDING_CHANGES; i++) {
+				Files.writeString(tempDir.resolve("file" + i + ".txt"), "content");
+			}
+
+			ArgumentCaptor<SseEmitter.SseEventBuilder> events = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+			verify(fileTreeService, timeout(5000)).invalidateTreeCache(tempDir);
+			verify(sseChannelService, timeout(5000).atLeastOnce()).broadcast(eq(tempDir.toString()), events.capture());
+			assertTrue(events.getAllValues().stream().map(FileWatcherServiceTest::toFileChangeEvent).anyMatch(FileChangeEvent::resync));
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void subscribeToProject_overWatchBudget_pollsForChanges() throws Exception {
+		FileWatcherProperties properties = new FileWatcherProperties(null, 0, Duration.ofMillis(100), null, null);
+		FileWatcherService watcher = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()), new ConfigurationDocumentCache(), adapterIndexService, properties);
+		watcher.start();
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+
+		try {
+			watcher.subscribeToProject("test", CLIENT);
+			Path file = tempDir.resolve("polled.xml");
+			Files.writeString(file, "<Configuration/>");
+
+			verify(fileTreeService, timeout(2000)).applyFileChanges(eq(tempDir),
+					argThat(changes -> changes.contains(new FileChange(file, FileChangeType.CREATED))));
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void lastSubscriberLeaving_stopsWatchingAndDropsTree() throws Exception {
+		SseChannelService sseChannelService = new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry());
+		FileWatcherProperties properties = new FileWatcherProperties(null, null, null, null, Duration.ofMillis(100));
+		FileWatcherService watcher = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, sseChannelService, new ConfigurationDocumentCache(), adapterIndexService, properties);
+		watcher.start();
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+
+		try {
+			watcher.subscribeToProject("test", CLIENT).complete();
+			// Sending to the completed emitter fails, which removes it and closes the channel
+			sseChannelService.broadcast(tempDir.toString(), SseEmitter.event().name("test").data("data"));
+
+			verify(fileTreeService, timeout(2000)).invalidateTreeCache(tempDir);
+			Files.writeString(tempDir.resolve("unwatched.xml"), "<Configuration/>");
+			verify(fileTreeService, after(500).never()).applyFileChanges(any(Path.class), anyCollection());
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void subscribeToProject_reconnectWithCurrentEventId_getsNoResync() {
+		SseChannelService sseChannelService = spy(new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()));
+		FileWatcherService watcher = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, sseChannelService, new ConfigurationDocumentCache(), adapterIndexService, new FileWatcherProperties(null, null, null, null, null));
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(false);
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+
+		try {
+			watcher.subscribeToProject("test", CLIENT);
+			ArgumentCaptor<SseEmitter.SseEventBuilder> firstEvents = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+			verify(sseChannelService).subscribe(eq(tempDir.toString()), any(), any(), firstEvents.capture());
+			String currentId = toEventId(firstEvents.getValue());
+
+			watcher.subscribeToProject("test", new SseClient(null, currentId));
+			verify(sseChannelService, times(2)).subscribe(eq(tempDir.toString()), any(), any(), firstEvents.capture());
+			assertFalse(isFileChangeEvent(firstEvents.getValue()));
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void onlySubscriberTimingOut_reconnectsWithoutResyncOrRebuild() throws Exception {
+		SseChannelService sseChannelService = spy(new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()));
+		FileWatcherService watcher = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, sseChannelService, new ConfigurationDocumentCache(), adapterIndexService, new FileWatcherProperties(null, null, null, null, null));
+		watcher.start();
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+
+		try {
+			watcher.subscribeToProject("test", CLIENT).complete();
+			ArgumentCaptor<SseEmitter.SseEventBuilder> firstEvents = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+			verify(sseChannelService).subscribe(eq(tempDir.toString()), any(), any(), firstEvents.capture());
+			String currentId = toEventId(firstEvents.getValue());
+			// The connection timed out: sending to it fails, which removes the only subscriber and closes the channel
+			sseChannelService.broadcast(tempDir.toString(), SseEmitter.event().name("test").data("data"));
+			awaitNoSubscribers(sseChannelService, tempDir.toString());
+
+			watcher.subscribeToProject("test", new SseClient(null, currentId));
+			verify(sseChannelService, times(2)).subscribe(eq(tempDir.toString()), any(), any(), firstEvents.capture());
+			assertFalse(isFileChangeEvent(firstEvents.getValue()));
+			verify(fileTreeService, after(500).never()).invalidateTreeCache(any(Path.class));
+
+			// The project is still watched
+			Files.writeString(tempDir.resolve("after-reconnect.xml"), "<Configuration/>");
+			verify(sseChannelService, timeout(2000)).broadcast(eq(tempDir.toString()), argThat(FileWatcherServiceTest::isFileChangeEvent));
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void onlySubscriberTimingOut_changeBeforeReconnect_getsResync() throws Exception {
+		SseChannelService sseChannelService = spy(new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()));
+		FileWatcherService watcher = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, sseChannelService, new ConfigurationDocumentCache(), adapterIndexService, new FileWatcherProperties(null, null, null, null, null));
+		watcher.start();
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+
+		try {
+			watcher.subscribeToProject("test", CLIENT).complete();
+			ArgumentCaptor<SseEmitter.SseEventBuilder> firstEvents = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+			verify(sseChannelService).subscribe(eq(tempDir.toString()), any(), any(), firstEvents.capture());
+			String currentId = toEventId(firstEvents.getValue());
+			sseChannelService.broadcast(tempDir.toString(), SseEmitter.event().name("test").data("data"));
+			awaitNoSubscribers(sseChannelService, tempDir.toString());
+
+			Files.writeString(tempDir.resolve("missed.xml"), "<Configuration/>");
+			verify(fileTreeService, timeout(2000)).applyFileChanges(eq(tempDir), anyCollection());
+			// Let the debounced broadcast that nobody receives run
+			Thread.sleep(FileWatcherService.MAX_BROADCAST_LATENCY_MS);
+
+			watcher.subscribeToProject("test", new SseClient(null, currentId));
+			verify(sseChannelService, times(2)).subscribe(eq(tempDir.toString()), any(), any(), firstEvents.capture());
+			assertTrue(toFileChangeEvent(firstEvents.getValue()).resync());
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void subscribeToProject_reconnectAfterMissedEvents_getsResync() {
+		SseChannelService sseChannelService = spy(new SseChannelService(new SseProperties(null, null, null, null, null, null), new LocalSseEventBus(), new SimpleMeterRegistry()));
+		FileWatcherService watcher = new FileWatcherService(fileSystemStorage, fileTreeService, configurationProjectService, sseChannelService, new ConfigurationDocumentCache(), adapterIndexService, new FileWatcherProperties(null, null, null, null, null));
+		ConfigurationProject project = new ConfigurationProject("test", tempDir.toString());
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(false);
+		when(configurationProjectService.getProject("test")).thenReturn(project);
+		when(fileSystemStorage.toAbsolutePath(tempDir.toString())).thenReturn(tempDir);
+
+		try {
+			watcher.subscribeToProject("test", new SseClient(null, "1-5"));
+
+			ArgumentCaptor<SseEmitter.SseEventBuilder> firstEvent = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+			verify(sseChannelService).subscribe(eq(tempDir.toString()), any(), any(), firstEvent.capture());
+			assertTrue(toFileChangeEvent(firstEvent.getValue()).resync());
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	private static String toEventId(SseEmitter.SseEventBuilder event) {
+		return event.build().stream()
+				.map(data -> data.getData().toString())
+				.filter(text -> text.startsWith("id:"))
+				.map(text -> text.substring("id:".length()).trim())
+				.findFirst()
+				.orElseThrow();
+	}
+
+	/**
+	 * Subscribers whose connection failed are removed once sending to them failed, which happens asynchronously.
+	 */
+	private static void awaitNoSubscribers(SseChannelService sseChannelService, String channelId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + Duration.ofSeconds(2).toMillis();
+		while (sseChannelService.hasSubscribers(channelId)) {
+			assertTrue(System.currentTimeMillis() < deadline, "Subscriber was not removed");
+			Thread.sleep(Duration.ofMillis(10));
+		}
+	}
+
+	private static boolean isFileChangeEvent(SseEmitter.SseEventBuilder event) {
+		return event.build().stream()
+				.map(data -> data.getData().toString())
+				.anyMatch(text -> text.contains("event:file-change"));
+	}
+
+	private static FileChangeEvent toFileChangeEvent(SseEmitter.SseEventBuilder event) {
+		return toFileChangeEvent(event, new ObjectMapper());
+	}
+
+	/**
+	 * Writes the event the way a response does, with objects converted by the given mapper, and reads the
+	 * {@code file-change} data back from the {@code data:} lines the way a browser does.
+	 */
+	private static FileChangeEvent toFileChangeEvent(SseEmitter.SseEventBuilder event, ObjectMapper converter) {
+		StringBuilder text = new StringBuilder();
+		for (ResponseBodyEmitter.DataWithMediaType data : event.build()) {
+			try {
+				text.append(data.getData() instanceof String part ? part : converter.writeValueAsString(data.getData()));
+			} catch (JsonProcessingException exception) {
+				throw new IllegalStateException(exception);
+			}
+		}
+
+		StringBuilder eventData = new StringBuilder();
+		for (String line : text.toString().split("\n")) {
+			if (line.startsWith("data:")) {
+				eventData.append(line.substring("data:".length()));
+			}
+		}
+		try {
+			return new ObjectMapper().readValue(eventData.toString(), FileChangeEvent.class);
+		} catch (JsonProcessingException exception) {
+			throw new AssertionError("Event data is not a complete file change event: " + text, exception);
+		}
 	}
 }
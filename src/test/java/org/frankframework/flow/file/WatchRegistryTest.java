@@ -0,0 +1,101 @@
+package org.frankframework.flow.file;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchService;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WatchRegistryTest {
+
+	@TempDir
+	private Path tempDir;
+
+	private WatchService watchService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		watchService = FileSystems.getDefault().newWatchService();
+		Files.createDirectories(tempDir.resolve("a/b"));
+		Files.createDirectories(tempDir.resolve("c"));
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		watchService.close();
+	}
+
+	@Test
+	void watchSharesDirectoriesBetweenChannelsUntilLastIsReleased() throws IOException {
+		WatchRegistry registry = createRegistry(100, List.of());
+
+		assertTrue(registry.watch("first", tempDir, true));
+		assertTrue(registry.watch("second", tempDir, true));
+		assertTrue(registry.watch("third", tempDir.resolve("a"), false));
+		assertEquals(4, registry.getWatchCount());
+
+		registry.release("first");
+		registry.release("second");
+		assertEquals(1, registry.getWatchCount());
+		assertTrue(registry.isWatching("third"));
+
+		registry.release("third");
+		assertEquals(0, registry.getWatchCount());
+	}
+
+	@Test
+	void watchTwiceForSameChannelRegistersOnce() throws IOException {
+		WatchRegistry registry = createRegistry(100, List.of());
+
+		registry.watch("channel", tempDir, true);
+		registry.watch("channel", tempDir, true);
+		registry.release("channel");
+
+		assertEquals(0, registry.getWatchCount());
+		assertFalse(registry.isWatching("channel"));
+	}
+
+	@Test
+	void watchOverBudgetWatchesNothingForChannel() throws IOException {
+		WatchRegistry registry = createRegistry(3, List.of());
+		assertTrue(registry.watch("small", tempDir.resolve("c"), true));
+
+		assertFalse(registry.watch("large", tempDir, true));
+
+		assertFalse(registry.isWatching("large"));
+		assertEquals(1, registry.getWatchCount());
+	}
+
+	@Test
+	void watchSkipsIgnoredDirectories() throws IOException {
+		Files.createDirectories(tempDir.resolve("node_modules/package"));
+		Files.createDirectories(tempDir.resolve("src/generated/sources"));
+		WatchRegistry registry = createRegistry(100, List.of("src/generated", "b"));
+
+		registry.watch("channel", tempDir, true);
+
+		// The root, a, c and src
+		assertEquals(4, registry.getWatchCount());
+	}
+
+	@Test
+	void watchCreatedDirectoryReportsExceededBudget() throws IOException {
+		WatchRegistry registry = createRegistry(4, List.of());
+		registry.watch("channel", tempDir, true);
+		Files.createDirectories(tempDir.resolve("d/e"));
+
+		assertFalse(registry.watchCreatedDirectory("channel", tempDir.resolve("d")));
+		assertTrue(registry.isWatching("channel"));
+	}
+
+	private WatchRegistry createRegistry(int maxWatches, List<String> ignoredPaths) {
+		return new WatchRegistry(watchService, maxWatches, new IgnoredDirectories(ignoredPaths));
+	}
+}
@@ -1,6 +1,8 @@
 package org.frankframework.flow.filesystem;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -12,6 +14,7 @@ import java.nio.file.AccessDeniedException;
 import java.nio.file.Path;
 import java.util.List;
 import org.frankframework.flow.file.FileWatcherService;
+import org.frankframework.flow.sse.SseClient;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
@@ -77,14 +80,14 @@ class FilesystemControllerTest {
 	void watchPath_resolvesPathAndReturnsEventStream() throws Exception {
 		Path resolved = Path.of("/some/path");
 		when(fileSystemStorage.toAbsolutePath("/some/path")).thenReturn(resolved);
-		when(fileWatcherService.subscribeToPath(resolved)).thenReturn(new SseEmitter());
+		when(fileWatcherService.subscribeToPath(eq(resolved), any(SseClient.class))).thenReturn(new SseEmitter());
 
 		mockMvc.perform(get("/api/filesystem/watch").param("path", "/some/path"))
 				.andExpect(status().isOk())
 				.andExpect(header().string("Content-Type", containsString("text/event-stream")));
 
 		verify(fileSystemStorage).toAbsolutePath("/some/path");
-		verify(fileWatcherService).subscribeToPath(resolved);
+		verify(fileWatcherService).subscribeToPath(eq(resolved), any(SseClient.class));
 	}
 
 	@Test
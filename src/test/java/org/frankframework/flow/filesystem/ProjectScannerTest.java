@@ -0,0 +1,153 @@
+package org.frankframework.flow.filesystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ProjectScannerTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	@DisplayName("Should visit every file and directory once, children before their directory")
+	public void scan_VisitsEntriesBottomUp() throws IOException {
+		Files.writeString(tempDir.resolve("Configuration.xml"), "<Configuration/>");
+		Path nested = Files.createDirectories(tempDir.resolve("src/main"));
+		Files.writeString(nested.resolve("Other.xml"), "<Configuration/>");
+
+		String result = ProjectScanner.scan(tempDir, new DescribingVisitor());
+
+		assertEquals(describeExpected(), result);
+	}
+
+	@Test
+	@DisplayName("Should skip ignored directories below the root")
+	public void scan_SkipsIgnoredDirectories() throws IOException {
+		Files.writeString(Files.createDirectories(tempDir.resolve(".git/objects")).resolve("pack.xml"), "x");
+		Files.writeString(Files.createDirectories(tempDir.resolve("node_modules/lib")).resolve("index.xml"), "x");
+		Files.writeString(Files.createDirectories(tempDir.resolve("target")).resolve("out.xml"), "x");
+		Files.writeString(tempDir.resolve("Configuration.xml"), "<Configuration/>");
+
+		List<Path> files = collectFiles(tempDir, 1);
+
+		assertEquals(List.of(tempDir.resolve("Configuration.xml")), files);
+	}
+
+	@Test
+	@DisplayName("Should scan the root even if its name is an ignored directory name")
+	public void scan_DoesNotSkipIgnoredRoot() throws IOException {
+		Path root = Files.createDirectories(tempDir.resolve("target"));
+		Files.writeString(root.resolve("Configuration.xml"), "<Configuration/>");
+
+		assertEquals(List.of(root.resolve("Configuration.xml")), collectFiles(root, 1));
+		assertEquals(List.of(root.resolve("Configuration.xml")), collectFiles(root, 4));
+	}
+
+	@Test
+	@DisplayName("Should produce the same result in parallel as sequentially")
+	public void scan_Parallel_MatchesSequential() throws IOException {
+		for (int i = 0; i < 4; i++) {
+			Path dir = Files.createDirectories(tempDir.resolve("dir" + i + "/nested"));
+			for (int j = 0; j < 4; j++) {
+				Files.writeString(dir.resolve("file" + j + ".xml"), "x");
+			}
+			Files.createDirectories(dir.resolve(".git"));
+		}
+
+		String sequential = ProjectScanner.scan(tempDir, new DescribingVisitor());
+		String parallel = ProjectScanner.scan(tempDir, new DescribingVisitor(), 4);
+
+		assertEquals(sequential, parallel);
+		assertFalse(parallel.contains(".git"));
+	}
+
+	@Test
+	@DisplayName("Should pass directories before files, each sorted by name, sequentially and in parallel")
+	public void scan_SortsChildren() throws IOException {
+		for (String name : List.of("b.xml", "a.xml", "B.xml", "c.xml")) {
+			Files.writeString(tempDir.resolve(name), "x");
+		}
+		for (String name : List.of("zeta", "alpha", "Mid")) {
+			Files.createDirectories(tempDir.resolve(name));
+		}
+		String expected = tempDir.getFileName() + "[Mid[], alpha[], zeta[], B.xml, a.xml, b.xml, c.xml]";
+
+		assertEquals(expected, ProjectScanner.scan(tempDir, new DescribingVisitor()));
+		assertEquals(expected, ProjectScanner.scan(tempDir, new DescribingVisitor(), 4));
+	}
+
+	@Test
+	@DisplayName("Should visit a file root as a single file")
+	public void scan_FileRoot_VisitsFile() throws IOException {
+		Path file = Files.writeString(tempDir.resolve("Configuration.xml"), "<Configuration/>");
+
+		assertEquals("Configuration.xml", ProjectScanner.scan(file, new DescribingVisitor()));
+		assertEquals("Configuration.xml", ProjectScanner.scan(file, new DescribingVisitor(), 4));
+	}
+
+	@Test
+	@DisplayName("Should fail when the root does not exist")
+	public void scan_MissingRoot_Throws() {
+		Path missing = tempDir.resolve("missing");
+
+		assertThrows(IOException.class, () -> ProjectScanner.scan(missing, new DescribingVisitor()));
+		assertThrows(IOException.class, () -> ProjectScanner.scan(missing, new DescribingVisitor(), 4));
+	}
+
+	@Test
+	@DisplayName("Should recognise ignored directory names")
+	public void isIgnoredDirectory_MatchesFileNameOnly() {
+		assertTrue(ProjectScanner.isIgnoredDirectory(Path.of("project", ".git")));
+		assertTrue(ProjectScanner.isIgnoredDirectory(Path.of("node_modules")));
+		assertFalse(ProjectScanner.isIgnoredDirectory(Path.of("target", "classes")));
+	}
+
+	private String describeExpected() {
+		return tempDir.getFileName() + "[src[main[Other.xml]], Configuration.xml]";
+	}
+
+	private static List<Path> collectFiles(Path root, int parallelism) throws IOException {
+		List<Path> files = new ArrayList<>();
+		ProjectScanner.scan(root, new ProjectScanner.Visitor<Void>() {
+			@Override
+			public Void visitFile(Path file, BasicFileAttributes attributes) {
+				synchronized (files) {
+					files.add(file);
+				}
+				return null;
+			}
+
+			@Override
+			public Void visitDirectory(Path directory, BasicFileAttributes attributes, List<Void> children) {
+				return null;
+			}
+		}, parallelism);
+		return files;
+	}
+
+	/**
+	 * Describes the scanned tree as {@code name[child, child]}, with the children in the order the scanner passed them.
+	 */
+	private static class DescribingVisitor implements ProjectScanner.Visitor<String> {
+		@Override
+		public String visitFile(Path file, BasicFileAttributes attributes) {
+			assertTrue(attributes.isRegularFile());
+			return file.getFileName().toString();
+		}
+
+		@Override
+		public String visitDirectory(Path directory, BasicFileAttributes attributes, List<String> children) {
+			assertTrue(attributes.isDirectory());
+			return directory.getFileName() + children.toString();
+		}
+	}
+}
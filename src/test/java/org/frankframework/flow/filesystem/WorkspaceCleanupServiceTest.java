@@ -25,6 +25,7 @@ class WorkspaceCleanupServiceTest {
 		cleanupService = new WorkspaceCleanupService();
 		ReflectionTestUtils.setField(cleanupService, "workspaceRootPath", tempWorkspaceRoot.toString());
 		ReflectionTestUtils.setField(cleanupService, "retentionHours", 24);
+		ReflectionTestUtils.setField(cleanupService, "cacheDirectoryPath", "/nonexistent/cache");
 	}
 
 	@AfterEach
@@ -75,6 +76,22 @@ class WorkspaceCleanupServiceTest {
 		assertTrue(Files.exists(recent));
 	}
 
+	@Test
+	void cleanupKeepsCacheDirectoryWithinWorkspaceRoot() throws IOException {
+		Path cache = Files.createDirectories(tempWorkspaceRoot.resolve("shared/cache"));
+		Files.writeString(cache.resolve("frankdoc.json"), "{}");
+		Files.setLastModifiedTime(cache.getParent(), FileTime.from(Instant.now().minus(48, ChronoUnit.HOURS)));
+		ReflectionTestUtils.setField(cleanupService, "cacheDirectoryPath", cache.toString());
+
+		Path expired = Files.createDirectory(tempWorkspaceRoot.resolve("old"));
+		Files.setLastModifiedTime(expired, FileTime.from(Instant.now().minus(48, ChronoUnit.HOURS)));
+
+		cleanupService.cleanupOldWorkspaces();
+
+		assertTrue(Files.exists(cache.resolve("frankdoc.json")));
+		assertFalse(Files.exists(expired));
+	}
+
 	@Test
 	void cleanupSkipsWhenRootDoesNotExist() {
 		ReflectionTestUtils.setField(cleanupService, "workspaceRootPath", "/nonexistent/workspace/root");
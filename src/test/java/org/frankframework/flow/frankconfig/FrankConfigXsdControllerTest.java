@@ -4,6 +4,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import org.frankframework.flow.common.StaticDocument;
 import org.frankframework.flow.exception.ApiException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,22 +28,22 @@ class FrankConfigXsdControllerTest {
 	@Test
 	void getFrankConfigXsdReturnsXmlContent() throws Exception {
 		String xsdContent = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"></xs:schema>";
-		when(frankConfigXsdService.getFrankConfigXsd()).thenReturn(xsdContent);
+		when(frankConfigXsdService.getFrankConfigXsdDocument()).thenReturn(StaticDocument.of(xsdContent));
 
 		mockMvc.perform(get("/api/xsd/frankconfig").accept(MediaType.TEXT_XML))
 				.andExpect(status().isOk())
 				.andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_XML))
 				.andExpect(content().string(xsdContent));
 
-		verify(frankConfigXsdService).getFrankConfigXsd();
+		verify(frankConfigXsdService).getFrankConfigXsdDocument();
 	}
 
 	@Test
 	void getFrankConfigXsdServiceFailsReturns404() throws Exception {
-		when(frankConfigXsdService.getFrankConfigXsd()).thenThrow(new ApiException("Failed to fetch FrankConfig XSD", HttpStatus.NOT_FOUND));
+		when(frankConfigXsdService.getFrankConfigXsdDocument()).thenThrow(new ApiException("Failed to fetch FrankConfig XSD", HttpStatus.NOT_FOUND));
 
 		mockMvc.perform(get("/api/xsd/frankconfig")).andExpect(status().isNotFound());
 
-		verify(frankConfigXsdService).getFrankConfigXsd();
+		verify(frankConfigXsdService).getFrankConfigXsdDocument();
 	}
 }
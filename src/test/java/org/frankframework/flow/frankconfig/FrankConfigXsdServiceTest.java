@@ -3,48 +3,55 @@ package org.frankframework.flow.frankconfig;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.InputStream;
+import org.frankframework.flow.common.RemoteDocument;
 import org.frankframework.flow.exception.ApiException;
+import org.frankframework.flow.utility.XmlSecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.w3c.dom.Document;
 
 @ExtendWith(MockitoExtension.class)
 class FrankConfigXsdServiceTest {
 
 	@Mock
-	private RestTemplate restTemplate;
+	private RemoteDocument frankConfigXsd;
 
 	private FrankConfigXsdService frankConfigXsdService;
 
-	private static final String FRANKCONFIG_XSD_URL = "https://schemas.frankframework.org/FrankConfig.xsd";
-
 	@BeforeEach
 	void setUp() {
-		frankConfigXsdService = new FrankConfigXsdService(restTemplate);
+		frankConfigXsdService = new FrankConfigXsdService(frankConfigXsd);
 	}
 
 	@Test
 	void getFrankConfigXsdReturnsXsdContent() {
 		String expectedXsd = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"></xs:schema>";
-		when(restTemplate.getForObject(FRANKCONFIG_XSD_URL, String.class)).thenReturn(expectedXsd);
+		when(frankConfigXsd.getContent()).thenReturn(expectedXsd);
 
 		String result = frankConfigXsdService.getFrankConfigXsd();
 
 		assertEquals(expectedXsd, result);
-		verify(restTemplate).getForObject(FRANKCONFIG_XSD_URL, String.class);
 	}
 
 	@Test
-	void getFrankConfigXsdThrowsWhenRestTemplateFails() {
-		when(restTemplate.getForObject(FRANKCONFIG_XSD_URL, String.class))
-				.thenThrow(new RestClientException("Connection refused"));
+	void getFrankConfigXsdThrowsWhenNoCopyIsAvailable() {
+		when(frankConfigXsd.getContent()).thenThrow(new ApiException("Failed to fetch FrankConfig.xsd", HttpStatus.NOT_FOUND));
 
 		assertThrows(ApiException.class, () -> frankConfigXsdService.getFrankConfigXsd());
+	}
+
+	@Test
+	void fallbackFrankConfigXsdIsEmbedded() throws Exception {
+		try (InputStream inputStream = new ClassPathResource("frankdoc/FrankConfig.xsd").getInputStream()) {
+			Document xsd = XmlSecurityUtils.createSecureDocumentBuilder().parse(inputStream);
 
-		verify(restTemplate).getForObject(FRANKCONFIG_XSD_URL, String.class);
+			assertEquals("schema", xsd.getDocumentElement().getLocalName());
+		}
 	}
 }
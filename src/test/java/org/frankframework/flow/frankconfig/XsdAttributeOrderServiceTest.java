@@ -0,0 +1,88 @@
+package org.frankframework.flow.frankconfig;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.frankframework.flow.utility.XsdAttributeOrdererUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class XsdAttributeOrderServiceTest {
+
+	private static final String XSD = """
+			<xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema">
+				<xs:complexType name="AdapterType">
+					<xs:attribute name="description"/>
+					<xs:attribute name="name" use="required"/>
+				</xs:complexType>
+			</xs:schema>
+			""";
+
+	@TempDir
+	private Path tempDir;
+
+	private Path orderFile;
+	private XsdAttributeOrderService xsdAttributeOrderService;
+
+	@BeforeEach
+	void setUp() {
+		orderFile = tempDir.resolve("flow/attribute-order.json");
+		xsdAttributeOrderService = new XsdAttributeOrderService(new ObjectMapper(), orderFile);
+	}
+
+	@Test
+	void createOrdererCompilesXsdAndStoresOrder() throws Exception {
+		XsdAttributeOrdererUtils orderer = xsdAttributeOrderService.createOrderer(XSD);
+
+		assertEquals(Map.of("Adapter", List.of("name", "description")), orderer.getAttributeOrder());
+		assertTrue(Files.exists(orderFile));
+	}
+
+	@Test
+	void createOrdererUsesStoredOrderForSameXsd() throws Exception {
+		storeOrder(XSD, Map.of("Adapter", List.of("stored")));
+
+		XsdAttributeOrdererUtils orderer = xsdAttributeOrderService.createOrderer(XSD);
+
+		assertEquals(Map.of("Adapter", List.of("stored")), orderer.getAttributeOrder());
+	}
+
+	@Test
+	void createOrdererRecompilesWhenXsdChanged() throws Exception {
+		storeOrder(XSD, Map.of("Adapter", List.of("stored")));
+		String changedXsd = XSD.replace("description", "active");
+
+		XsdAttributeOrdererUtils orderer = xsdAttributeOrderService.createOrderer(changedXsd);
+
+		assertEquals(Map.of("Adapter", List.of("name", "active")), orderer.getAttributeOrder());
+		assertEquals(List.of("name", "active"), new XsdAttributeOrderService(new ObjectMapper(), orderFile)
+				.createOrderer(changedXsd).getAttributeOrder().get("Adapter"));
+	}
+
+	@Test
+	void createOrdererIgnoresCorruptStoredOrder() throws Exception {
+		Files.createDirectories(orderFile.getParent());
+		Files.writeString(orderFile, "not json");
+
+		XsdAttributeOrdererUtils orderer = xsdAttributeOrderService.createOrderer(XSD);
+
+		assertEquals(List.of("name", "description"), orderer.getAttributeOrder().get("Adapter"));
+	}
+
+	/**
+	 * Stores an order under the hash of the given XSD, by letting the service compile a schema with that content and
+	 * then replacing the compiled order.
+	 */
+	private void storeOrder(String xsd, Map<String, List<String>> attributeOrder) throws Exception {
+		xsdAttributeOrderService.createOrderer(xsd);
+		ObjectMapper objectMapper = new ObjectMapper();
+		XsdAttributeOrderService.StoredAttributeOrder stored =
+				objectMapper.readValue(orderFile.toFile(), XsdAttributeOrderService.StoredAttributeOrder.class);
+		objectMapper.writeValue(orderFile.toFile(), new XsdAttributeOrderService.StoredAttributeOrder(stored.xsdHash(), attributeOrder));
+	}
+}
@@ -1,14 +1,22 @@
 package org.frankframework.flow.frankdoc;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.frankframework.flow.common.StaticDocument;
 import org.frankframework.flow.exception.ApiException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -27,24 +35,77 @@ class FrankDocControllerTest {
 	@Test
 	void getFrankDocJsonReturnsJsonContent() throws Exception {
 		String frankDocJson = "{\"version\":\"1.0\",\"types\":{}}";
-		when(frankDocService.getFrankDocJson()).thenReturn(frankDocJson);
+		when(frankDocService.getFrankDocJsonDocument()).thenReturn(StaticDocument.of(frankDocJson));
 
 		mockMvc.perform(get("/api/json/frankdoc").accept(MediaType.APPLICATION_JSON))
 				.andExpect(status().isOk())
 				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
 				.andExpect(content().string(frankDocJson));
 
-		verify(frankDocService).getFrankDocJson();
+		verify(frankDocService).getFrankDocJsonDocument();
 	}
 
 	@Test
 	void getFrankDocJsonServiceFailsReturns404() throws Exception {
-		when(frankDocService.getFrankDocJson())
+		when(frankDocService.getFrankDocJsonDocument())
 				.thenThrow(new ApiException("Failed to fetch FrankDoc JSON", HttpStatus.NOT_FOUND));
 
 		mockMvc.perform(get("/api/json/frankdoc").accept(MediaType.APPLICATION_JSON))
 				.andExpect(status().isNotFound());
 
-		verify(frankDocService).getFrankDocJson();
+		verify(frankDocService).getFrankDocJsonDocument();
+	}
+
+	@Test
+	void getFrankDocJsonSendsETagAndRequiresRevalidation() throws Exception {
+		StaticDocument document = StaticDocument.of("{\"types\":{}}");
+		when(frankDocService.getFrankDocJsonDocument()).thenReturn(document);
+
+		mockMvc.perform(get("/api/json/frankdoc"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + document.getVersion() + "\""))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+				.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)));
+	}
+
+	@Test
+	void getFrankDocJsonReturns304WhenUnchanged() throws Exception {
+		StaticDocument document = StaticDocument.of("{\"types\":{}}");
+		when(frankDocService.getFrankDocJsonDocument()).thenReturn(document);
+
+		mockMvc.perform(get("/api/json/frankdoc").header(HttpHeaders.IF_NONE_MATCH, "\"" + document.getVersion() + "\""))
+				.andExpect(status().isNotModified())
+				.andExpect(content().bytes(new byte[0]));
+	}
+
+	@Test
+	void getFrankDocJsonSendsGzippedBodyWhenAccepted() throws Exception {
+		String frankDocJson = "{\"types\":{}}";
+		when(frankDocService.getFrankDocJsonDocument()).thenReturn(StaticDocument.of(frankDocJson));
+
+		byte[] body = mockMvc.perform(get("/api/json/frankdoc").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn()
+				.getResponse()
+				.getContentAsByteArray();
+
+		try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			assertEquals(frankDocJson, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void getFrankDocJsonIsImmutableWhenRequestedByVersion() throws Exception {
+		StaticDocument document = StaticDocument.of("{\"types\":{}}");
+		when(frankDocService.getFrankDocJsonDocument()).thenReturn(document);
+
+		mockMvc.perform(get("/api/json/frankdoc").param("version", document.getVersion()))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+
+		mockMvc.perform(get("/api/json/frankdoc").param("version", "outdated"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
 	}
 }
@@ -3,47 +3,57 @@ package org.frankframework.flow.frankdoc;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import org.frankframework.flow.common.RemoteDocument;
 import org.frankframework.flow.exception.ApiException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
 
 @ExtendWith(MockitoExtension.class)
 class FrankDocServiceTest {
 
 	@Mock
-	private RestTemplate restTemplate;
+	private RemoteDocument frankDocJson;
 
 	private FrankDocService frankDocService;
 
-	private static final String FRANKDOC_URL = "https://reference.frankframework.org/js/frankdoc.json";
-
 	@BeforeEach
 	void setUp() {
-		frankDocService = new FrankDocService(restTemplate);
+		frankDocService = new FrankDocService(frankDocJson);
 	}
 
 	@Test
 	void getFrankDocJsonReturnsJsonContent() {
 		String expectedJson = "{\"version\":\"1.0\",\"types\":{}}";
-		when(restTemplate.getForObject(FRANKDOC_URL, String.class)).thenReturn(expectedJson);
+		when(frankDocJson.getContent()).thenReturn(expectedJson);
 
 		String result = frankDocService.getFrankDocJson();
 
 		assertEquals(expectedJson, result);
-		verify(restTemplate).getForObject(FRANKDOC_URL, String.class);
 	}
 
 	@Test
-	void getFrankDocJsonThrowsWhenRestTemplateFails() {
-		when(restTemplate.getForObject(FRANKDOC_URL, String.class)).thenThrow(new RestClientException("Connection refused"));
+	void getFrankDocJsonThrowsWhenNoCopyIsAvailable() {
+		when(frankDocJson.getContent()).thenThrow(new ApiException("Failed to fetch frankdoc.json", HttpStatus.NOT_FOUND));
 
 		assertThrows(ApiException.class, () -> frankDocService.getFrankDocJson());
+	}
+
+	@Test
+	void fallbackFrankDocJsonIsEmbedded() throws IOException {
+		try (InputStream inputStream = new ClassPathResource("frankdoc/frankdoc.json").getInputStream()) {
+			JsonNode frankDoc = new ObjectMapper().readTree(inputStream);
 
-		verify(restTemplate).getForObject(FRANKDOC_URL, String.class);
+			assertTrue(frankDoc.isObject());
+			assertFalse(frankDoc.isEmpty());
+		}
 	}
 }
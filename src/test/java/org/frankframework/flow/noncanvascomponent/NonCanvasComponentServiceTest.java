@@ -18,6 +18,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import org.frankframework.flow.configuration.ConfigurationDocumentCache;
 import org.frankframework.flow.exception.ApiException;
 import org.frankframework.flow.filesystem.FileSystemStorage;
 import org.junit.jupiter.api.BeforeEach;
@@ -55,7 +56,7 @@ class NonCanvasComponentServiceTest {
 
 	@BeforeEach
 	void setUp() {
-		nonCanvasComponentService = new NonCanvasComponentService(fileSystemStorage);
+		nonCanvasComponentService = new NonCanvasComponentService(fileSystemStorage, new ConfigurationDocumentCache());
 	}
 
 	private void stubToAbsolutePath() {
@@ -66,13 +67,6 @@ class NonCanvasComponentServiceTest {
 		});
 	}
 
-	private void stubReadFile() throws IOException {
-		when(fileSystemStorage.readFile(anyString())).thenAnswer(invocation -> {
-			String path = invocation.getArgument(0);
-			return Files.readString(Path.of(path), StandardCharsets.UTF_8);
-		});
-	}
-
 	private void stubWriteFile() throws IOException {
 		doAnswer(invocation -> {
 			String path = invocation.getArgument(0);
@@ -93,7 +87,6 @@ class NonCanvasComponentServiceTest {
 	@Test
 	void getNonCanvasComponents_returnsDirectChildrenExcludingAdapters() throws Exception {
 		stubToAbsolutePath();
-		stubReadFile();
 		Path file = writeConfiguration(CONFIGURATION);
 
 		List<NonCanvasComponentDTO> components = nonCanvasComponentService.getNonCanvasComponents(file.toString());
@@ -109,7 +102,6 @@ class NonCanvasComponentServiceTest {
 	@Test
 	void getNonCanvasComponents_assignsOccurrenceIndexPerTagName() throws Exception {
 		stubToAbsolutePath();
-		stubReadFile();
 		Path file = writeConfiguration("""
 				<Configuration>
 					<Scheduler name="first"/>
@@ -158,7 +150,6 @@ class NonCanvasComponentServiceTest {
 	@Test
 	void getNonCanvasComponents_malformedXml_throwsInternalServerError() throws Exception {
 		stubToAbsolutePath();
-		stubReadFile();
 		Path file = writeConfiguration("<Configuration><unclosed></Configuration>");
 
 		ApiException exception =
@@ -169,7 +160,6 @@ class NonCanvasComponentServiceTest {
 	@Test
 	void addNonCanvasComponent_appendsComponentAndPersists() throws Exception {
 		stubToAbsolutePath();
-		stubReadFile();
 		stubWriteFile();
 		Path file = writeConfiguration("<Configuration name=\"Main\"/>");
 
@@ -199,7 +189,6 @@ class NonCanvasComponentServiceTest {
 	@Test
 	void updateNonCanvasComponent_replacesAttributesAndPersists() throws Exception {
 		stubToAbsolutePath();
-		stubReadFile();
 		stubWriteFile();
 		Path file = writeConfiguration("""
 				<Configuration>
@@ -218,7 +207,6 @@ class NonCanvasComponentServiceTest {
 	@Test
 	void updateNonCanvasComponent_notFound_throwsNotFoundAndDoesNotWrite() throws Exception {
 		stubToAbsolutePath();
-		stubReadFile();
 		Path file = writeConfiguration("<Configuration><Monitoring name=\"monitor\"/></Configuration>");
 
 		ApiException exception = assertThrows(
@@ -232,7 +220,6 @@ class NonCanvasComponentServiceTest {
 	@Test
 	void deleteNonCanvasComponent_removesComponentAndPersists() throws Exception {
 		stubToAbsolutePath();
-		stubReadFile();
 		stubWriteFile();
 		Path file = writeConfiguration("""
 				<Configuration>
@@ -251,7 +238,6 @@ class NonCanvasComponentServiceTest {
 	@Test
 	void deleteNonCanvasComponent_notFound_throwsNotFoundAndDoesNotWrite() throws Exception {
 		stubToAbsolutePath();
-		stubReadFile();
 		Path file = writeConfiguration("<Configuration><Monitoring name=\"monitor\"/></Configuration>");
 
 		ApiException exception = assertThrows(
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -15,6 +16,10 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -25,6 +30,7 @@ import java.util.zip.ZipOutputStream;
 import org.frankframework.flow.exception.ApiException;
 import org.frankframework.flow.filesystem.FileSystemStorage;
 import org.frankframework.flow.filesystem.FilesystemEntry;
+import org.frankframework.flow.filesystem.ProjectScanner;
 import org.frankframework.flow.projectsettings.FilterType;
 import org.frankframework.flow.recentproject.RecentProject;
 import org.frankframework.flow.recentproject.RecentProjectsService;
@@ -173,6 +179,53 @@ public class ConfigurationProjectServiceTest {
 		assertThrows(ApiException.class, () -> configurationProjectService.getProject("missingProject"));
 	}
 
+	@Test
+	public void testGetProjectRemembersMissingProjects() {
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(true);
+		when(recentProjectsService.getRecentProjects()).thenReturn(recentProjects);
+
+		assertThrows(ApiException.class, () -> configurationProjectService.getProject("missingProject"));
+		assertThrows(ApiException.class, () -> configurationProjectService.getProject("missingProject"));
+
+		verify(recentProjectsService, times(1)).getRecentProjects();
+	}
+
+	@Test
+	public void testGetProjectLoadsOnlyTheMatchingRecentProject() throws IOException {
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(true);
+		when(recentProjectsService.getRecentProjects()).thenReturn(recentProjects);
+		stubToAbsolutePathUnderTempDir();
+
+		Path wanted = Files.createDirectories(tempDir.resolve("wanted_proj"));
+		recentProjects.add(new RecentProject("other_proj", tempDir.resolve("other_proj").toString(), "2026-01-01T00:00:00Z"));
+		recentProjects.add(new RecentProject("wanted_proj", wanted.toString(), "2026-01-01T00:00:00Z"));
+
+		ConfigurationProject configurationProject = configurationProjectService.getProject("wanted_proj");
+
+		assertEquals(wanted.toString(), configurationProject.getRootPath());
+		verify(fileSystemStorage, never()).toAbsolutePath(tempDir.resolve("other_proj").toString());
+	}
+
+	@Test
+	public void testGetProjectInCloudResolvesSingleDirectory() throws IOException {
+		when(fileSystemStorage.isLocalEnvironment()).thenReturn(false);
+		stubToAbsolutePathUnderTempDir();
+		Files.createDirectories(tempDir.resolve("cloud_proj"));
+
+		ConfigurationProject configurationProject = configurationProjectService.getProject("cloud_proj");
+
+		assertEquals("cloud_proj", configurationProject.getName());
+		assertSame(configurationProject, configurationProjectService.getProject("cloud_proj"));
+		verify(fileSystemStorage, never()).listRoots();
+	}
+
+	@Test
+	public void testGetProjectRejectsNamesThatAreNotASingleDirectory() {
+		assertThrows(ApiException.class, () -> configurationProjectService.getProject("../outside"));
+		assertThrows(ApiException.class, () -> configurationProjectService.getProject(".."));
+		verifyNoInteractions(fileSystemStorage, recentProjectsService);
+	}
+
 	@Test
 	public void testGetProjectsReturnsEmptyListInitially() {
 		when(fileSystemStorage.isLocalEnvironment()).thenReturn(true);
@@ -906,6 +959,81 @@ public class ConfigurationProjectServiceTest {
 		assertEquals(1, dto.filepaths().size(), "DTO filepaths should map dynamically from disk");
 	}
 
+	@Test
+	void testToDtoReusesConfigurationFilesWhileDirectoriesAreUnchanged() throws Exception {
+		stubFileSystemForProjectCreation();
+		when(fileSystemStorage.toRelativePath(anyString())).thenAnswer(inv -> inv.getArgument(0));
+
+		ConfigurationProjectCreateDTO createDTO = new ConfigurationProjectCreateDTO("cached_proj", "/");
+		configurationProjectService.createProjectOnDisk(createDTO);
+		ConfigurationProject configurationProject = configurationProjectService.getProject("cached_proj");
+		Path projAbsPath = fileSystemStorage.toAbsolutePath(configurationProject.getRootPath());
+		FileTime past = FileTime.from(Instant.now().minus(Duration.ofHours(1)));
+		Files.setLastModifiedTime(projAbsPath, past);
+
+		assertEquals(1, configurationProjectService.toDto(configurationProject).filepaths().size());
+
+		// Restoring the directory time hides the new file from the cached listing
+		Files.writeString(projAbsPath.resolve("Hidden.xml"), "<Configuration/>");
+		Files.setLastModifiedTime(projAbsPath, past);
+		assertEquals(1, configurationProjectService.toDto(configurationProject).filepaths().size());
+
+		Files.writeString(projAbsPath.resolve("Other.xml"), "<Configuration/>");
+		assertEquals(3, configurationProjectService.toDto(configurationProject).filepaths().size());
+	}
+
+	@Test
+	void testScanProjectListsConfigurationFilesForToDto() throws Exception {
+		stubFileSystemForProjectCreation();
+		when(fileSystemStorage.toRelativePath(anyString())).thenAnswer(inv -> inv.getArgument(0));
+
+		ConfigurationProjectCreateDTO createDTO = new ConfigurationProjectCreateDTO("scanned_proj", "/");
+		configurationProjectService.createProjectOnDisk(createDTO);
+		ConfigurationProject configurationProject = configurationProjectService.getProject("scanned_proj");
+		Path projAbsPath = fileSystemStorage.toAbsolutePath(configurationProject.getRootPath());
+		FileTime past = FileTime.from(Instant.now().minus(Duration.ofHours(1)));
+		Files.setLastModifiedTime(projAbsPath, past);
+
+		List<String> scannedFiles = new ArrayList<>();
+		configurationProjectService.scanProject(projAbsPath, new ProjectScanner.Visitor<Void>() {
+			@Override
+			public Void visitFile(Path file, BasicFileAttributes attributes) {
+				scannedFiles.add(file.getFileName().toString());
+				return null;
+			}
+
+			@Override
+			public Void visitDirectory(Path directory, BasicFileAttributes attributes, List<Void> children) {
+				return null;
+			}
+		}, 1);
+
+		// A file hidden from the directory time is only found by walking the project again
+		Files.writeString(projAbsPath.resolve("Hidden.xml"), "<Configuration/>");
+		Files.setLastModifiedTime(projAbsPath, past);
+
+		assertTrue(scannedFiles.contains("Configuration.xml"));
+		assertEquals(List.of(projAbsPath.resolve("Configuration.xml").toString()), configurationProjectService.toDto(configurationProject).filepaths());
+	}
+
+	@Test
+	void testToDtoSkipsIgnoredDirectories() throws Exception {
+		stubFileSystemForProjectCreation();
+		when(fileSystemStorage.toRelativePath(anyString())).thenAnswer(inv -> inv.getArgument(0));
+
+		ConfigurationProjectCreateDTO createDTO = new ConfigurationProjectCreateDTO("ignored_proj", "/");
+		configurationProjectService.createProjectOnDisk(createDTO);
+		ConfigurationProject configurationProject = configurationProjectService.getProject("ignored_proj");
+
+		Path projAbsPath = fileSystemStorage.toAbsolutePath(configurationProject.getRootPath());
+		Files.writeString(Files.createDirectories(projAbsPath.resolve("target/classes")).resolve("Configuration.xml"), "<Configuration/>");
+		Files.writeString(Files.createDirectories(projAbsPath.resolve("node_modules/pkg")).resolve("pom.xml"), "<project/>");
+
+		ConfigurationProjectDTO dto = configurationProjectService.toDto(configurationProject);
+
+		assertEquals(List.of(projAbsPath.resolve("Configuration.xml").toString()), dto.filepaths());
+	}
+
 	@Test
 	void testCloneAndOpenProjectThrowsWhenTargetDirectoryAlreadyExists() throws Exception {
 		Path existing = tempDir.resolve("already_exists");
@@ -0,0 +1,160 @@
+package org.frankframework.flow.sse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class HazelcastSseEventBusTest {
+
+	private static final String CHANNEL = "/workspace/project";
+	private static final int PORT = 5901;
+
+	private final BlockingQueue<String> firstDelivered = new LinkedBlockingQueue<>();
+	private final BlockingQueue<String> secondDelivered = new LinkedBlockingQueue<>();
+
+	private final String clusterName = "flow-test-" + UUID.randomUUID();
+
+	private HazelcastInstance firstInstance;
+	private HazelcastSseEventBus first;
+	private HazelcastSseEventBus second;
+
+	@BeforeEach
+	void setUp() {
+		SseRelayProperties properties = properties(Duration.ofMinutes(1));
+		firstInstance = createInstance(properties);
+		first = createNode(firstInstance, properties, firstDelivered);
+		second = createNode(createInstance(properties), properties, secondDelivered);
+	}
+
+	@AfterEach
+	void tearDown() {
+		first.stop();
+		second.stop();
+	}
+
+	@Test
+	void publish_deliversOnceOnEveryNode() throws InterruptedException {
+		first.publish(CHANNEL, SseEmitter.event().id("1-1").name("file-change").data(Map.of("path", "Configuration.xml")).build());
+
+		String expected = CHANNEL + "|id:1-1\nevent:file-change\ndata:{\"path\":\"Configuration.xml\"}\n\n";
+		assertEquals(expected, secondDelivered.poll(10, TimeUnit.SECONDS));
+		assertEquals(expected, firstDelivered.poll());
+		// The publishing node delivered the event itself and skips it when the topic hands it back
+		assertNull(firstDelivered.poll(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void claimNextEventId_isExclusiveUntilReleased() {
+		SseEventId current = first.currentEventId(CHANNEL);
+		assertEquals(current, second.currentEventId(CHANNEL));
+
+		assertEquals(new SseEventId(current.epoch(), 1), first.claimNextEventId(CHANNEL));
+		assertEquals(new SseEventId(current.epoch(), 2), first.claimNextEventId(CHANNEL));
+		assertNull(second.claimNextEventId(CHANNEL));
+
+		first.releaseChannel(CHANNEL);
+
+		// Publishing moves to the other node, which continues the sequence
+		assertEquals(new SseEventId(current.epoch(), 3), second.claimNextEventId(CHANNEL));
+		assertNull(first.claimNextEventId(CHANNEL));
+		assertEquals(new SseEventId(current.epoch(), 3), first.currentEventId(CHANNEL));
+	}
+
+	@Test
+	void claimNextEventId_afterLeaseExpired_continuesSequenceOnOtherNode() throws InterruptedException {
+		Duration leaseTime = Duration.ofMillis(100);
+		HazelcastSseEventBus shortLease = new HazelcastSseEventBus(firstInstance, new ObjectMapper(), properties(leaseTime));
+		SseEventId claimed = shortLease.claimNextEventId(CHANNEL);
+		assertNull(second.claimNextEventId(CHANNEL));
+
+		// The first node stops publishing without releasing the channel
+		Thread.sleep(leaseTime.multipliedBy(2));
+
+		assertEquals(claimed.next(), second.claimNextEventId(CHANNEL));
+		assertNull(shortLease.claimNextEventId(CHANNEL));
+	}
+
+	@Test
+	void skipEventId_whileOtherNodePublishes_leavesSequence() {
+		SseEventId claimed = first.claimNextEventId(CHANNEL);
+
+		second.skipEventId(CHANNEL);
+		assertEquals(claimed, second.currentEventId(CHANNEL));
+
+		first.releaseChannel(CHANNEL);
+		second.skipEventId(CHANNEL);
+		assertEquals(claimed.next(), second.currentEventId(CHANNEL));
+	}
+
+	@Test
+	void unfollowChannel_byLastNode_startsNewEpoch() {
+		SseEventId current = first.currentEventId(CHANNEL);
+		second.currentEventId(CHANNEL);
+		first.claimNextEventId(CHANNEL);
+
+		first.unfollowChannel(CHANNEL);
+		assertEquals(current.next(), second.currentEventId(CHANNEL));
+
+		second.unfollowChannel(CHANNEL);
+		SseEventId restarted = first.currentEventId(CHANNEL);
+		assertNotEquals(current.epoch(), restarted.epoch());
+		assertEquals(0, restarted.sequence());
+	}
+
+	private SseRelayProperties properties(Duration leaseTime) {
+		return new SseRelayProperties(
+				"hazelcast",
+				clusterName,
+				List.of("127.0.0.1:" + PORT, "127.0.0.1:" + (PORT + 1)),
+				PORT,
+				leaseTime
+		);
+	}
+
+	private static HazelcastInstance createInstance(SseRelayProperties properties) {
+		Config config = HazelcastSseEventBus.createConfig(properties);
+		config.setProperty("hazelcast.logging.type", "log4j2");
+		return Hazelcast.newHazelcastInstance(config);
+	}
+
+	private static HazelcastSseEventBus createNode(HazelcastInstance instance, SseRelayProperties properties, BlockingQueue<String> delivered) {
+		HazelcastSseEventBus eventBus = new HazelcastSseEventBus(instance, new ObjectMapper(), properties);
+		eventBus.register((channelId, event) -> delivered.add(channelId + "|" + text(event)));
+		return eventBus;
+	}
+
+	private static String text(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+		StringBuilder text = new StringBuilder();
+		for (ResponseBodyEmitter.DataWithMediaType data : event) {
+			text.append(data.getData() instanceof String part ? part : toJson(data.getData()));
+		}
+		return text.toString();
+	}
+
+	private static String toJson(Object data) {
+		try {
+			return new ObjectMapper().writeValueAsString(data);
+		} catch (JsonProcessingException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+}
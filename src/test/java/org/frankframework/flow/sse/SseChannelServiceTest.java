@@ -1,31 +1,49 @@
 package org.frankframework.flow.sse;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.frankframework.flow.exception.ApiException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 class SseChannelServiceTest {
 
+	private static final SseClient CLIENT = new SseClient(null, null);
+
+	private SimpleMeterRegistry meterRegistry;
 	private SseChannelService service;
 
 	@BeforeEach
 	void setUp() {
-		service = new SseChannelService();
+		meterRegistry = new SimpleMeterRegistry();
+		service = new SseChannelService(new SseProperties(2, null, null, null, 2, 3), new LocalSseEventBus(), meterRegistry, Runnable::run);
 	}
 
 	@Test
 	void subscribe_returnsEmitter() {
-		assertNotNull(service.subscribe("channel"));
+		assertNotNull(service.subscribe("channel", CLIENT));
 	}
 
 	@Test
 	void subscribe_multipleSubscribers_eachGetDistinctEmitter() {
-		SseEmitter first = service.subscribe("channel");
-		SseEmitter second = service.subscribe("channel");
+		SseEmitter first = service.subscribe("channel", CLIENT);
+		SseEmitter second = service.subscribe("channel", CLIENT);
 
 		assertNotSame(first, second);
 	}
@@ -39,11 +57,151 @@ class SseChannelServiceTest {
 
 	@Test
 	void broadcast_afterEmitterCompletes_doesNotThrow() {
-		SseEmitter emitter = service.subscribe("channel");
+		SseEmitter emitter = service.subscribe("channel", CLIENT);
 		emitter.complete();
 
 		assertDoesNotThrow(() ->
 				service.broadcast("channel", SseEmitter.event().name("test").data("data"))
 		);
 	}
+
+	@Test
+	void subscribe_lastEmitterRemoved_runsChannelClosedListener() {
+		AtomicInteger closed = new AtomicInteger();
+		service.subscribe("channel", CLIENT, closed::incrementAndGet, null).complete();
+		SseEmitter open = service.subscribe("channel", CLIENT, closed::incrementAndGet, null);
+
+		service.broadcast("channel", SseEmitter.event().name("test").data("data"));
+
+		assertEquals(0, closed.get());
+		assertTrue(service.hasSubscribers("channel"));
+
+		open.complete();
+		service.broadcast("channel", SseEmitter.event().name("test").data("data"));
+
+		assertEquals(1, closed.get());
+		assertFalse(service.hasSubscribers("channel"));
+	}
+
+	@Test
+	void broadcast_slowSubscriber_dropsOldestEventsWithoutWaiting() {
+		List<Runnable> pendingSends = new ArrayList<>();
+		SimpleMeterRegistry queueingRegistry = new SimpleMeterRegistry();
+		SseChannelService queueing = new SseChannelService(new SseProperties(2, null, null, null, 2, 3), new LocalSseEventBus(), queueingRegistry, pendingSends::add);
+		queueing.subscribe("channel", CLIENT);
+
+		for (int i = 0; i < 5; i++) {
+			queueing.broadcast("channel", SseEmitter.event().name("test").data(i));
+		}
+
+		assertEquals(1, pendingSends.size());
+		assertEquals(2, queueing.getQueuedEventCount());
+		assertEquals(3.0, queueingRegistry.get("flow.sse.events.dropped").counter().count());
+
+		pendingSends.getFirst().run();
+
+		assertEquals(0, queueing.getQueuedEventCount());
+	}
+
+	@Test
+	void metrics_countSubscribers() {
+		service.subscribe("first", CLIENT);
+		service.subscribe("first", CLIENT);
+		service.subscribe("second", CLIENT);
+
+		assertEquals(3.0, meterRegistry.get("flow.sse.subscribers").gauge().value());
+	}
+
+	@Test
+	void sendHeartbeats_removesSubscribersThatCannotBeSent() {
+		AtomicInteger closed = new AtomicInteger();
+		service.subscribe("channel", CLIENT, closed::incrementAndGet, null).complete();
+
+		service.sendHeartbeats();
+
+		assertEquals(1, closed.get());
+		assertFalse(service.hasSubscribers("channel"));
+	}
+
+	@Test
+	void subscribe_channelFull_isRefused() {
+		service.subscribe("channel", CLIENT);
+		service.subscribe("channel", CLIENT);
+
+		ApiException exception = assertThrows(ApiException.class, () -> service.subscribe("channel", CLIENT));
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+		assertEquals(1.0, meterRegistry.get("flow.sse.subscriptions.rejected").counter().count());
+	}
+
+	@Test
+	void subscribe_sessionFull_isRefusedUntilASubscriptionCloses() {
+		SseClient client = new SseClient("session", null);
+		SseEmitter first = service.subscribe("first", client);
+		service.subscribe("second", client);
+		service.subscribe("third", client);
+
+		assertThrows(ApiException.class, () -> service.subscribe("fourth", client));
+		assertNotNull(service.subscribe("fourth", new SseClient("other-session", null)));
+
+		first.complete();
+		service.broadcast("first", SseEmitter.event().name("test").data("data"));
+
+		assertNotNull(service.subscribe("fifth", client));
+	}
+
+	@Test
+	void subscribe_channelFull_doesNotCountAgainstSession() {
+		SseClient client = new SseClient("session", null);
+		service.subscribe("channel", CLIENT);
+		service.subscribe("channel", CLIENT);
+
+		assertThrows(ApiException.class, () -> service.subscribe("channel", client));
+
+		service.subscribe("first", client);
+		service.subscribe("second", client);
+		assertNotNull(service.subscribe("third", client));
+	}
+
+	@Test
+	void lastSubscriberRemoved_removesChannel() {
+		service.subscribe("channel", CLIENT).complete();
+		service.subscribe("other", CLIENT).complete();
+
+		service.broadcast("channel", SseEmitter.event().name("test").data("data"));
+		service.broadcast("other", SseEmitter.event().name("test").data("data"));
+
+		assertEquals(0, service.getChannelCount());
+		assertEquals(0, service.getSubscriberCount());
+	}
+
+	@Test
+	void subscribe_firstEvent_isQueuedBeforeBroadcasts() {
+		List<Runnable> pendingSends = new ArrayList<>();
+		SimpleMeterRegistry queueingRegistry = new SimpleMeterRegistry();
+		SseChannelService queueing = new SseChannelService(new SseProperties(1, null, null, null, null, null), new LocalSseEventBus(), queueingRegistry, pendingSends::add);
+
+		queueing.subscribe("channel", CLIENT, null, SseEmitter.event().id("1-0"));
+		queueing.broadcast("channel", SseEmitter.event().id("1-1").data("data"));
+
+		assertEquals(1, queueing.getQueuedEventCount());
+		assertEquals(1.0, queueingRegistry.get("flow.sse.events.dropped").counter().count());
+	}
+
+	@Test
+	void lastSubscriberRemoved_releasesChannelOnEventBus() {
+		SseEventBus eventBus = spy(new LocalSseEventBus());
+		SseChannelService clustered = new SseChannelService(new SseProperties(null, null, null, null, null, null), eventBus, new SimpleMeterRegistry(), Runnable::run);
+		SseEmitter first = clustered.subscribe("channel", CLIENT);
+		SseEmitter second = clustered.subscribe("channel", CLIENT);
+
+		// Completed emitters are removed once sending to them fails
+		first.complete();
+		clustered.broadcast("channel", SseEmitter.event().name("test").data("data"));
+		verify(eventBus, never()).releaseChannel("channel");
+
+		second.complete();
+		clustered.broadcast("channel", SseEmitter.event().name("test").data("data"));
+		verify(eventBus).releaseChannel("channel");
+	}
 }
@@ -0,0 +1,135 @@
+package org.frankframework.flow.sse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseSubscriberTest {
+
+	private final SseEmitter emitter = mock(SseEmitter.class);
+
+	@Test
+	void offer_fullQueue_dropsOldestEvent() throws IOException {
+		List<Runnable> pendingSends = new ArrayList<>();
+		SseSubscriber subscriber = startedSubscriber(pendingSends::add, _ -> {});
+		Set<ResponseBodyEmitter.DataWithMediaType> first = event("first");
+		Set<ResponseBodyEmitter.DataWithMediaType> second = event("second");
+		Set<ResponseBodyEmitter.DataWithMediaType> third = event("third");
+
+		assertEquals(0, subscriber.offer(first));
+		assertEquals(0, subscriber.offer(second));
+		assertEquals(1, subscriber.offer(third));
+		pendingSends.forEach(Runnable::run);
+
+		assertEquals(1, pendingSends.size());
+		InOrder sent = inOrder(emitter);
+		sent.verify(emitter).send(second);
+		sent.verify(emitter).send(third);
+		verify(emitter, never()).send(first);
+	}
+
+	@Test
+	void offer_sendFails_reportsFailureAndStopsSending() throws IOException {
+		AtomicReference<SseSubscriber> failed = new AtomicReference<>();
+		SseSubscriber subscriber = startedSubscriber(Runnable::run, failed::set);
+		doThrow(new IOException("Broken pipe")).when(emitter).send(anySet());
+
+		subscriber.offer(event("first"));
+		subscriber.offer(event("second"));
+
+		assertSame(subscriber, failed.get());
+		verify(emitter).send(anySet());
+	}
+
+	@Test
+	void offerIfIdle_whileSending_isSkipped() {
+		List<Runnable> pendingSends = new ArrayList<>();
+		SseSubscriber subscriber = startedSubscriber(pendingSends::add, _ -> {});
+
+		subscriber.offer(event("first"));
+		subscriber.offerIfIdle(event("heartbeat"));
+
+		assertEquals(1, subscriber.getQueueSize());
+	}
+
+	@Test
+	void isStalled_whileSendHangs() throws Exception {
+		CountDownLatch sending = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(_ -> {
+			sending.countDown();
+			release.await();
+			return null;
+		}).when(emitter).send(any(Set.class));
+		SseSubscriber subscriber = startedSubscriber(runnable -> Thread.ofVirtual().start(runnable), _ -> {});
+
+		assertFalse(subscriber.isStalled(System.nanoTime(), 0));
+		subscriber.offer(event("first"));
+		assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+		assertTrue(subscriber.isStalled(System.nanoTime() + 1, 0));
+		assertFalse(subscriber.isStalled(System.nanoTime(), TimeUnit.MINUTES.toNanos(1)));
+		release.countDown();
+	}
+
+	@Test
+	void close_dropsQueuedEvents() {
+		List<Runnable> pendingSends = new ArrayList<>();
+		SseSubscriber subscriber = startedSubscriber(pendingSends::add, _ -> {});
+
+		subscriber.offer(event("first"));
+		subscriber.close();
+
+		assertEquals(0, subscriber.getQueueSize());
+		subscriber.offer(event("second"));
+
+		assertEquals(0, subscriber.getQueueSize());
+	}
+
+	@Test
+	void offer_beforeStart_queuesWithoutSending() throws IOException {
+		List<Runnable> pendingSends = new ArrayList<>();
+		SseSubscriber subscriber = new SseSubscriber(emitter, null, 2, pendingSends::add, _ -> {});
+		Set<ResponseBodyEmitter.DataWithMediaType> first = event("first");
+
+		subscriber.offer(first);
+		assertTrue(pendingSends.isEmpty());
+
+		subscriber.start();
+		pendingSends.forEach(Runnable::run);
+		verify(emitter).send(first);
+	}
+
+	private SseSubscriber startedSubscriber(Executor sendExecutor, Consumer<SseSubscriber> onSendFailed) {
+		SseSubscriber subscriber = new SseSubscriber(emitter, null, 2, sendExecutor, onSendFailed);
+		subscriber.start();
+		return subscriber;
+	}
+
+	private static Set<ResponseBodyEmitter.DataWithMediaType> event(String data) {
+		return SseEmitter.event().data(data).build();
+	}
+}
@@ -4,7 +4,10 @@ import static org.junit.Assert.assertNull;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
 import org.junit.jupiter.api.Test;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -223,4 +226,85 @@ class XmlAdapterUtilsTest {
 		assertNotNull(XmlAdapterUtils.findAdapterInDocument(doc, "Keep"));
 		assertNull(XmlAdapterUtils.findAdapterInDocument(doc, "Remove"));
 	}
+
+	@Test
+	void extractAdapterNames_returnsNamesInDocumentOrder() throws Exception {
+		String xml = "<Configuration><Adapter name=\"First\"><Pipeline/></Adapter><Adapter name=\"Second\"/></Configuration>";
+
+		assertEquals(List.of("First", "Second"), extractAdapterNames(xml));
+	}
+
+	@Test
+	void extractAdapterNames_usesLowercaseAdaptersOnlyWithoutUppercaseAdapters() throws Exception {
+		assertEquals(List.of("lower"), extractAdapterNames("<configuration><adapter name=\"lower\"/></configuration>"));
+		assertEquals(List.of("Upper"), extractAdapterNames("<Configuration><Adapter name=\"Upper\"/><adapter name=\"lower\"/></Configuration>"));
+	}
+
+	@Test
+	void extractAdapterNames_skipsBlankAndMissingNames() throws Exception {
+		String xml = "<Configuration><Adapter/><Adapter name=\" \"/><Adapter name=\"Named\"/></Configuration>";
+
+		assertEquals(List.of("Named"), extractAdapterNames(xml));
+	}
+
+	@Test
+	void extractAdapterNames_readsUndeclaredFlowNamespace() throws Exception {
+		String xml = "<Configuration><Adapter name=\"A\" flow:x=\"10\"/></Configuration>";
+
+		assertEquals(List.of("A"), extractAdapterNames(xml));
+	}
+
+	@Test
+	void extractAdapterNames_throwsForMalformedXml() {
+		assertThrows(XMLStreamException.class, () -> extractAdapterNames("<Configuration><Adapter name=\"A\">"));
+	}
+
+	@Test
+	void findAdapterRange_coversAdapterFromStartTagToEndTag() {
+		String xml = "<Configuration>\n\t<Adapter name=\"A\"><Pipeline/></Adapter>\n\t<Adapter name='B'/>\n</Configuration>";
+
+		XmlAdapterUtils.AdapterRange first = XmlAdapterUtils.findAdapterRange(xml, "A");
+		XmlAdapterUtils.AdapterRange second = XmlAdapterUtils.findAdapterRange(xml, "B");
+
+		assertEquals("<Adapter name=\"A\"><Pipeline/></Adapter>", xml.substring(first.start(), first.end()));
+		assertEquals("<Adapter name='B'/>", xml.substring(second.start(), second.end()));
+	}
+
+	@Test
+	void findAdapterRange_ignoresMarkupInCommentsCdataAndAttributeValues() {
+		String xml = "<?xml version=\"1.0\"?><!DOCTYPE Configuration [<!ENTITY e \"x\">]>"
+				+ "<Configuration><!-- <Adapter name=\"A\"> -->"
+				+ "<Adapter name=\"A\" description=\"a &gt; b\"><![CDATA[</Adapter>]]><?pi </Adapter>?></Adapter>"
+				+ "</Configuration>";
+
+		XmlAdapterUtils.AdapterRange range = XmlAdapterUtils.findAdapterRange(xml, "A");
+
+		assertTrue(xml.substring(range.start()).startsWith("<Adapter name=\"A\" description"));
+		assertEquals(xml.length() - "</Configuration>".length(), range.end());
+	}
+
+	@Test
+	void findAdapterRange_decodesNameAttribute() {
+		String xml = "<Configuration><Adapter name=\"Fish &amp; Chips&#33;\"/></Configuration>";
+
+		assertNotNull(XmlAdapterUtils.findAdapterRange(xml, "Fish & Chips!"));
+	}
+
+	@Test
+	void findAdapterRange_usesLowercaseAdaptersOnlyWithoutUppercaseAdapters() {
+		assertNotNull(XmlAdapterUtils.findAdapterRange("<configuration><adapter name=\"a\"/></configuration>", "a"));
+		assertNull(XmlAdapterUtils.findAdapterRange("<Configuration><Adapter name=\"A\"/><adapter name=\"a\"/></Configuration>", "a"));
+	}
+
+	@Test
+	void findAdapterRange_returnsNullForMalformedXml() {
+		assertNull(XmlAdapterUtils.findAdapterRange("<<< this is not xml >>>", "A"));
+		assertNull(XmlAdapterUtils.findAdapterRange("<Configuration><Adapter name=\"A\"></Configuration>", "A"));
+		assertNull(XmlAdapterUtils.findAdapterRange("<Configuration><Adapter name=\"A\"/>", "A"));
+		assertNull(XmlAdapterUtils.findAdapterRange("<Configuration><Adapter name=A/></Configuration>", "A"));
+	}
+
+	private List<String> extractAdapterNames(String xml) throws XMLStreamException {
+		return XmlAdapterUtils.extractAdapterNames(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+	}
 }
@@ -2,6 +2,10 @@ package org.frankframework.flow.utility;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import org.junit.jupiter.api.Test;
 
 class XmlFormatterUtilsTest {
@@ -98,4 +102,51 @@ class XmlFormatterUtilsTest {
 		String result = XmlFormatterUtils.format(xxe);
 		assertFalse(result.contains("root:"), "External entity content should not be expanded");
 	}
+
+	@Test
+	void attributeQuoteAndTextMarkupEscapedInSinglePass() throws Exception {
+		String result = XmlFormatterUtils.format("<root val='say \"a&lt;b\"'>x&lt;y&amp;z</root>");
+		assertEquals("<root\n  val=\"say &quot;a&lt;b&quot;\">x&lt;y&amp;z\n</root>", result);
+	}
+
+	@Test
+	void deepIndentationLongerThanOneSlice() throws Exception {
+		int depth = 200;
+		String xml = "<e>".repeat(depth) + "</e>".repeat(depth);
+
+		String result = XmlFormatterUtils.format(xml);
+
+		assertTrue(result.contains("\n" + " ".repeat((depth - 1) * 2) + "<e/>"));
+	}
+
+	@Test
+	void formatWritesToWriter() throws Exception {
+		StringWriter writer = new StringWriter();
+
+		XmlFormatterUtils.format(new StringReader("<root><child a=\"1\"/></root>"), writer, null);
+
+		assertEquals("<root>\n  <child\n    a=\"1\"/>\n</root>", writer.toString());
+	}
+
+	@Test
+	void formatPropagatesWriterFailure() {
+		Writer failingWriter = new Writer() {
+			@Override
+			public void write(char[] buffer, int offset, int length) throws IOException {
+				throw new IOException("disk full");
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+
+		IOException exception = assertThrows(IOException.class,
+				() -> XmlFormatterUtils.format(new StringReader("<root/>"), failingWriter, null));
+		assertEquals("disk full", exception.getMessage());
+	}
 }
@@ -3,13 +3,32 @@ package org.frankframework.flow.utility;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
 import org.junit.jupiter.api.Test;
 import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
 
 class XmlSecurityUtilsTest {
 
@@ -63,4 +82,112 @@ class XmlSecurityUtilsTest {
 			Files.deleteIfExists(secretFile);
 		}
 	}
+
+	@Test
+	void createSecureDocumentBuilder_reusesResetBuilderOnSameThread() throws Exception {
+		DocumentBuilder first = XmlSecurityUtils.createSecureDocumentBuilder();
+		assertThrows(SAXParseException.class, () -> first.parse(new InputSource(new StringReader("<Configuration>"))));
+
+		DocumentBuilder second = XmlSecurityUtils.createSecureDocumentBuilder();
+
+		assertSame(first, second);
+		assertEquals("Configuration", parse("<Configuration/>").getDocumentElement().getTagName());
+	}
+
+	@Test
+	void createSecureDocumentBuilder_createsNewBuilderOnEveryVirtualThread() throws Exception {
+		List<DocumentBuilder> builders = new CopyOnWriteArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			Thread.ofVirtual().start(() -> {
+				try {
+					builders.add(XmlSecurityUtils.createSecureDocumentBuilder());
+				} catch (ParserConfigurationException e) {
+					throw new IllegalStateException(e);
+				}
+			}).join();
+		}
+
+		assertEquals(2, builders.size());
+		assertNotSame(builders.get(0), builders.get(1));
+	}
+
+	@Test
+	void createSecureTransformer_resetsOutputPropertiesBeforeReuse() throws Exception {
+		Transformer first = XmlSecurityUtils.createSecureTransformer();
+		first.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+
+		Transformer second = XmlSecurityUtils.createSecureTransformer();
+		StringWriter writer = new StringWriter();
+		second.transform(new DOMSource(parse("<Configuration/>")), new StreamResult(writer));
+
+		assertSame(first, second);
+		assertTrue(writer.toString().startsWith("<?xml"), "Reused transformer should write the default XML declaration");
+	}
+
+	@Test
+	void createSecureXmlInputFactory_doesNotResolveExternalEntities() throws Exception {
+		Path secretFile = Files.createTempFile("xxe-secret", ".txt");
+		try {
+			Files.writeString(secretFile, "TOP_SECRET_CONTENT");
+			String systemId = secretFile.toUri().toString();
+
+			String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+					+ "<!DOCTYPE Configuration [ <!ENTITY xxe SYSTEM \"" + systemId + "\"> ]>\n"
+					+ "<Configuration>&xxe;</Configuration>";
+
+			XMLStreamReader reader = XmlSecurityUtils.createSecureXmlInputFactory()
+					.createXMLStreamReader(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+			StringBuilder text = new StringBuilder();
+			// Without DTD support the entity is undeclared, so parsing stops at the reference
+			assertThrows(XMLStreamException.class, () -> {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.CHARACTERS) {
+						text.append(reader.getText());
+					}
+				}
+			});
+
+			assertFalse(text.toString().contains("TOP_SECRET_CONTENT"));
+		} finally {
+			Files.deleteIfExists(secretFile);
+		}
+	}
+
+	@Test
+	void createSecureXmlInputFactory_doesNotExpandInternalEntities() throws Exception {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<!DOCTYPE Configuration [\n"
+				+ "  <!ENTITY lol \"lol\">\n"
+				+ "  <!ENTITY lol1 \"&lol;&lol;&lol;&lol;&lol;&lol;&lol;&lol;&lol;&lol;\">\n"
+				+ "  <!ENTITY lol2 \"&lol1;&lol1;&lol1;&lol1;&lol1;&lol1;&lol1;&lol1;&lol1;&lol1;\">\n"
+				+ "]>\n"
+				+ "<Configuration>&lol2;</Configuration>";
+
+		XMLStreamReader reader = XmlSecurityUtils.createSecureXmlInputFactory()
+				.createXMLStreamReader(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+		assertThrows(XMLStreamException.class, () -> {
+			while (reader.hasNext()) {
+				reader.next();
+			}
+		});
+	}
+
+	@Test
+	void createSecureXmlInputFactory_acceptsConfigurationWithDoctype() throws Exception {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<!DOCTYPE Configuration>\n"
+				+ "<Configuration><Adapter name=\"a\"/></Configuration>";
+
+		XMLStreamReader reader = XmlSecurityUtils.createSecureXmlInputFactory()
+				.createXMLStreamReader(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+		int elements = 0;
+		while (reader.hasNext()) {
+			if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+				elements++;
+			}
+		}
+
+		assertEquals(2, elements);
+	}
 }
@@ -187,6 +187,52 @@ public class XsdAttributeOrdererUtilsTest {
 		assertEquals("attr", result.getFirst()[0]);
 	}
 
+	@Test
+	void testOrderTable_IncludesInheritedAttributesAndSurvivesCycles() {
+		Element base = addComplexTypeElement("base");
+		addAttrElement(base, "baseAttr", false);
+		Element extension = doc.createElementNS("http://www.w3.org/2001/XMLSchema", "extension");
+		extension.setAttribute("base", "derivedType");
+		base.appendChild(extension);
+		Element derived = addComplexTypeElement("derived");
+		Element derivedExtension = doc.createElementNS("http://www.w3.org/2001/XMLSchema", "extension");
+		derivedExtension.setAttribute("base", "baseType");
+		derived.appendChild(derivedExtension);
+		addAttrElement(derivedExtension, "ownAttr", true);
+
+		orderer = assertDoesNotThrow(() -> new XsdAttributeOrdererUtils(doc));
+
+		assertEquals(List.of("ownAttr", "baseAttr"), orderer.getAttributeOrder().get("derived"));
+	}
+
+	@Test
+	void testOrderTable_RoundTripsThroughAttributeOrder() {
+		Element ct = addComplexTypeElement("my");
+		addAttrElement(ct, "optionalAttr", false);
+		addAttrElement(ct, "requiredAttr", true);
+		XsdAttributeOrdererUtils compiled = new XsdAttributeOrdererUtils(doc);
+
+		XsdAttributeOrdererUtils restored = new XsdAttributeOrdererUtils(compiled.getAttributeOrder());
+		AttributesImpl attrs = new AttributesImpl();
+		attrs.addAttribute("", "", "unknown", "", "v");
+		attrs.addAttribute("", "", "optionalAttr", "", "v");
+		attrs.addAttribute("", "", "flow:y", "", "v");
+		attrs.addAttribute("", "", "requiredAttr", "", "v");
+		attrs.addAttribute("", "", "flow:x", "", "v");
+
+		assertArrayEquals(new int[]{4, 2, 3, 1, 0}, restored.order("my", attrs));
+		assertArrayEquals(compiled.order("my", attrs), restored.order("my", attrs));
+	}
+
+	@Test
+	void testOrderTable_IsImmutable() {
+		addComplexType("attrA");
+		orderer = new XsdAttributeOrdererUtils(doc);
+
+		assertThrows(UnsupportedOperationException.class, () -> orderer.getAttributeOrder().put("other", List.of()));
+		assertThrows(UnsupportedOperationException.class, () -> orderer.getAttributeOrder().get("my").add("attrB"));
+	}
+
 	private void addComplexType(String... attributes) {
 		Element ct = addComplexTypeElement("my");
 		for (String attr : attributes) {